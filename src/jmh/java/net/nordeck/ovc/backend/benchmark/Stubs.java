@@ -0,0 +1,78 @@
+package net.nordeck.ovc.backend.benchmark;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories and other collaborators, so that the benchmarks measure
+ * the service code and not a database or a mocking framework.
+ */
+public final class Stubs
+{
+    private Stubs()
+    {
+    }
+
+    /**
+     * Creates a stub of the given interface: <code>save*</code> methods return their argument, the methods listed in
+     * <code>answers</code> return the given answer and everything else returns an empty value.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers)
+    {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null)
+            {
+                return answer.apply(args);
+            }
+            if (method.getName().startsWith("save") && args != null && args.length == 1)
+            {
+                return args[0];
+            }
+            if (method.getDeclaringClass() == Object.class)
+            {
+                return switch (method.getName())
+                {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            return emptyValue(method.getReturnType());
+        });
+    }
+
+    public static <T> T stub(Class<T> type)
+    {
+        return stub(type, Map.of());
+    }
+
+    private static Object emptyValue(Class<?> type)
+    {
+        if (type == Optional.class) return Optional.empty();
+        if (type == List.class || type == Collection.class || type == Iterable.class) return List.of();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package net.nordeck.ovc.backend.controller.cache;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body capture of {@link CachedBodyHttpServletRequest}, done for every request passing the logging filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachedBodyHttpServletRequestBenchmark
+{
+    @Param({"1024", "65536"})
+    public int bodySize;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp()
+    {
+        body = "x".repeat(bodySize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int captureAndReadBody() throws IOException
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1.0/meetings");
+        request.setContent(body);
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request);
+        return cached.getInputStream().readAllBytes().length;
+    }
+}
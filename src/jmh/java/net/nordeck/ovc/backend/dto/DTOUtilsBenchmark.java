@@ -0,0 +1,95 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a series parent with all of its children (excluded dates) and participants to a {@link MeetingDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DTOUtilsBenchmark
+{
+    @Param({"52", "365"})
+    public int children;
+
+    @Param({"10", "100"})
+    public int participants;
+
+    private MeetingEntity parent;
+
+    @Setup
+    public void setUp()
+    {
+        ZonedDateTime start = ZonedDateTime.now().plusDays(1);
+        parent = MeetingEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark series")
+                .ownerId("owner@nordeck.net")
+                .frequency("DAILY")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .seriesEndTime(start.plusDays(children))
+                .build();
+
+        List<MeetingParticipantEntity> participantEntities = new ArrayList<>();
+        for (int i = 0; i < participants; i++)
+        {
+            participantEntities.add(MeetingParticipantEntity.builder()
+                                            .id(UUID.randomUUID())
+                                            .meetingId(parent.getId())
+                                            .email("participant" + i + "@nordeck.net")
+                                            .role(i == 0 ? "MODERATOR" : "GUEST")
+                                            .build());
+        }
+        parent.setParticipants(participantEntities);
+
+        List<MeetingEntity> childEntities = new ArrayList<>();
+        for (int i = 0; i < children; i++)
+        {
+            childEntities.add(MeetingEntity.builder()
+                                      .id(UUID.randomUUID())
+                                      .parentId(parent.getId())
+                                      .frequency("DAILY")
+                                      .startTime(start.plusDays(i))
+                                      .endTime(start.plusDays(i).plusHours(1))
+                                      .excluded(i % 7 == 0)
+                                      .build());
+        }
+        parent.setChildren(childEntities);
+    }
+
+    @Benchmark
+    public MeetingDTO buildFromEntity()
+    {
+        return DTOUtils.buildFromEntity(parent);
+    }
+}
@@ -0,0 +1,116 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.benchmark.Stubs;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
+import net.nordeck.ovc.backend.cache.MeetingCacheClusterSync;
+import net.nordeck.ovc.backend.configuration.ReadYourWritesGuard;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of a one year meeting series into its child meetings and the custom week day stepping it relies on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingServiceBenchmark
+{
+    private MeetingServiceImpl meetingService;
+
+    private MeetingEntity customParent;
+
+    @State(Scope.Benchmark)
+    public static class Series
+    {
+        @Param({"DAILY", "WEEKLY", "MONTHLY", "CUSTOM"})
+        public String frequency;
+
+        private MeetingEntity parent;
+
+        @Setup
+        public void setUp()
+        {
+            parent = buildParent(frequency);
+        }
+    }
+
+    @Setup
+    public void setUp()
+    {
+        meetingService = new MeetingServiceImpl(
+                Stubs.stub(MeetingRepository.class),
+                Stubs.stub(MeetingParticipantRepository.class),
+                Stubs.stub(NotificationService.class),
+                Stubs.stub(KeycloakClientService.class),
+                new MeetingBasicCache(false, 30, 100,
+                                      new DefaultListableBeanFactory().getBeanProvider(MeetingCacheClusterSync.class),
+                                      new DefaultListableBeanFactory().getBeanProvider(ReadYourWritesGuard.class)),
+                Stubs.stub(ConferencePinService.class),
+                Stubs.stub(MeetingActivityService.class));
+        meetingService.sipJibriLink = "112233@sip.nordeck.io";
+        customParent = buildParent("CUSTOM");
+    }
+
+    @Benchmark
+    public List<MeetingEntity> createRecurringMeetings(Series series)
+    {
+        return meetingService.createRecurringMeetings(series.parent);
+    }
+
+    @Benchmark
+    public ZonedDateTime calculateNextDayForCustomRecurrence()
+    {
+        ZonedDateTime date = customParent.getStartTime();
+        for (int i = 0; i < 7; i++)
+        {
+            date = meetingService.calculateNextDayForCustomRecurrence(date, customParent);
+        }
+        return date;
+    }
+
+    private static MeetingEntity buildParent(String frequency)
+    {
+        ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(1).withHour(10);
+        return MeetingEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark series")
+                .ownerId("owner@nordeck.net")
+                .frequency(frequency)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .seriesEndTime(start.plusYears(1))
+                .customDays_monday(true)
+                .customDays_wednesday(true)
+                .customDays_friday(true)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nordeck.ovc.backend.benchmark.Stubs;
+import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
+import net.nordeck.ovc.backend.dto.Role;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.NotificationOutboxRepository;
+import net.nordeck.ovc.backend.repository.NotificationRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the Jitsi token generation and of the notifications created when participants are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAndNotificationBenchmark
+{
+    private static final String JWT_SECRET = "oeRaYY7Wo24sDqKSX3IM9ASGmdGPmkTd9jo1QTy4b7P9Ze5";
+
+    @Param({"10", "100"})
+    public int participants;
+
+    private JitsiServiceImpl jitsiService;
+
+    private NotificationServiceImpl notificationService;
+
+    private MeetingEntity meeting;
+
+    private MeetingParticipantDTO moderator;
+
+    private List<MeetingParticipantEntity> participantEntities;
+
+    @Setup
+    public void setUp()
+    {
+        ZonedDateTime start = ZonedDateTime.now().plusHours(1);
+        meeting = MeetingEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark meeting")
+                .ownerId("owner@nordeck.net")
+                .frequency("ONCE")
+                .password("secret")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+        participantEntities = new ArrayList<>();
+        for (int i = 0; i < participants; i++)
+        {
+            participantEntities.add(MeetingParticipantEntity.builder()
+                                            .id(UUID.randomUUID())
+                                            .meetingId(meeting.getId())
+                                            .email("participant" + i + "@nordeck.net")
+                                            .role("GUEST")
+                                            .build());
+        }
+        meeting.setParticipants(participantEntities);
+        moderator = new MeetingParticipantDTO(UUID.randomUUID(), meeting.getId(), Role.MODERATOR,
+                                              "participant0@nordeck.net");
+
+        jitsiService = new JitsiServiceImpl();
+        jitsiService.setMeetingRepository(Stubs.stub(MeetingRepository.class, Map.of(
+                "findWithParticipantsById", args -> Optional.of(meeting))));
+        jitsiService.setObjectMapper(new ObjectMapper());
+        jitsiService.setTimeZoneService(new TimeZoneServiceImpl());
+        jitsiService.setSecret(JWT_SECRET);
+        jitsiService.setExpirationInMinutes(60);
+        jitsiService.setExpirationForRoomsInMinutes(180);
+        jitsiService.setNotBeforeInMinutes(30);
+
+        notificationService = new NotificationServiceImpl(Stubs.stub(NotificationRepository.class),
+                                                          Stubs.stub(NotificationOutboxRepository.class),
+                                                          Stubs.stub(MeetingRepository.class));
+        notificationService.objectMapper = new ObjectMapper();
+        ReflectionTestUtils.setField(notificationService, "portalDomain", "https://portal.nordeck.net");
+        ReflectionTestUtils.setField(notificationService, "meetingJoinPath", "/meetings/join/");
+    }
+
+    @Benchmark
+    public String generateToken()
+    {
+        return jitsiService.generateToken(moderator, moderator.getEmail(), "Moderator", meeting.getId(), null);
+    }
+
+    @Benchmark
+    public MeetingEntity createParticipantAddedNotifications()
+    {
+        notificationService.createParticipantAddedNotifications(meeting, participantEntities);
+        return meeting;
+    }
+}
@@ -0,0 +1,102 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static net.nordeck.ovc.backend.loadtest.LoadTestSecurity.USER_HEADER;
+
+/**
+ * Thin JSON client for the backend REST API, shared by all load test workers.
+ */
+class LoadTestClient
+{
+    private final String baseUrl;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper)
+    {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    HttpRequest get(String path, String user)
+    {
+        return request(path, user).GET().build();
+    }
+
+    HttpRequest post(String path, String user, Object body)
+    {
+        try
+        {
+            return request(path, user)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalArgumentException("Cannot serialize request body for " + path, e);
+        }
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException
+    {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sends the request and returns the parsed JSON body, failing on any non 2xx status.
+     */
+    JsonNode sendForJson(HttpRequest request) throws IOException, InterruptedException
+    {
+        HttpResponse<String> response = send(request);
+        if (response.statusCode() / 100 != 2)
+        {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                                                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path, String user)
+    {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (user != null)
+        {
+            builder.header(USER_HEADER, user);
+        }
+        return builder;
+    }
+}
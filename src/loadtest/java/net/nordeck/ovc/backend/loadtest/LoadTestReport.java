@@ -0,0 +1,169 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency percentiles and throughput per endpoint of one load test run.
+ */
+class LoadTestReport
+{
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestRunner.Settings settings;
+
+    private final Map<Workload.Endpoint, Samples> samples;
+
+    LoadTestReport(LoadTestRunner.Settings settings, Map<Workload.Endpoint, Samples> samples)
+    {
+        this.settings = settings;
+        this.samples = samples;
+    }
+
+    void print(PrintStream out)
+    {
+        out.printf("%n%-18s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                   "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        summary().forEach((endpoint, s) -> out.printf("%-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                                                      endpoint, s.requests(), s.errors(), s.throughput(),
+                                                      s.p50(), s.p90(), s.p99(), s.p999(), s.max()));
+        summary().forEach((endpoint, s) ->
+                          {
+                              if (s.firstError() != null && !"total".equals(endpoint))
+                              {
+                                  out.printf("first error of %s: %s%n", endpoint, s.firstError());
+                              }
+                          });
+    }
+
+    void write(ObjectMapper objectMapper, Path file) throws IOException
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", settings.users());
+        result.put("meetings_per_user", settings.meetingsPerUser());
+        result.put("series_per_user", settings.seriesPerUser());
+        result.put("static_rooms_per_user", settings.staticRoomsPerUser());
+        result.put("concurrency", settings.concurrency());
+        result.put("duration_seconds", settings.durationSeconds());
+        result.put("endpoints", summary());
+        if (file.getParent() != null)
+        {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), result);
+        System.out.println("Load test result is saved to " + file.toAbsolutePath());
+    }
+
+    private Map<String, Summary> summary()
+    {
+        Map<String, Summary> summary = new LinkedHashMap<>();
+        Samples total = new Samples();
+        samples.forEach((endpoint, s) ->
+                        {
+                            summary.put(endpoint.key, s.summarize(settings.durationSeconds()));
+                            total.addAll(s);
+                        });
+        summary.put("total", total.summarize(settings.durationSeconds()));
+        return summary;
+    }
+
+    record Summary(long requests, long errors, double throughput, double p50, double p90, double p99, double p999,
+                   double max, String firstError)
+    {
+    }
+
+    /**
+     * Recorded latencies in nanoseconds, written by a single worker and merged after the run.
+     */
+    static class Samples
+    {
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        private String firstError;
+
+        void add(long latencyNanos, HttpResponse<String> response)
+        {
+            if (size == latencies.length)
+            {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (response.statusCode() / 100 != 2)
+            {
+                errors++;
+                if (firstError == null)
+                {
+                    firstError = response.statusCode() + " " + StringUtils.abbreviate(response.body(), 300);
+                }
+            }
+        }
+
+        void addAll(Samples other)
+        {
+            if (size + other.size > latencies.length)
+            {
+                latencies = Arrays.copyOf(latencies, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+            if (firstError == null)
+            {
+                firstError = other.firstError;
+            }
+        }
+
+        Summary summarize(int durationSeconds)
+        {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            double[] values = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; i++)
+            {
+                values[i] = percentile(sorted, PERCENTILES[i]);
+            }
+            return new Summary(size, errors, (double) size / durationSeconds, values[0], values[1], values[2],
+                               values[3], size == 0 ? 0 : sorted[size - 1] / 1_000_000d, firstError);
+        }
+
+        private static double percentile(long[] sorted, double percentile)
+        {
+            if (sorted.length == 0)
+            {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000d;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nordeck.ovc.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the backend with the <code>test</code> profile (in-memory H2, resource server disabled) on a random port,
+ * seeds users, meetings, series and static rooms through the REST API and then drives the endpoint mix of
+ * {@link Workload} with a fixed number of concurrent clients. The per endpoint latency percentiles and throughput
+ * are printed and written as JSON.
+ * <p>
+ * Run with <code>mvn -Ploadtest verify -DskipTests</code>, the settings are read from the <code>loadtest.*</code>
+ * system properties (see {@link Settings#fromSystemProperties()}).
+ */
+public class LoadTestRunner
+{
+    private static final String JWT_SECRET = "oeRaYY7Wo24sDqKSX3IM9ASGmdGPmkTd9jo1QTy4b7P9Ze5";
+
+    public static void main(String[] args) throws Exception
+    {
+        Settings settings = Settings.fromSystemProperties();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class,
+                                                                              LoadTestSecurity.class)
+                .profiles("test")
+                .run(applicationArguments(args));
+        try
+        {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadTestClient client = new LoadTestClient("http://localhost:" + port, objectMapper);
+
+            SeedData seed = new Seeder(client, settings).seed();
+            LoadTestReport report = new Workload(client, seed, settings).run();
+            report.print(System.out);
+            report.write(objectMapper, settings.result());
+        }
+        finally
+        {
+            context.close();
+        }
+    }
+
+    /**
+     * The overrides are passed as command line arguments, as those take precedence over the application yaml files.
+     */
+    private static String[] applicationArguments(String[] args)
+    {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        arguments.add("--spring.main.banner-mode=off");
+        // the request logging would otherwise measure the console rather than the backend
+        arguments.add("--logging.level.root=WARN");
+        arguments.add("--jitsi.jwt.secret=" + JWT_SECRET);
+        // the scheduled jobs would delete or change seeded data while the workload runs
+        for (String job : List.of("static-room-delete-unused", "static-room-password-change", "static-room-default-user",
+                                  "meetings-delete-old", "notifications-delete-old", "instant-meeting-delete-old"))
+        {
+            arguments.add("--jobs." + job + ".enabled=false");
+        }
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * @param mix relative weights of the endpoints, e.g. <code>meeting-list:40,jitsi-link:20</code>
+     */
+    record Settings(int users, int meetingsPerUser, int seriesPerUser, int staticRoomsPerUser, int concurrency,
+                    int warmupSeconds, int durationSeconds, Map<Workload.Endpoint, Integer> mix, Path result)
+    {
+        static Settings fromSystemProperties()
+        {
+            return new Settings(
+                    Integer.getInteger("loadtest.users", 50),
+                    Integer.getInteger("loadtest.meetings-per-user", 20),
+                    Integer.getInteger("loadtest.series-per-user", 2),
+                    Integer.getInteger("loadtest.static-rooms-per-user", 2),
+                    Integer.getInteger("loadtest.concurrency", 16),
+                    Integer.getInteger("loadtest.warmup-seconds", 15),
+                    Integer.getInteger("loadtest.duration-seconds", 60),
+                    parseMix(System.getProperty("loadtest.mix",
+                                                "meeting-list:40,jitsi-link:20,conference-mapper:20,notifications:20")),
+                    Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json")));
+        }
+
+        private static Map<Workload.Endpoint, Integer> parseMix(String mix)
+        {
+            Map<Workload.Endpoint, Integer> weights = new EnumMap<>(Workload.Endpoint.class);
+            for (String entry : mix.split(","))
+            {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2)
+                {
+                    throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+                }
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight > 0)
+                {
+                    weights.put(Workload.Endpoint.fromKey(parts[0].trim()), weight);
+                }
+            }
+            if (weights.isEmpty())
+            {
+                throw new IllegalArgumentException("loadtest.mix does not select any endpoint: " + mix);
+            }
+            return weights;
+        }
+    }
+}
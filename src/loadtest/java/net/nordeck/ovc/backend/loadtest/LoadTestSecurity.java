@@ -0,0 +1,78 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Security setup of the load test: the test profile disables the resource server, so every request is permitted and
+ * the calling user is taken from the {@value #USER_HEADER} header instead of a Keycloak token.
+ * <p>
+ * Deliberately not annotated with <code>@Configuration</code>, so that component scanning never picks it up. It is only
+ * registered as an application source by {@link LoadTestRunner}.
+ */
+public class LoadTestSecurity
+{
+    public static final String USER_HEADER = "X-Load-Test-User";
+
+    @Bean
+    public SecurityFilterChain loadTestFilterChain(HttpSecurity http) throws Exception
+    {
+        http.sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        http.csrf(AbstractHttpConfigurer::disable);
+        http.authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll());
+        http.addFilterBefore(new UserHeaderFilter(), AnonymousAuthenticationFilter.class);
+        return http.build();
+    }
+
+    static class UserHeaderFilter extends OncePerRequestFilter
+    {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException
+        {
+            String email = request.getHeader(USER_HEADER);
+            if (email != null)
+            {
+                Instant now = Instant.now();
+                Jwt token = new Jwt("load-test", now, now.plusSeconds(3600), Map.of("alg", "none"),
+                                    Map.of("email", email, "preferred_username", email));
+                SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(token, List.of(), email));
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Users and meetings created by the {@link Seeder}, the workload picks its request parameters from here.
+ */
+record SeedData(List<String> users, List<Meeting> meetings)
+{
+    record Meeting(UUID id, String ownerId, String password, String conferencePin)
+    {
+    }
+}
@@ -0,0 +1,141 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import net.nordeck.ovc.backend.dto.*;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Creates the data set through the REST API, so that it goes through the same code paths (PIN pool, recurrence
+ * expansion, participants and notifications) as the data of a real installation.
+ * <p>
+ * Single meetings are spread over the default list window of +/- 4 weeks, series are weekly for three months and
+ * every meeting invites two other users, static rooms additionally create notifications for their participants.
+ */
+class Seeder
+{
+    private static final String MEETINGS_PATH = "/api/v1.0/meetings/";
+
+    private final LoadTestClient client;
+
+    private final LoadTestRunner.Settings settings;
+
+    private final Random random = new Random(42);
+
+    Seeder(LoadTestClient client, LoadTestRunner.Settings settings)
+    {
+        this.client = client;
+        this.settings = settings;
+    }
+
+    SeedData seed() throws IOException, InterruptedException
+    {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < settings.users(); i++)
+        {
+            users.add("user" + i + "@loadtest.nordeck.net");
+        }
+
+        long started = System.nanoTime();
+        List<SeedData.Meeting> meetings = new ArrayList<>();
+        for (String user : users)
+        {
+            for (int i = 0; i < settings.meetingsPerUser(); i++)
+            {
+                meetings.add(create(user, normalMeeting(users, user, i), "password" + i));
+            }
+            for (int i = 0; i < settings.seriesPerUser(); i++)
+            {
+                meetings.add(create(user, series(users, user, i), "series" + i));
+            }
+            for (int i = 0; i < settings.staticRoomsPerUser(); i++)
+            {
+                meetings.add(create(user, staticRoom(users, user, i), "room" + i));
+            }
+        }
+        System.out.printf("Seeded %d users and %d meetings in %d ms%n", users.size(), meetings.size(),
+                          (System.nanoTime() - started) / 1_000_000);
+        return new SeedData(List.copyOf(users), List.copyOf(meetings));
+    }
+
+    private MeetingCreateDTO normalMeeting(List<String> users, String owner, int index)
+    {
+        ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .plusHours(random.nextInt(8 * 7 * 24) - 4 * 7 * 24);
+        MeetingCreateDTO dto = meeting(users, owner, MeetingType.NORMAL, "Meeting " + index);
+        dto.setStartTime(start);
+        dto.setEndTime(start.plusHours(1));
+        return dto;
+    }
+
+    private MeetingCreateDTO series(List<String> users, String owner, int index)
+    {
+        ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(random.nextInt(7 * 24));
+        MeetingCreateDTO dto = meeting(users, owner, MeetingType.NORMAL, "Series " + index);
+        RecurrenceDTO recurrence = new RecurrenceDTO();
+        recurrence.setFrequency(RecurrenceFrequency.WEEKLY);
+        recurrence.setEndDate(start.plusMonths(3));
+        recurrence.setWeekDays(new WeekDays());
+        dto.setRecurrence(recurrence);
+        dto.setStartTime(start);
+        dto.setEndTime(start.plusHours(1));
+        return dto;
+    }
+
+    private MeetingCreateDTO staticRoom(List<String> users, String owner, int index)
+    {
+        return meeting(users, owner, MeetingType.STATIC, "Room " + index);
+    }
+
+    private MeetingCreateDTO meeting(List<String> users, String owner, MeetingType type, String name)
+    {
+        MeetingCreateDTO dto = new MeetingCreateDTO();
+        dto.setType(type);
+        dto.setName(name);
+        dto.setInfo("Load test data");
+        dto.setLobbyEnabled(false);
+        List<MeetingParticipantRequestDTO> participants = new ArrayList<>();
+        while (users.size() > 1 && participants.size() < Math.min(2, users.size() - 1))
+        {
+            String user = users.get(random.nextInt(users.size()));
+            if (!user.equals(owner) && participants.stream().noneMatch(p -> p.getEmail().equals(user)))
+            {
+                participants.add(new MeetingParticipantRequestDTO(Role.GUEST, user));
+            }
+        }
+        dto.setParticipants(participants);
+        return dto;
+    }
+
+    private SeedData.Meeting create(String owner, MeetingCreateDTO dto, String password)
+            throws IOException, InterruptedException
+    {
+        dto.setPassword(password);
+        JsonNode created = client.sendForJson(client.post(MEETINGS_PATH, owner, dto));
+        return new SeedData.Meeting(UUID.fromString(created.get("id").asText()), owner, password,
+                                    created.path("conference_pin").asText(null));
+    }
+}
@@ -0,0 +1,160 @@
+package net.nordeck.ovc.backend.loadtest;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.dto.JitsiTokenRequestDTO;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request mix of a node in production: users polling their meeting list and notifications, joining meetings
+ * via the jitsi link and the dial-in gateway resolving conference PINs.
+ * <p>
+ * Each worker sends its next request as soon as the previous one returned (closed model), so the measured
+ * throughput is the capacity of the node for the configured concurrency. Requests sent during the warm-up are
+ * not recorded.
+ */
+class Workload
+{
+    enum Endpoint
+    {
+        MEETING_LIST("meeting-list"),
+        JITSI_LINK("jitsi-link"),
+        CONFERENCE_MAPPER("conference-mapper"),
+        NOTIFICATIONS("notifications");
+
+        final String key;
+
+        Endpoint(String key)
+        {
+            this.key = key;
+        }
+
+        static Endpoint fromKey(String key)
+        {
+            return Arrays.stream(values())
+                    .filter(e -> e.key.equals(key))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown load test endpoint: " + key));
+        }
+    }
+
+    private final LoadTestClient client;
+
+    private final SeedData seed;
+
+    private final LoadTestRunner.Settings settings;
+
+    private final Endpoint[] weightedEndpoints;
+
+    private final List<SeedData.Meeting> meetingsWithPin;
+
+    Workload(LoadTestClient client, SeedData seed, LoadTestRunner.Settings settings)
+    {
+        this.client = client;
+        this.seed = seed;
+        this.settings = settings;
+        List<Endpoint> weighted = new ArrayList<>();
+        settings.mix().forEach((endpoint, weight) -> weighted.addAll(Collections.nCopies(weight, endpoint)));
+        this.weightedEndpoints = weighted.toArray(new Endpoint[0]);
+        this.meetingsWithPin = seed.meetings().stream().filter(m -> m.conferencePin() != null).toList();
+    }
+
+    LoadTestReport run() throws InterruptedException
+    {
+        long now = System.nanoTime();
+        long measureFrom = now + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+        System.out.printf("Running %s with %d clients: %d s warm-up, %d s measurement%n", settings.mix(),
+                          settings.concurrency(), settings.warmupSeconds(), settings.durationSeconds());
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.concurrency());
+        try
+        {
+            List<Future<Map<Endpoint, LoadTestReport.Samples>>> workers = new ArrayList<>();
+            for (int i = 0; i < settings.concurrency(); i++)
+            {
+                workers.add(executor.submit(() -> work(measureFrom, measureUntil)));
+            }
+            Map<Endpoint, LoadTestReport.Samples> merged = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, LoadTestReport.Samples>> worker : workers)
+            {
+                worker.get().forEach((endpoint, samples) -> merged
+                        .computeIfAbsent(endpoint, e -> new LoadTestReport.Samples())
+                        .addAll(samples));
+            }
+            return new LoadTestReport(settings, merged);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Load test worker failed", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, LoadTestReport.Samples> work(long measureFrom, long measureUntil) throws Exception
+    {
+        Map<Endpoint, LoadTestReport.Samples> samples = new EnumMap<>(Endpoint.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long started;
+        while ((started = System.nanoTime()) < measureUntil)
+        {
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            HttpResponse<String> response = client.send(request(endpoint, random));
+            long finished = System.nanoTime();
+            if (started >= measureFrom)
+            {
+                samples.computeIfAbsent(endpoint, e -> new LoadTestReport.Samples())
+                        .add(finished - started, response);
+            }
+        }
+        return samples;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random)
+    {
+        String user = seed.users().get(random.nextInt(seed.users().size()));
+        return switch (endpoint)
+        {
+            case MEETING_LIST -> client.get("/api/v1.0/meetings/?type=normal", user);
+            case NOTIFICATIONS -> client.get("/api/v1.0/notifications/", user);
+            case CONFERENCE_MAPPER ->
+            {
+                SeedData.Meeting meeting = meetingsWithPin.get(random.nextInt(meetingsWithPin.size()));
+                yield client.get("/api/v1.0/conference-mapper/jigasi/by-pin?id=" + meeting.conferencePin(), null);
+            }
+            case JITSI_LINK ->
+            {
+                SeedData.Meeting meeting = seed.meetings().get(random.nextInt(seed.meetings().size()));
+                JitsiTokenRequestDTO body = new JitsiTokenRequestDTO(meeting.password(), user, user, null);
+                yield client.post("/api/v1.0/meetings/" + meeting.id() + "/jitsi-link", user, body);
+            }
+        };
+    }
+}
@@ -31,6 +31,17 @@ public class Constants
     public static final String ERR_WRONG_MEETING_PASSWORD = "Wrong meeting password.";
     public static final String ERR_PARTICIPANT_DUPLICATE = "Participant already exists with email <%s>.";
     public static final String ERR_NO_PARTICIPANT_FOUND_FOR_ID = "No participant found for id <%s>.";
+    public static final String ERR_PARTICIPANT_BULK_SIZE = "At most <%d> participants can be handled per request.";
+    public static final String ERR_PARTICIPANT_INVALID = "Participant email and role are required.";
+    public static final String ERR_INVALID_FEED_TOKEN = "Invalid calendar feed token.";
+    public static final String ERR_IMPORT_MEETING_INVALID = "Meeting type and name are required.";
+    public static final String ERR_IMPORT_MEETING_TIMES = "The start time of a meeting must be before its end time.";
+    public static final String ERR_IMPORT_SERIES_END = "The recurrence of a meeting requires an end date after its start time.";
+    public static final String ERR_FREE_BUSY_EMAILS = "Between 1 and <%d> emails can be queried per request.";
+    public static final String ERR_FREE_BUSY_RANGE = "The end time must be after the start time and at most <%d> days later.";
+    public static final String ERR_JITSI_LINKS_SIZE = "Between 1 and <%d> links can be generated per request.";
+    public static final String ERR_INVALID_TIME_ZONE = "Unknown time zone <%s>.";
+    public static final String ERR_INVALID_EVENT_SECRET = "Invalid Jitsi event secret.";
 
     public static final String MEMBER = "member";
     public static final String OWNER = "owner";
@@ -44,4 +55,10 @@ public class Constants
     public static final String INFO_MESSAGE = "info_message";
     public static final String ID = "id";
     public static final String REQUEST_BODY = "request_body";
+    public static final String ROUTE = "route";
+    public static final String RESPONSE_STATUS = "response_status";
+    public static final String USER_HASH = "user_hash";
+    public static final String DURATION_MS = "duration_ms";
+    public static final String DB_STATEMENTS = "db_statements";
+    public static final String DB_TIME_MS = "db_time_ms";
 }
\ No newline at end of file
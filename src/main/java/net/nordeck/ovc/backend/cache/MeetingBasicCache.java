@@ -0,0 +1,207 @@
+package net.nordeck.ovc.backend.cache;
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.nordeck.ovc.backend.configuration.ReadYourWritesGuard;
+import net.nordeck.ovc.backend.dto.MeetingBasicDTO;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for the {@link MeetingBasicDTO} objects served by the public join pages
+ * (<code>/basic</code> and <code>/next-of-series</code>).
+ * <p>
+ * Entries are evicted after the configured TTL or when the maximum size is reached. Write paths must call
+ * {@link #evict(Collection)} for every meeting they change or delete; the eviction is applied again after the
+ * surrounding transaction commits and, if enabled, broadcast to the other backend nodes.
+ * <p>
+ * With read replicas the entries are loaded from the primary: a replica lagging behind the write which evicted an
+ * entry would put the old state back for the whole TTL. Inside a read-only transaction the connection may already
+ * be taken from a replica, the entry is loaded there then but not cached.
+ */
+@Component
+public class MeetingBasicCache
+{
+
+    private final boolean enabled;
+
+    private final Cache<UUID, MeetingBasicDTO> basicById;
+
+    private final Cache<UUID, MeetingBasicDTO> nextOfSeriesByParentId;
+
+    private final ObjectProvider<MeetingCacheClusterSync> clusterSync;
+
+    private final ObjectProvider<ReadYourWritesGuard> readYourWritesGuard;
+
+    public MeetingBasicCache(@Value("${cache.meeting-basic.enabled:true}") boolean enabled,
+                             @Value("${cache.meeting-basic.ttl-in-seconds:30}") long ttlInSeconds,
+                             @Value("${cache.meeting-basic.max-size:10000}") long maxSize,
+                             @Autowired ObjectProvider<MeetingCacheClusterSync> clusterSync,
+                             @Autowired ObjectProvider<ReadYourWritesGuard> readYourWritesGuard)
+    {
+        this.enabled = enabled;
+        this.clusterSync = clusterSync;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.basicById = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                .maximumSize(maxSize)
+                .build();
+        this.nextOfSeriesByParentId = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public MeetingBasicDTO getBasic(UUID meetingId, Supplier<MeetingBasicDTO> loader)
+    {
+        if (!enabled || meetingId == null)
+        {
+            return loader.get();
+        }
+        if (!loadsFromPrimary())
+        {
+            MeetingBasicDTO cached = basicById.getIfPresent(meetingId);
+            return cached != null ? cached : loader.get();
+        }
+        return basicById.get(meetingId, id -> load(loader));
+    }
+
+    public MeetingBasicDTO getNextOfSeries(UUID parentId, Supplier<MeetingBasicDTO> loader)
+    {
+        if (!enabled || parentId == null)
+        {
+            return loader.get();
+        }
+        MeetingBasicDTO cached = nextOfSeriesByParentId.getIfPresent(parentId);
+        if (cached != null && cached.getEndTime() != null && cached.getEndTime().isAfter(ZonedDateTime.now()))
+        {
+            return cached;
+        }
+        // the cached meeting is over, the next one of the series has to be looked up again
+        if (!loadsFromPrimary())
+        {
+            return loader.get();
+        }
+        MeetingBasicDTO next = load(loader);
+        nextOfSeriesByParentId.put(parentId, next);
+        return next;
+    }
+
+    private boolean loadsFromPrimary()
+    {
+        return readYourWritesGuard.getIfAvailable() == null ||
+                !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private MeetingBasicDTO load(Supplier<MeetingBasicDTO> loader)
+    {
+        ReadYourWritesGuard guard = readYourWritesGuard.getIfAvailable();
+        return guard == null ? loader.get() : guard.readFromPrimary(loader);
+    }
+
+    /**
+     * Evicts the given meeting, its parent and its loaded children.
+     */
+    public void evict(MeetingEntity meeting)
+    {
+        if (meeting == null)
+        {
+            return;
+        }
+        Set<UUID> ids = new HashSet<>();
+        ids.add(meeting.getId());
+        ids.add(meeting.getParentId());
+        if (meeting.getChildren() != null)
+        {
+            meeting.getChildren().forEach(child -> ids.add(child.getId()));
+        }
+        evict(ids);
+    }
+
+    public void evictAll(Collection<MeetingEntity> meetings)
+    {
+        Set<UUID> ids = new HashSet<>();
+        for (MeetingEntity meeting : meetings)
+        {
+            ids.add(meeting.getId());
+            ids.add(meeting.getParentId());
+        }
+        evict(ids);
+    }
+
+    /**
+     * Evicts the given ids locally right away and again after the current transaction has been committed,
+     * so a concurrent read cannot put back the old state. The ids are broadcast to the other nodes.
+     */
+    public void evict(Collection<UUID> meetingIds)
+    {
+        List<UUID> ids = meetingIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (!enabled || ids.isEmpty())
+        {
+            return;
+        }
+        evictLocal(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    evictLocal(ids);
+                    publish(ids);
+                }
+            });
+        }
+        else
+        {
+            publish(ids);
+        }
+    }
+
+    /**
+     * Evicts the given ids on this node only. Used by the cluster listener for remote invalidations.
+     */
+    public void evictLocal(Collection<UUID> meetingIds)
+    {
+        basicById.invalidateAll(meetingIds);
+        nextOfSeriesByParentId.invalidateAll(meetingIds);
+    }
+
+    public void clearLocal()
+    {
+        basicById.invalidateAll();
+        nextOfSeriesByParentId.invalidateAll();
+    }
+
+    private void publish(List<UUID> ids)
+    {
+        clusterSync.ifAvailable(sync -> sync.publish(ids));
+    }
+}
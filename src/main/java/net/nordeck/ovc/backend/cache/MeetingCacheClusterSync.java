@@ -0,0 +1,184 @@
+package net.nordeck.ovc.backend.cache;
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link MeetingBasicCache} of all backend nodes coherent using Postgres LISTEN/NOTIFY.
+ * <p>
+ * Evicted meeting ids are sent as a comma separated payload on the configured channel. Every node listens on a
+ * dedicated connection (taken from the pool for the lifetime of the application) and evicts the received ids
+ * locally. After a lost connection the local cache is cleared, because notifications may have been missed.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.meeting-basic.cluster-invalidation.enabled", havingValue = "true")
+public class MeetingCacheClusterSync
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeetingCacheClusterSync.class);
+
+    // Postgres limits NOTIFY payloads to 8000 bytes, one id takes 37 characters
+    private static final int IDS_PER_NOTIFICATION = 200;
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeetingBasicCache cache;
+
+    @Value("${cache.meeting-basic.cluster-invalidation.channel:ovc_meeting_cache}")
+    protected String channel;
+
+    @Value("${cache.meeting-basic.cluster-invalidation.poll-interval-in-millis:500}")
+    protected int pollIntervalInMillis;
+
+    private volatile boolean running;
+
+    private Thread listenerThread;
+
+    public MeetingCacheClusterSync(@Autowired DataSource dataSource, @Autowired MeetingBasicCache cache)
+    {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cache = cache;
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        running = true;
+        listenerThread = new Thread(this::listen, "meeting-cache-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        running = false;
+        if (listenerThread != null)
+        {
+            listenerThread.interrupt();
+        }
+    }
+
+    public void publish(List<UUID> meetingIds)
+    {
+        for (int i = 0; i < meetingIds.size(); i += IDS_PER_NOTIFICATION)
+        {
+            List<UUID> part = meetingIds.subList(i, Math.min(i + IDS_PER_NOTIFICATION, meetingIds.size()));
+            List<String> ids = part.stream().map(UUID::toString).toList();
+            try
+            {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, String.join(",", ids));
+            }
+            catch (Exception ex)
+            {
+                LOGGER.warn("Could not publish meeting cache invalidation. Cause: {}", ex.getMessage());
+            }
+        }
+    }
+
+    protected void listen()
+    {
+        while (running)
+        {
+            try (Connection connection = dataSource.getConnection())
+            {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement())
+                {
+                    statement.execute("LISTEN " + channel);
+                }
+                // notifications sent while this node was not listening are lost
+                cache.clearLocal();
+
+                while (running)
+                {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollIntervalInMillis);
+                    if (notifications != null)
+                    {
+                        for (PGNotification notification : notifications)
+                        {
+                            cache.evictLocal(parseIds(notification.getParameter()));
+                        }
+                    }
+                }
+            }
+            catch (SQLException ex)
+            {
+                if (running)
+                {
+                    LOGGER.warn("Meeting cache listener lost its connection, reconnecting. Cause: {}", ex.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    protected static List<UUID> parseIds(String payload)
+    {
+        List<UUID> ids = new ArrayList<>();
+        if (payload == null || payload.isBlank())
+        {
+            return ids;
+        }
+        for (String id : payload.split(","))
+        {
+            try
+            {
+                ids.add(UUID.fromString(id.trim()));
+            }
+            catch (IllegalArgumentException ex)
+            {
+                LOGGER.warn("Ignoring invalid meeting id <{}> in cache invalidation.", id);
+            }
+        }
+        return ids;
+    }
+
+    private void sleepBeforeReconnect()
+    {
+        try
+        {
+            Thread.sleep(5000);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latency histograms of the api endpoints. The <code>http.server.requests</code> timers are tagged with the route
+ * template by Spring Boot, this publishes their percentile histograms with SLO buckets: the dial-in endpoints of
+ * the conference mapper (called by Jigasi / Jibri while a caller waits) get tighter buckets than the portal
+ * endpoints.
+ */
+@Configuration
+public class HttpMetricsConfig {
+
+    public static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    public static final String API_ROUTES = "/api/";
+    public static final String DIAL_IN_ROUTES = "/api/v1.0/conference-mapper/";
+
+    public static boolean isApiRoute(String route)
+    {
+        return route != null && route.startsWith(API_ROUTES);
+    }
+
+    public static boolean isDialInRoute(String route)
+    {
+        return route != null && route.startsWith(DIAL_IN_ROUTES);
+    }
+
+    @Bean
+    public MeterFilter apiLatencySloFilter(
+            @Value("${http-metrics.slo:100ms,250ms,500ms,1s,2s}") Duration[] slo,
+            @Value("${http-metrics.dial-in.slo:25ms,50ms,100ms,250ms}") Duration[] dialInSlo)
+    {
+        double[] sloNanos = toNanos(slo);
+        double[] dialInSloNanos = toNanos(dialInSlo);
+        return new MeterFilter()
+        {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config)
+            {
+                String route = id.getTag("uri");
+                if (!HTTP_SERVER_REQUESTS.equals(id.getName()) || !isApiRoute(route))
+                {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .serviceLevelObjectives(isDialInRoute(route) ? dialInSloNanos : sloNanos)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private static double[] toNanos(Duration[] durations)
+    {
+        return Arrays.stream(durations).mapToDouble(Duration::toNanos).sorted().toArray();
+    }
+}
@@ -0,0 +1,72 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query instrumentation exposed via actuator. The timers per repository method
+ * (<code>spring.data.repository.invocations</code>, tagged with repository and method) and the Hikari pool metrics
+ * are auto-configured by Spring Boot, their histograms are enabled in the application yaml. This adds the statement
+ * count and repository time per HTTP request, see {@link RequestMetricsFilter}.
+ */
+@Configuration
+public class QueryMetricsConfig {
+
+    @Bean
+    public RequestQueryStats requestQueryStats()
+    {
+        return new RequestQueryStats();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer(RequestQueryStats requestQueryStats)
+    {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestQueryStats);
+    }
+
+    /**
+     * Adds the duration of every repository method invocation to the {@link RequestQueryStats} of the current thread,
+     * the same hook Spring Boot uses for the repository timers.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimeCollector()
+    {
+        return new BeanPostProcessor()
+        {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName)
+            {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean)
+                {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+                            invocation -> RequestQueryStats.addRepositoryTime(
+                                    invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+}
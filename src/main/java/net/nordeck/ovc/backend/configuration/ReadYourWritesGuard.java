@@ -0,0 +1,107 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the users who wrote to the primary database during the last seconds, so that their read-only
+ * transactions keep being served by the primary until the replicas have caught up (read-your-writes).
+ * Work without an authenticated user (jobs, public lookups, anonymous requests) is never pinned.
+ * <p>
+ * Reads whose result outlives the request, e.g. the entries of a cache, can be sent to the primary explicitly with
+ * {@link #readFromPrimary(Supplier)}.
+ */
+public class ReadYourWritesGuard {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    private final boolean enabled;
+
+    private final ThreadLocal<Boolean> primaryReads = new ThreadLocal<>();
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    public ReadYourWritesGuard(long stickinessInSeconds, long maxUsers)
+    {
+        this.enabled = stickinessInSeconds > 0;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(Math.max(stickinessInSeconds, 1)))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void markWrite()
+    {
+        String user = currentUser();
+        if (enabled && user != null)
+        {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs the given reads on the primary. Only transactions starting in there are routed, a connection the current
+     * transaction already took from a replica is kept.
+     */
+    public <T> T readFromPrimary(Supplier<T> reads)
+    {
+        if (primaryReads.get() != null)
+        {
+            return reads.get();
+        }
+        primaryReads.set(Boolean.TRUE);
+        try
+        {
+            return reads.get();
+        }
+        finally
+        {
+            primaryReads.remove();
+        }
+    }
+
+    /**
+     * Whether the read-only transactions of the current thread have to be served by the primary.
+     */
+    public boolean readsFromPrimary()
+    {
+        return primaryReads.get() != null || isSticky();
+    }
+
+    public boolean isSticky()
+    {
+        String user = currentUser();
+        return enabled && user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    protected String currentUser()
+    {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        // the anonymous token is authenticated too, all anonymous requests would share one sticky key
+        return auth != null && auth.isAuthenticated() && !trustResolver.isAnonymous(auth) ? auth.getName() : null;
+    }
+}
@@ -0,0 +1,81 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target of the read-only transactions: spreads them round-robin over the replicas, or sends them to the primary
+ * while the {@link ReadYourWritesGuard} pins the current user or the current reads to it.
+ */
+public class ReplicaDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    protected static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final List<DataSource> replicas;
+
+    private final ReadYourWritesGuard guard;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesGuard guard)
+    {
+        this.replicas = replicas;
+        this.guard = guard;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++)
+        {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey()
+    {
+        if (replicaKeys.isEmpty() || guard.readsFromPrimary())
+        {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public void destroy()
+    {
+        replicas.stream()
+                .filter(HikariDataSource.class::isInstance)
+                .forEach(replica -> ((HikariDataSource) replica).close());
+    }
+}
@@ -0,0 +1,150 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to the read replicas and everything else to the primary database.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy}: the physical connection is only taken on
+ * the first statement, when the read-only flag of the transaction is known. Read-only transactions get it from the
+ * {@link ReplicaDataSource}, all others (including Liquibase, Spring Batch and ShedLock) from the primary.
+ * All pools are configured by <code>spring.datasource.hikari</code>, like the pool Spring Boot would build.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(
+            @Value("${datasource.replicas.read-your-writes-in-seconds:5}") long stickinessInSeconds,
+            @Value("${datasource.replicas.read-your-writes-max-users:10000}") long maxUsers)
+    {
+        return new ReadYourWritesGuard(stickinessInSeconds, maxUsers);
+    }
+
+    public static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties(HIKARI_PROPERTIES)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties)
+    {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               DataSourceProperties properties,
+                                               ReadYourWritesGuard readYourWritesGuard,
+                                               @Value("${datasource.replicas.urls}") List<String> urls,
+                                               @Value("${datasource.replicas.username:}") String username,
+                                               @Value("${datasource.replicas.password:}") String password,
+                                               ObjectProvider<MeterRegistry> meterRegistry,
+                                               Environment environment)
+    {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls)
+        {
+            if (url.isBlank())
+            {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username.isEmpty() ? properties.determineUsername() : username)
+                    .password(username.isEmpty() ? properties.determinePassword() : password)
+                    .build();
+            Binder.get(environment).bind(HIKARI_PROPERTIES, Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            // the replica pools are no beans, so the hikaricp metrics are not bound by Spring Boot
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(
+                    new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, readYourWritesGuard);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource,
+                                 ReadYourWritesGuard readYourWritesGuard)
+    {
+        return routingDataSource(primaryDataSource, replicaDataSource, readYourWritesGuard);
+    }
+
+    protected static LazyConnectionDataSourceProxy routingDataSource(DataSource primary, DataSource replicas,
+                                                                     ReadYourWritesGuard guard)
+    {
+        LazyConnectionDataSourceProxy routing =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary, guard));
+        routing.setReadOnlyDataSource(replicas);
+        return routing;
+    }
+
+    /**
+     * Pins the current user to the primary whenever a read-write transaction takes a connection from it.
+     */
+    protected static class WriteTrackingDataSource extends DelegatingDataSource {
+
+        private final ReadYourWritesGuard guard;
+
+        protected WriteTrackingDataSource(DataSource primary, ReadYourWritesGuard guard)
+        {
+            super(primary);
+            this.guard = guard;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException
+        {
+            if (TransactionSynchronizationManager.isActualTransactionActive() &&
+                    !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            {
+                guard.markWrite();
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.nordeck.ovc.backend.logging.AppLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Database and latency metrics per request:
+ * <ul>
+ *     <li>the number of SQL statements as the <code>http.server.requests.statements</code> summary, tagged like
+ *     <code>http.server.requests</code> with method and uri (route template). Requests issuing more statements than
+ *     the threshold (typically an N+1 select) are logged as warning and counted in
+ *     <code>http.server.requests.statements.exceeded</code>.</li>
+ *     <li>api requests slower than their threshold are logged as slow request record with route, user hash,
+ *     statement count and repository time. The dial-in endpoints have their own threshold.</li>
+ * </ul>
+ */
+@Component
+@Order(0) // inside the RequestContextFilter, so that the records can be logged with the request data
+public class RequestMetricsFilter extends OncePerRequestFilter
+{
+    public static final String STATEMENTS_METRIC = "http.server.requests.statements";
+    public static final String EXCEEDED_METRIC = "http.server.requests.statements.exceeded";
+    public static final String UNKNOWN_URI = "UNKNOWN";
+
+    protected AppLogger logger = new AppLogger("RequestMetricsFilter");
+
+    private final MeterRegistry meterRegistry;
+
+    private final int statementsThreshold;
+
+    private final long slowRequestNanos;
+
+    private final long dialInSlowRequestNanos;
+
+    private final byte[] userHashKey;
+
+    public RequestMetricsFilter(
+            @Autowired MeterRegistry meterRegistry,
+            @Value("${query-metrics.statements-per-request-threshold:30}") int statementsThreshold,
+            @Value("${http-metrics.slow-request-threshold:1s}") Duration slowRequestThreshold,
+            @Value("${http-metrics.dial-in.slow-request-threshold:100ms}") Duration dialInSlowRequestThreshold,
+            @Value("${http-metrics.user-hash-secret:}") String userHashSecret)
+    {
+        this.meterRegistry = meterRegistry;
+        this.statementsThreshold = statementsThreshold;
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+        this.dialInSlowRequestNanos = dialInSlowRequestThreshold.toNanos();
+        this.userHashKey = userHashKey(userHashSecret);
+    }
+
+    /**
+     * The key of the user hashes: the configured secret, or a random one, then the hashes of a user only match
+     * within the records of one node and start.
+     */
+    static byte[] userHashKey(String secret)
+    {
+        if (secret != null && !secret.isBlank())
+        {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException
+    {
+        long started = System.nanoTime();
+        RequestQueryStats.start();
+        try
+        {
+            filterChain.doFilter(request, response);
+        }
+        finally
+        {
+            record(request, response, System.nanoTime() - started, RequestQueryStats.stop());
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long durationNanos,
+                        RequestQueryStats.Stats stats)
+    {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern == null ? UNKNOWN_URI : pattern.toString();
+        int statements = stats.getStatements();
+
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("SQL statements prepared per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > statementsThreshold)
+        {
+            Counter.builder(EXCEEDED_METRIC)
+                    .description("HTTP requests exceeding the statements per request threshold")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .register(meterRegistry)
+                    .increment();
+            logger.logRequestWarning("Request exceeded the statements per request threshold.",
+                                     statements + " statements, threshold is " + statementsThreshold);
+        }
+
+        long threshold = HttpMetricsConfig.isDialInRoute(route) ? dialInSlowRequestNanos : slowRequestNanos;
+        if (HttpMetricsConfig.isApiRoute(route) && durationNanos > threshold)
+        {
+            logger.logSlowRequest(route, response.getStatus(), durationNanos / 1_000_000, statements,
+                                  stats.getRepositoryNanos() / 1_000_000, userHashKey);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.nordeck.ovc.backend.configuration;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Collects the database work done on the current thread while collecting is started, i.e. for the duration of an
+ * HTTP request (see {@link RequestMetricsFilter}): the SQL statements Hibernate prepares (as its
+ * {@link StatementInspector}) and the time spent in repository methods. Work on other threads, e.g. of the jobs, is
+ * ignored.
+ */
+public class RequestQueryStats implements StatementInspector
+{
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    public static void start()
+    {
+        CURRENT.set(new Stats());
+    }
+
+    /**
+     * Stops collecting on the current thread and returns what was collected since {@link #start()}.
+     */
+    public static Stats stop()
+    {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats == null ? new Stats() : stats;
+    }
+
+    public static void addRepositoryTime(long nanos)
+    {
+        Stats stats = CURRENT.get();
+        if (stats != null)
+        {
+            stats.repositoryNanos += nanos;
+        }
+    }
+
+    @Override
+    public String inspect(String sql)
+    {
+        Stats stats = CURRENT.get();
+        if (stats != null)
+        {
+            stats.statements++;
+        }
+        return sql;
+    }
+
+    public static class Stats
+    {
+        private int statements;
+
+        private long repositoryNanos;
+
+        public int getStatements()
+        {
+            return statements;
+        }
+
+        public long getRepositoryNanos()
+        {
+            return repositoryNanos;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package net.nordeck.ovc.backend.controller;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import net.nordeck.ovc.backend.dto.ApiErrorDTO;
+import net.nordeck.ovc.backend.dto.CalendarFeedDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyRequestDTO;
+import net.nordeck.ovc.backend.logging.AppLogger;
+import net.nordeck.ovc.backend.service.CalendarFeedService;
+import net.nordeck.ovc.backend.service.FreeBusyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+
+@RestController
+@RequestMapping("/api/v1.0/calendar/")
+@CrossOrigin(origins = "*",
+        allowedHeaders = "*",
+        methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS })
+@Tag(name = "Calendar API", description = "iCalendar feed of the meetings")
+public class CalendarController
+{
+    public static final String TEXT_CALENDAR_VALUE = "text/calendar";
+
+    protected CalendarFeedService service;
+
+    protected FreeBusyService freeBusyService;
+
+    private final AppLogger logger = new AppLogger("CalendarController");
+
+    public CalendarController(@Autowired CalendarFeedService service, @Autowired FreeBusyService freeBusyService)
+    {
+        this.service = service;
+        this.freeBusyService = freeBusyService;
+    }
+
+
+    @GetMapping(value = "feed", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the iCalendar feed of the authenticated user.",
+            description = "Get the token and path of the iCalendar feed of the authenticated user, to be subscribed " +
+                    "to by calendar clients.<br/>" +
+                    "<br/>Access Control:<br/>The calling user must be authenticated.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Calendar feed successfully retrieved.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CalendarFeedDTO.class))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<CalendarFeedDTO> getFeed()
+    {
+        logger.logRequest("Endpoint 'getFeed' called.");
+        return ResponseEntity.ok(service.getFeedForUser());
+    }
+
+
+    @PostMapping(value = "feed/reset", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Reset the iCalendar feed of the authenticated user.",
+            description = "Revoke the token of the iCalendar feed of the authenticated user, e.g. after it was " +
+                    "leaked, and get the new token and path. Calendar clients subscribed with the old token lose " +
+                    "access.<br/>" +
+                    "<br/>Access Control:<br/>The calling user must be authenticated.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Calendar feed successfully reset.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CalendarFeedDTO.class))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<CalendarFeedDTO> resetFeed()
+    {
+        logger.logRequest("Endpoint 'resetFeed' called.");
+        return ResponseEntity.ok(service.resetFeedForUser());
+    }
+
+
+    @GetMapping(value = "{token}/meetings.ics", produces = TEXT_CALENDAR_VALUE)
+    @Operation(summary = "Get the meetings of a user as iCalendar feed.",
+            description = "Get the normal meetings and series of a user as iCalendar feed, series are returned as " +
+                    "recurring events. The response carries an ETag, polling with If-None-Match returns 304 as " +
+                    "long as the meetings are unchanged.<br/>" +
+                    "<br/>Access Control:<br/>The token of the feed identifies the user, no authentication.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Calendar feed successfully retrieved.",
+                    content = @Content(mediaType = TEXT_CALENDAR_VALUE)),
+            @ApiResponse(responseCode = "304",
+                    description = "Calendar feed not modified since the given ETag."),
+            @ApiResponse(responseCode = "403",
+                    description = "Invalid token.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> getFeedContent(
+            @Parameter(description = "Token of the feed.", required = true)
+            @PathVariable String token,
+            WebRequest request)
+    {
+        logger.logRequest("Endpoint 'getFeedContent' called.");
+        String userId = service.findUserByToken(token);
+        String eTag = service.getFeedETag(userId);
+        if (request.checkNotModified(eTag))
+        {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        // written after the handler returned: the feed is streamed from a cursor in its own transaction
+        StreamingResponseBody body = out -> service.writeFeed(userId, out);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.parseMediaType(TEXT_CALENDAR_VALUE + ";charset=UTF-8"))
+                .body(body);
+    }
+
+
+    @PostMapping(value = "free-busy",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the busy times of participants.",
+            description = "Get the busy times of the given participants within the given time range, e.g. for " +
+                    "scheduling a meeting. Busy are the normal meetings and the meetings of series the " +
+                    "participants take part in, merged per participant.<br/>" +
+                    "<br/>Access Control:<br/>The calling user must be authenticated.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Busy times successfully retrieved.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = FreeBusyDTO.class))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<FreeBusyDTO> getFreeBusy(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Participants and time range")
+            @RequestBody FreeBusyRequestDTO request)
+    {
+        logger.logRequest("Endpoint 'getFreeBusy' called.");
+        return ResponseEntity.ok(freeBusyService.getFreeBusy(request));
+    }
+}
@@ -0,0 +1,123 @@
+package net.nordeck.ovc.backend.controller;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import net.nordeck.ovc.backend.dto.ApiErrorDTO;
+import net.nordeck.ovc.backend.dto.JitsiEventDTO;
+import net.nordeck.ovc.backend.dto.MeetingOccupancyDTO;
+import net.nordeck.ovc.backend.logging.AppLogger;
+import net.nordeck.ovc.backend.service.MeetingActivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+
+@RestController
+@RequestMapping("/api/v1.0/jitsi/")
+@CrossOrigin(origins = "*",
+        allowedHeaders = "*",
+        methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS })
+@Tag(name = "Jitsi Events API", description = "Room events of Jitsi and live occupancy of the meetings")
+public class JitsiEventController
+{
+    public static final String EVENT_SECRET_HEADER = "X-Jitsi-Event-Secret";
+
+    protected MeetingActivityService service;
+
+    private final AppLogger logger = new AppLogger("JitsiEventController");
+
+    public JitsiEventController(@Autowired MeetingActivityService service)
+    {
+        this.service = service;
+    }
+
+
+    @PostMapping(value = "events", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Receive a room event of Jitsi.",
+            description = "Receive a room event of the Prosody event sync module (room created / destroyed, " +
+                    "participant joined / left). The events are coalesced in memory, the start and last visit " +
+                    "of the meeting are written periodically.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- The configured event secret must be sent in the " + EVENT_SECRET_HEADER + " header.")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Event received."),
+            @ApiResponse(responseCode = "403",
+                    description = "Invalid event secret.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    public ResponseEntity<Void> receiveEvent(
+            @Parameter(description = "The configured event secret.")
+            @RequestHeader(name = EVENT_SECRET_HEADER, required = false) String secret,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The room event.")
+            @RequestBody JitsiEventDTO event)
+    {
+        service.handleEvent(secret, event);
+        return ResponseEntity.ok().build();
+    }
+
+
+    @GetMapping(value = "occupancy/{mId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the live occupancy of the given meeting.",
+            description = "Get the amount of participants currently in the Jitsi room of the given meeting.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- Only users allowed to read the meeting.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Occupancy successfully retrieved.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MeetingOccupancyDTO.class))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<MeetingOccupancyDTO> getOccupancy(
+            @Parameter(description = "Id of the meeting.", required = true)
+            @PathVariable UUID mId)
+    {
+        logger.logRequest("Endpoint 'getOccupancy' called.");
+        return ResponseEntity.ok(service.getOccupancy(mId));
+    }
+}
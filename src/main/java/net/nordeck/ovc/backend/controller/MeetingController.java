@@ -24,9 +24,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import net.nordeck.ovc.backend.dto.*;
 import net.nordeck.ovc.backend.logging.AppLogger;
 import net.nordeck.ovc.backend.service.JitsiService;
+import net.nordeck.ovc.backend.service.MeetingImportService;
 import net.nordeck.ovc.backend.service.MeetingParticipantService;
 import net.nordeck.ovc.backend.service.MeetingService;
 import net.nordeck.ovc.backend.service.PermissionControlService;
@@ -36,7 +38,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -57,6 +62,8 @@ public class MeetingController
 
     private final MeetingParticipantService participantService;
 
+    private final MeetingImportService meetingImportService;
+
     private final JitsiService jitsiService;
 
     private final AppLogger logger = new AppLogger("MeetingController");
@@ -74,12 +81,14 @@ public class MeetingController
             @Autowired MeetingService meetingService,
             @Autowired MeetingParticipantService participantService,
             @Autowired JitsiService jitsiService,
-            @Autowired PermissionControlService permissionControlService)
+            @Autowired PermissionControlService permissionControlService,
+            @Autowired MeetingImportService meetingImportService)
     {
         this.meetingService = meetingService;
         this.participantService = participantService;
         this.jitsiService = jitsiService;
         this.permissionControlService = permissionControlService;
+        this.meetingImportService = meetingImportService;
     }
 
     @GetMapping("")
@@ -357,6 +366,63 @@ public class MeetingController
     }
 
 
+    @PostMapping(value = "import",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import meetings.",
+            description = "Create meetings in bulk, e.g. when migrating from another system.<br/>" +
+                    "The body is NDJSON with one meeting create request per line. It is read and created in chunks " +
+                    "while the response is streamed, with one result per non empty line as NDJSON, containing the " +
+                    "line number and the created meeting id or the reason of the failure. Lines which can't be " +
+                    "created don't stop the import.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- Only authenticated users are allowed.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import started, the results are streamed.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = MeetingImportResultDTO.class))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<StreamingResponseBody> importMeetings(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The meetings to be created, " +
+                    "one per line")
+            HttpServletRequest request)
+    {
+        // the body is read while the results are written, not buffered as a whole for the log
+        logger.logRequest("Endpoint 'importMeetings' called.", false);
+        // the results are written on an async thread, the import and its permission checks run as the caller
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        StreamingResponseBody results = out ->
+        {
+            SecurityContextHolder.setContext(securityContext);
+            try
+            {
+                meetingImportService.importMeetings(request.getInputStream(), out);
+            }
+            finally
+            {
+                SecurityContextHolder.clearContext();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results);
+    }
+
+
     @PutMapping(value = "{mId}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
@@ -407,6 +473,7 @@ public class MeetingController
             produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Update the 'lastVisitDate' field (set with today's date) for the given static room.",
             description = "Update the 'lastVisitDate' field (set with today's date) for the given static room.<br/>" +
+                    "The visits are buffered and written in batches within a few seconds.<br/>" +
                     "<br/>Access Control:<br/>" +
                     "- No access restriction required.<br/>" +
                     "- The endpoint is rate limited.")
@@ -495,6 +562,10 @@ public class MeetingController
                     description = "Too many requests.",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Unknown time zone.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
             @ApiResponse(responseCode = "403",
                     description = "Forbidden access.",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -524,6 +595,54 @@ public class MeetingController
     }
 
 
+    @PostMapping(value = "{mId}/jitsi-links",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the Jitsi links for several users of a meeting.",
+            description = "Get the Jitsi links for several users of a meeting.<br/>" +
+                    "The meeting and its participants are loaded once for all links.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- No access restriction required.<br/>" +
+                    "- If password is wrong, returns HTTP 403 code.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Links successfully generated, in the order of the requested users.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = JitsiLinkDTO.class)))),
+            @ApiResponse(responseCode = "400",
+                    description = "Unknown time zone or too many users.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Resource for given id not found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    public ResponseEntity<List<JitsiLinkDTO>> generateLinks(
+            @Parameter(description = "Id of the meeting.", required = true)
+            @PathVariable UUID mId,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Password, time zone and the users the links are created for.")
+            @RequestBody JitsiLinksRequestDTO requestParams)
+    {
+        logger.logRequest("Endpoint 'generateLinks' called.");
+        List<JitsiLinkDTO> links = jitsiService.generateLinks(mId,
+                                                              requestParams.getPassword(),
+                                                              requestParams.getUsers(),
+                                                              requestParams.getTimezone());
+        return ResponseEntity.ok(links);
+    }
+
+
     @GetMapping("{mId}/participants")
     @Operation(summary = "Get the participants list for the given meeting.",
             description = "Get the participants list for the given meeting.<br/>" +
@@ -690,6 +809,139 @@ public class MeetingController
     }
 
 
+    @PostMapping(value = "{mId}/participants/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create several meeting participants for the given meeting.",
+            description = "Create several meeting participants for the given meeting in one transaction. " +
+                    "Emails which are already participants of the meeting are skipped.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- For usual meetings: only meeting owners are allowed.<br/>" +
+                    "- For static rooms: owner and ORGANIZERs are allowed.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Meeting participants successfully created, the skipped ones are not returned.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = MeetingParticipantDTO.class)))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Resource for given id not found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<List<MeetingParticipantDTO>> createParticipants(
+            @Parameter(description = "Id of the meeting.", required = true)
+            @PathVariable UUID mId,
+            @Parameter(description = "Request body with the meeting participants data.", required = true)
+            @RequestBody List<MeetingParticipantRequestDTO> dtos)
+    {
+        logger.logRequest("Endpoint 'createParticipants' called.");
+        List<MeetingParticipantDTO> created = participantService.createAll(mId, dtos);
+        return ResponseEntity.ok(created);
+    }
+
+
+    @PutMapping(value = "{mId}/participants/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Change the roles of several meeting participants.",
+            description = "Change the roles of several meeting participants in one transaction.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- For usual meetings: only meeting owners are allowed.<br/>" +
+                    "- For static rooms: owner and organizers are allowed.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Meeting participants successfully updated.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = MeetingParticipantDTO.class)))),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Resource for given id not found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<List<MeetingParticipantDTO>> updateParticipantRoles(
+            @Parameter(description = "Id of the meeting.", required = true)
+            @PathVariable UUID mId,
+            @Parameter(description = "Request body with the participant ids and their new roles.", required = true)
+            @RequestBody List<MeetingParticipantRoleRequestDTO> dtos)
+    {
+        logger.logRequest("Endpoint 'updateParticipantRoles' called.");
+        List<MeetingParticipantDTO> participants = participantService.updateRoles(mId, dtos);
+        return ResponseEntity.ok(participants);
+    }
+
+
+    @PostMapping(value = "{mId}/participants/bulk-delete",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Delete several meeting participants.",
+            description = "Delete several meeting participants in one transaction.<br/>" +
+                    "<br/>Access Control:<br/>" +
+                    "- For usual meetings: only meeting owners are allowed.<br/>" +
+                    "- For static rooms: meeting owner and ORGANIZERs are allowed.")
+    @ApiResponses( value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Meeting participants successfully deleted.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+            @ApiResponse(responseCode = "401",
+                    description = "Unauthorized access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "403",
+                    description = "Forbidden access.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Resource for given id not found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal server error.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorDTO.class)))
+    })
+    @PreAuthorize("@rolesAuthorization.hasBasicAccessRole")
+    public ResponseEntity<Void> deleteParticipants(
+            @Parameter(description = "Id of the meeting.", required = true)
+            @PathVariable UUID mId,
+            @Parameter(description = "Request body with the ids of the participants.", required = true)
+            @RequestBody List<UUID> participantIds)
+    {
+        logger.logRequest("Endpoint 'deleteParticipants' called.");
+        participantService.deleteAll(mId, participantIds);
+        return ResponseEntity.ok(null);
+    }
+
+
     @GetMapping("{userId}/registered-user")
     @Operation(summary = "Check if the user is registered in the authentication server.",
             description = "Check if the user is registered in the authentication server.<br/>" +
@@ -21,6 +21,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import net.nordeck.ovc.backend.dto.ApiErrorDTO;
 import net.nordeck.ovc.backend.logging.AppLogger;
+import net.nordeck.ovc.backend.service.InvalidRequestException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -101,6 +102,17 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    protected ResponseEntity<Object> handleInvalidRequestException(WebRequest request, InvalidRequestException ex)
+    {
+        ApiErrorDTO apiError = new ApiErrorDTO(BAD_REQUEST);
+        apiError.setMessage(ex.getLocalizedMessage());
+        apiError.setInfoMessage(ex.getLocalizedMessage());
+        apiError.setPath(getRequestPath(request));
+        logger.logRequestError(apiError.getId(), BAD_REQUEST.getReasonPhrase(), ex.getLocalizedMessage());
+        return buildResponseEntity(apiError);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     protected ResponseEntity<Object> handleEntityNotFound(WebRequest request, EntityNotFoundException ex)
     {
@@ -0,0 +1,39 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+@Schema(name = "CalendarFeed")
+public class CalendarFeedDTO
+{
+    @Schema(description = "Token identifying the user in the feed path, to be kept secret.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @JsonProperty("token")
+    private String token;
+
+    @Schema(description = "Path of the iCalendar feed, to be subscribed to by calendar clients.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @JsonProperty("path")
+    private String path;
+}
@@ -19,10 +19,14 @@ package net.nordeck.ovc.backend.dto;
 import net.nordeck.ovc.backend.Constants;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.entity.MeetingSummary;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class DTOUtils
 {
@@ -34,30 +38,54 @@ public class DTOUtils
         {
             participantEntities.forEach(p -> participantDTOs.add(MeetingParticipantDTO.buildFromEntity(p)));
         }
+        return buildFromSummary(entity, participantDTOs, buildExcludedDates(entity.getChildren()));
+    }
 
+    public static MeetingDTO buildFromSummary(MeetingSummary meeting, List<MeetingParticipantDTO> participants,
+                                              List<String> excludedDates)
+    {
         MeetingDTO dto = MeetingDTO.builder()
-                .id(entity.getId())
-                .ownerId(entity.getOwnerId())
-                .parentId(entity.getParentId())
-                .conferencePin(entity.getConferencePin())
-                .phoneNumber(entity.getPhoneNumber())
-                .sipJibriLink(entity.getSipJibriLink())
-                .participants(participantDTOs).build();
-
-        setBasicDataFromEntity(dto, entity);
+                .id(meeting.getId())
+                .ownerId(meeting.getOwnerId())
+                .parentId(meeting.getParentId())
+                .conferencePin(meeting.getConferencePin())
+                .phoneNumber(meeting.getPhoneNumber())
+                .sipJibriLink(meeting.getSipJibriLink())
+                .participants(participants).build();
+
+        setBasicDataFromEntity(dto, meeting);
+
+        dto.setRecurrence(buildRecurrenceFromEntity(meeting));
+        dto.setExcludedDates(excludedDates);
+        return dto;
+    }
 
-        dto.setRecurrence(buildRecurrenceFromEntity(entity));
+    public static List<String> buildExcludedDates(List<MeetingEntity> childEntities)
+    {
+        if (childEntities == null || childEntities.isEmpty())
+        {
+            return null;
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Constants.DATE_TIME_ISO_8601_FORMAT);
+        List<String> excludedDates = new ArrayList<>();
+        List<MeetingEntity> excluded = childEntities.stream().filter(MeetingEntity::isExcluded).toList();
+        excluded.forEach( m -> excludedDates.add(formatter.format(m.getStartTime())));
+        return excludedDates;
+    }
 
-        List<MeetingEntity> childEntities = entity.getChildren();
-        if (childEntities != null && !childEntities.isEmpty())
+    /**
+     * One participant request per email whatever its case, as enforced by the unique index on
+     * (meeting_id, lower(email)): of repeated emails the last request wins, in the position of the first.
+     */
+    public static List<MeetingParticipantRequestDTO> distinctByEmail(List<MeetingParticipantRequestDTO> requests)
+    {
+        Map<String, MeetingParticipantRequestDTO> distinct = new LinkedHashMap<>();
+        for (MeetingParticipantRequestDTO request : requests)
         {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Constants.DATE_TIME_ISO_8601_FORMAT);
-            List<String> excludedDates = new ArrayList<>();
-            List<MeetingEntity> excluded = childEntities.stream().filter(MeetingEntity::isExcluded).toList();
-            excluded.forEach( m -> excludedDates.add(formatter.format(m.getStartTime())));
-            dto.setExcludedDates(excludedDates);
+            String email = request.getEmail();
+            distinct.put(email == null ? null : email.trim().toLowerCase(Locale.ROOT), request);
         }
-        return dto;
+        return new ArrayList<>(distinct.values());
     }
 
     public static MeetingBasicDTO buildBasicDTOFromEntity(MeetingEntity entity)
@@ -162,7 +190,7 @@ public class DTOUtils
         return MeetingType.NORMAL.equals(dto.getType());
     }
 
-    protected static void setBasicDataFromEntity(MeetingAbstractDTO dto, MeetingEntity entity)
+    protected static void setBasicDataFromEntity(MeetingAbstractDTO dto, MeetingSummary entity)
     {
         dto.setName(entity.getName());
         dto.setInfo(entity.getInfo());
@@ -174,7 +202,7 @@ public class DTOUtils
         dto.setStartedAt(entity.getStartedAt());
     }
 
-    protected static RecurrenceDTO buildRecurrenceFromEntity(MeetingEntity entity)
+    protected static RecurrenceDTO buildRecurrenceFromEntity(MeetingSummary entity)
     {
         RecurrenceDTO recurrence = null;
         if (Frequency.ONCE.getValue().equals(entity.getFrequency()))
@@ -208,7 +236,7 @@ public class DTOUtils
         return recurrence;
     }
 
-    private static MeetingType getTypeFromEntity(MeetingEntity entity)
+    private static MeetingType getTypeFromEntity(MeetingSummary entity)
     {
         if (entity.isStaticRoom())
         {
@@ -0,0 +1,64 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.ZonedDateTimeSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.nordeck.ovc.backend.Constants;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Schema(description = "Busy times of participants within a time range.", name = "FreeBusy")
+public class FreeBusyDTO
+{
+
+    @Schema(description = "Start UTC datetime of the time range in ISO-8601 format.", requiredMode = REQUIRED)
+    @JsonProperty("start_time")
+    @JsonSerialize(using = ZonedDateTimeSerializer.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Constants.DATE_TIME_ISO_8601_FORMAT)
+    private ZonedDateTime startTime;
+
+    @Schema(description = "End UTC datetime of the time range in ISO-8601 format.", requiredMode = REQUIRED)
+    @JsonProperty("end_time")
+    @JsonSerialize(using = ZonedDateTimeSerializer.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Constants.DATE_TIME_ISO_8601_FORMAT)
+    private ZonedDateTime endTime;
+
+    @Schema(description = "Busy intervals by requested email, each one as [start, end] in epoch seconds. The " +
+            "intervals are merged, sorted, clipped to the time range and empty for participants without meetings.",
+            example = "{\"jane.doe@example.com\": [[1767261600, 1767265200], [1767268800, 1767272400]]}",
+            requiredMode = REQUIRED)
+    @JsonProperty("busy")
+    private Map<String, List<long[]>> busy;
+
+}
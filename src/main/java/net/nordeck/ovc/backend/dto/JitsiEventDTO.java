@@ -0,0 +1,49 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.NOT_REQUIRED;
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Schema(description = "Room event sent by Jitsi (Prosody event sync).", name = "JitsiEvent")
+public class JitsiEventDTO
+{
+    @Schema(description = "The event, e.g. muc-room-created or muc-occupant-joined.", requiredMode = REQUIRED)
+    @JsonProperty("event_name")
+    private JitsiEventType eventName;
+
+    @Schema(description = "The name of the room, which is the id of the meeting.", requiredMode = REQUIRED)
+    @JsonProperty("room_name")
+    private String roomName;
+
+    @Schema(description = "Whether the room is a breakout room.", requiredMode = NOT_REQUIRED)
+    @JsonProperty("is_breakout")
+    private boolean breakout;
+}
@@ -0,0 +1,63 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Room events sent by the Prosody event sync module of Jitsi.
+ */
+public enum JitsiEventType
+{
+    ROOM_CREATED("muc-room-created"),
+
+    ROOM_DESTROYED("muc-room-destroyed"),
+
+    PARTICIPANT_JOINED("muc-occupant-joined"),
+
+    PARTICIPANT_LEFT("muc-occupant-left");
+
+    private String value;
+
+    JitsiEventType(String value)
+    {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns null for events this backend does not handle.
+     */
+    @JsonCreator
+    public static JitsiEventType fromValue(String value)
+    {
+        for (JitsiEventType element : values())
+        {
+            if (element.value.equalsIgnoreCase(value.trim()))
+            {
+                return element;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package net.nordeck.ovc.backend.dto;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of one line of a meeting import.", name = "MeetingImportResult")
+public class MeetingImportResultDTO
+{
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Schema(description = "Number of the line in the imported input.", requiredMode = REQUIRED)
+    @JsonProperty("line")
+    private long line;
+
+    @Schema(description = "Whether the meeting has been created.", requiredMode = REQUIRED,
+            allowableValues = {STATUS_CREATED, STATUS_FAILED})
+    @JsonProperty("status")
+    private String status;
+
+    @Schema(description = "Id of the created meeting.")
+    @JsonProperty("id")
+    private UUID id;
+
+    @Schema(description = "Reason why the meeting has not been created.")
+    @JsonProperty("error")
+    private String error;
+
+}
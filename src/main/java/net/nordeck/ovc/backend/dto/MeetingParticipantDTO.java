@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantSummary;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -51,7 +52,7 @@ public class MeetingParticipantDTO {
     @JsonProperty("email")
     private String email;
 
-    public static MeetingParticipantDTO buildFromEntity(MeetingParticipantEntity entity)
+    public static MeetingParticipantDTO buildFromEntity(MeetingParticipantSummary entity)
     {
         return MeetingParticipantDTO.builder()
                 .id(entity.getId())
@@ -23,6 +23,7 @@ import net.nordeck.ovc.backend.dto.MeetingAbstractDTO;
 import net.nordeck.ovc.backend.dto.WeekDays;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.ZonedDateTime;
@@ -40,7 +41,8 @@ import static net.nordeck.ovc.backend.dto.MeetingType.STATIC;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "meeting")
-public class MeetingEntity {
+@DynamicUpdate // most updates change a few of the many columns (flags, dates), only those are written
+public class MeetingEntity implements MeetingSummary {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -185,11 +187,6 @@ public class MeetingEntity {
         return this.parentId != null;
     }
 
-    public boolean isRecurrentParent()
-    {
-        return !Constants.FREQUENCY_ONCE.equals(this.frequency) && this.parentId == null;
-    }
-
     public boolean isSingleMeeting()
     {
         return !isRecurrentChild() && !isRecurrentParent() && Constants.FREQUENCY_ONCE.equals(frequency);
@@ -31,7 +31,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "meeting_participant")
-public class MeetingParticipantEntity {
+public class MeetingParticipantEntity implements MeetingParticipantSummary {
 
     @Id
     @Column(name = "id", nullable = false)
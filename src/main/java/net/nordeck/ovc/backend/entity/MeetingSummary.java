@@ -0,0 +1,83 @@
+package net.nordeck.ovc.backend.entity;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.Constants;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Meeting columns needed to build a {@link net.nordeck.ovc.backend.dto.MeetingDTO}. Implemented by
+ * {@link MeetingEntity} and extended by the read-only projections of the list queries.
+ */
+public interface MeetingSummary {
+
+    UUID getId();
+
+    UUID getParentId();
+
+    String getOwnerId();
+
+    String getName();
+
+    String getInfo();
+
+    ZonedDateTime getStartTime();
+
+    ZonedDateTime getEndTime();
+
+    ZonedDateTime getStartedAt();
+
+    String getPassword();
+
+    boolean isLobbyEnabled();
+
+    boolean isStaticRoom();
+
+    boolean isInstantMeeting();
+
+    String getConferencePin();
+
+    String getPhoneNumber();
+
+    String getSipJibriLink();
+
+    String getFrequency();
+
+    ZonedDateTime getSeriesEndTime();
+
+    boolean isCustomDays_monday();
+
+    boolean isCustomDays_tuesday();
+
+    boolean isCustomDays_wednesday();
+
+    boolean isCustomDays_thursday();
+
+    boolean isCustomDays_friday();
+
+    boolean isCustomDays_saturday();
+
+    boolean isCustomDays_sunday();
+
+    default boolean isRecurrentParent()
+    {
+        return !Constants.FREQUENCY_ONCE.equals(getFrequency()) && getParentId() == null;
+    }
+}
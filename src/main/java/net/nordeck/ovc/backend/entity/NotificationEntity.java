@@ -70,4 +70,7 @@ public class NotificationEntity {
     @Column(name = "password_change_due_date")
     private ZonedDateTime passwordChangeDueDate;
 
+    @Column(name = "outbox_id")
+    private UUID outboxId;
+
 }
\ No newline at end of file
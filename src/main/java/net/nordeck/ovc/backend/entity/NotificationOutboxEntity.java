@@ -0,0 +1,87 @@
+package net.nordeck.ovc.backend.entity;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A pending batch of participant notifications, appended by the user-facing write in its own transaction and
+ * materialised into {@link NotificationEntity} rows by the outbox dispatcher.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "notification_outbox")
+public class NotificationOutboxEntity {
+
+    public static final String RECIPIENT_SEPARATOR = "\n";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "meeting_id", nullable = false)
+    private UUID meetingId;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    /**
+     * Emails of the users to notify, separated by {@link #RECIPIENT_SEPARATOR}.
+     */
+    @Column(name = "recipients", nullable = false)
+    private String recipients;
+
+    /**
+     * Whether the existing notifications of the meeting are replaced, e.g. after a static room was updated.
+     */
+    @Column(name = "replace_existing", nullable = false)
+    private boolean replaceExisting;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Set after a failed attempt, the entry is not dispatched before.
+     */
+    @Column(name = "next_attempt_at")
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    public List<String> getRecipientList()
+    {
+        return Arrays.stream(recipients.split(RECIPIENT_SEPARATOR)).filter(r -> !r.isBlank()).toList();
+    }
+
+    public void setRecipientList(List<String> emails)
+    {
+        this.recipients = String.join(RECIPIENT_SEPARATOR, emails);
+    }
+}
@@ -1,8 +1,10 @@
 package net.nordeck.ovc.backend.jobs;
 
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.service.ConferencePinService;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
@@ -38,6 +40,12 @@ public class DeleteOldInstantMeetingsJob
     @Autowired
     MeetingRepository meetingRepository;
 
+    @Autowired
+    private MeetingBasicCache meetingBasicCache;
+
+    @Autowired
+    private ConferencePinService conferencePinService;
+
     @Autowired
     private JobRepository jobRepository;
 
@@ -123,7 +131,10 @@ public class DeleteOldInstantMeetingsJob
     {
         return chunk -> {
             List<MeetingEntity> meetings = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingBasicCache.evictAll(meetings);
             meetingRepository.deleteAll(meetings);
+            meetingRepository.flush();
+            conferencePinService.reclaim(meetings.stream().map(MeetingEntity::getConferencePin).toList());
         };
     }
 
@@ -141,7 +152,10 @@ public class DeleteOldInstantMeetingsJob
     {
         return chunk -> {
             List<MeetingEntity> meetings = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingBasicCache.evictAll(meetings);
             meetingRepository.deleteAll(meetings);
+            meetingRepository.flush();
+            conferencePinService.reclaim(meetings.stream().map(MeetingEntity::getConferencePin).toList());
         };
     }
 }
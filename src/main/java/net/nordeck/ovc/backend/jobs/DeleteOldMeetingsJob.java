@@ -17,9 +17,16 @@ package net.nordeck.ovc.backend.jobs;
  */
 
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.repository.MeetingArchiveRepository;
+import net.nordeck.ovc.backend.repository.MeetingArchiveRepository.ArchivedMeeting;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.service.ConferencePinService;
+import net.nordeck.ovc.backend.service.JobShardService;
+import net.nordeck.ovc.backend.service.JobShardService.IdRange;
 import org.springframework.batch.core.*;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
@@ -52,6 +59,18 @@ public class DeleteOldMeetingsJob {
     @Autowired
     MeetingRepository meetingRepository;
 
+    @Autowired
+    private MeetingArchiveRepository meetingArchiveRepository;
+
+    @Autowired
+    private MeetingBasicCache meetingBasicCache;
+
+    @Autowired
+    private ConferencePinService conferencePinService;
+
+    @Autowired
+    private JobShardService jobShardService;
+
     @Autowired
     private JobRepository jobRepository;
 
@@ -67,15 +86,53 @@ public class DeleteOldMeetingsJob {
     @Value("${jobs.meetings-delete-old.chunkSize:200}")
     protected int chunkSize;
 
+    @Value("${jobs.meetings-delete-old.archive:false}")
+    protected boolean archive;
+
+    @Value("${jobs.meetings-delete-old.archive-chunk-size:1000}")
+    protected int archiveChunkSize;
+
+    @Value("${jobs.sharding.enabled:false}")
+    protected boolean sharded;
+
     @Scheduled(cron = "${jobs.meetings-delete-old.cron:0 35 1 * * *}", zone = "Europe/Berlin")
     @SchedulerLock(name = "DeleteOldMeetingsJob")
     public void execute() throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException {
+        if (sharded) {
+            return;
+        }
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("JobId", UUID.randomUUID().toString())
                 .toJobParameters();
         jobLauncher.run(job(), jobParameters);
     }
 
+    /**
+     * Sharded mode: runs on every node, each node deletes the meetings of the id range shards it leases
+     */
+    @Scheduled(cron = "${jobs.meetings-delete-old.cron:0 35 1 * * *}", zone = "Europe/Berlin")
+    public void executeSharded() {
+        if (sharded) {
+            jobShardService.runShards("DeleteOldMeetingsJob", this::executeShard);
+        }
+    }
+
+    protected void executeShard(IdRange range) {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("JobId", UUID.randomUUID().toString())
+                .addString(JobShardService.SHARD_FROM, range.from().toString())
+                .addString(JobShardService.SHARD_TO, range.to().toString())
+                .toJobParameters();
+        try {
+            JobExecution execution = jobLauncher.run(job(), jobParameters);
+            if (execution.getStatus() != BatchStatus.COMPLETED) {
+                throw new IllegalStateException("Shard " + range + " ended with status " + execution.getStatus());
+            }
+        } catch (JobExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     @Bean(name = "DeleteOldMeetingsJob")
     public Job job() {
         return new JobBuilder("DeleteOldMeetingsJob", jobRepository)
@@ -85,13 +142,23 @@ public class DeleteOldMeetingsJob {
     }
 
     /**
-     * Step 1: Delete meetings with "end date" before ageInDays
+     * Step 1: Delete meetings with "end date" before ageInDays, in archive mode move them into the archive tables
      */
     @Bean(name = "DeleteOldMeetingsJob_Step1")
     protected Step step1() {
+        if (archive) {
+            return new StepBuilder("DeleteOldMeetingsJob_Step1", jobRepository)
+                    .<List<UUID>, List<UUID>> chunk(1, transactionManager)
+                    .reader(step1ArchiveReader(null, null))
+                    .writer(step1ArchiveWriter())
+                    .faultTolerant()
+                    .retryLimit(3)
+                    .retry(Exception.class)
+                    .build();
+        }
         return new StepBuilder("DeleteOldMeetingsJob_Step1", jobRepository)
                 .<List<MeetingEntity>, List<MeetingEntity>> chunk(1, transactionManager)
-                .reader(step1Reader())
+                .reader(step1Reader(null, null))
                 .writer(step1Writer())
                 .faultTolerant()
                 .retryLimit(3)
@@ -100,10 +167,16 @@ public class DeleteOldMeetingsJob {
     }
 
     @Bean(name = "DeleteOldMeetingsJob_Step1Reader")
-    protected ItemReader<List<MeetingEntity>> step1Reader() {
+    @StepScope
+    protected ItemReader<List<MeetingEntity>> step1Reader(
+            @Value("#{jobParameters['" + JobShardService.SHARD_FROM + "']}") String shardFrom,
+            @Value("#{jobParameters['" + JobShardService.SHARD_TO + "']}") String shardTo) {
         return () -> {
             ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays).truncatedTo(ChronoUnit.DAYS);
-            List<MeetingEntity> meetings = meetingRepository.findAllByEndTimeBeforeAndStaticRoomIsFalse(dateBefore, Limit.of(chunkSize));
+            List<MeetingEntity> meetings = shardFrom == null
+                    ? meetingRepository.findAllByEndTimeBeforeAndStaticRoomIsFalse(dateBefore, Limit.of(chunkSize))
+                    : meetingRepository.findAllByEndTimeBeforeAndStaticRoomIsFalseAndIdBetween(
+                            dateBefore, UUID.fromString(shardFrom), UUID.fromString(shardTo), Limit.of(chunkSize));
             return meetings.isEmpty() ? null : meetings;
         };
     }
@@ -111,8 +184,36 @@ public class DeleteOldMeetingsJob {
     @Bean(name = "DeleteOldMeetingsJob_Step1Writer")
     protected ItemWriter<List<MeetingEntity>> step1Writer() {
         return chunk -> {
-            List meetings = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            List<MeetingEntity> meetings = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingBasicCache.evictAll(meetings);
             meetingRepository.deleteAll(meetings);
+            meetingRepository.flush();
+            conferencePinService.reclaim(meetings.stream().map(MeetingEntity::getConferencePin).toList());
+        };
+    }
+
+    @Bean(name = "DeleteOldMeetingsJob_Step1ArchiveReader")
+    @StepScope
+    protected ItemReader<List<UUID>> step1ArchiveReader(
+            @Value("#{jobParameters['" + JobShardService.SHARD_FROM + "']}") String shardFrom,
+            @Value("#{jobParameters['" + JobShardService.SHARD_TO + "']}") String shardTo) {
+        return () -> {
+            ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays).truncatedTo(ChronoUnit.DAYS);
+            List<UUID> ids = shardFrom == null
+                    ? meetingRepository.findIdsByEndTimeBeforeAndStaticRoomIsFalse(dateBefore, Limit.of(archiveChunkSize))
+                    : meetingRepository.findIdsByEndTimeBeforeAndStaticRoomIsFalseAndIdBetween(
+                            dateBefore, UUID.fromString(shardFrom), UUID.fromString(shardTo), Limit.of(archiveChunkSize));
+            return ids.isEmpty() ? null : ids;
+        };
+    }
+
+    @Bean(name = "DeleteOldMeetingsJob_Step1ArchiveWriter")
+    protected ItemWriter<List<UUID>> step1ArchiveWriter() {
+        return chunk -> {
+            List<UUID> ids = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            List<ArchivedMeeting> archived = meetingArchiveRepository.archive(ids, ZonedDateTime.now());
+            meetingBasicCache.evict(archived.stream().map(ArchivedMeeting::id).toList());
+            conferencePinService.reclaim(archived.stream().map(ArchivedMeeting::conferencePin).toList());
         };
     }
 }
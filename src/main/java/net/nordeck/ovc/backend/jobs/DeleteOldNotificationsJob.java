@@ -18,8 +18,12 @@ package net.nordeck.ovc.backend.jobs;
 
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import net.nordeck.ovc.backend.entity.NotificationEntity;
+import net.nordeck.ovc.backend.repository.NotificationPartitionRepository;
 import net.nordeck.ovc.backend.repository.NotificationRepository;
+import net.nordeck.ovc.backend.service.JobShardService;
+import net.nordeck.ovc.backend.service.JobShardService.IdRange;
 import org.springframework.batch.core.*;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
@@ -28,8 +32,11 @@ import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteExcep
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -39,6 +46,8 @@ import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -54,6 +63,12 @@ public class DeleteOldNotificationsJob
     @Autowired
     NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationPartitionRepository partitionRepository;
+
+    @Autowired
+    private JobShardService jobShardService;
+
     @Autowired
     private JobRepository jobRepository;
 
@@ -69,34 +84,92 @@ public class DeleteOldNotificationsJob
     @Value("${jobs.notifications-delete-old.chunkSize:200}")
     protected int chunkSize;
 
+    @Value("${jobs.notifications-delete-old.partitions-ahead:3}")
+    protected int partitionsAhead;
+
+    @Value("${jobs.sharding.enabled:false}")
+    protected boolean sharded;
+
     @Scheduled(cron = "${jobs.notifications-delete-old.cron:0 0 1 * * *}", zone = "Europe/Berlin")
     @SchedulerLock(name = JOB_NAME)
     public void execute() throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException
     {
+        if (sharded)
+        {
+            return;
+        }
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("JobId", UUID.randomUUID().toString())
                 .toJobParameters();
         jobLauncher.run(job(), jobParameters);
     }
 
+    /**
+     * Sharded mode: runs on every node, each node deletes the notifications of the id range shards it leases
+     */
+    @Scheduled(cron = "${jobs.notifications-delete-old.cron:0 0 1 * * *}", zone = "Europe/Berlin")
+    public void executeSharded()
+    {
+        if (sharded)
+        {
+            jobShardService.runShards(JOB_NAME, this::executeShard);
+        }
+    }
+
+    /**
+     * Sharded mode: the partitions are maintained once per purge by the node holding the lock, not by every shard
+     */
+    @Scheduled(cron = "${jobs.notifications-delete-old.cron:0 0 1 * * *}", zone = "Europe/Berlin")
+    @SchedulerLock(name = JOB_NAME + "_Partitions")
+    public void maintainPartitionsSharded()
+    {
+        if (sharded)
+        {
+            maintainPartitions();
+        }
+    }
+
+    protected void executeShard(IdRange range)
+    {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("JobId", UUID.randomUUID().toString())
+                .addString(JobShardService.SHARD_FROM, range.from().toString())
+                .addString(JobShardService.SHARD_TO, range.to().toString())
+                .toJobParameters();
+        try
+        {
+            JobExecution execution = jobLauncher.run(job(), jobParameters);
+            if (execution.getStatus() != BatchStatus.COMPLETED)
+            {
+                throw new IllegalStateException("Shard " + range + " ended with status " + execution.getStatus());
+            }
+        }
+        catch (JobExecutionException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     @Bean(name = JOB_NAME)
     public Job job()
     {
         return new JobBuilder(JOB_NAME, jobRepository)
                 .incrementer(new RunIdIncrementer())
                 .start(step1())
+                .next(step2())
                 .build();
     }
 
     /**
-     * Step 1: Delete notifications with "create_at" before ageInDays
+     * Step 1: Delete notifications with "create_at" before ageInDays. On a partitioned table only the rows of the
+     * default partition, the monthly partitions are dropped as a whole by step 2.
      */
     @Bean(name = "DeleteOldNotificationsJob_Step1")
     protected Step step1()
     {
         return new StepBuilder("DeleteOldNotificationsJob_Step1", jobRepository)
                 .<List<NotificationEntity>, List<NotificationEntity>> chunk(1, transactionManager)
-                .reader(step1Reader())
+                .reader(step1Reader(null, null))
                 .writer(step1Writer())
                 .faultTolerant()
                 .retryLimit(3)
@@ -104,13 +177,43 @@ public class DeleteOldNotificationsJob
                 .build();
     }
 
+    /**
+     * Step 2: on a partitioned notification table, drop the partitions older than ageInDays and create the upcoming
+     * ones. Runs without a transaction, a failing partition does not roll back the others. Skipped by the executions
+     * of a shard, see {@link #maintainPartitionsSharded()}.
+     */
+    @Bean(name = "DeleteOldNotificationsJob_Step2")
+    protected Step step2()
+    {
+        return new StepBuilder("DeleteOldNotificationsJob_Step2", jobRepository)
+                .tasklet(step2Tasklet(), new ResourcelessTransactionManager())
+                .build();
+    }
+
     @Bean(name = "DeleteOldNotificationsJob_Step1Reader")
-    protected ItemReader<List<NotificationEntity>> step1Reader()
+    @StepScope
+    protected ItemReader<List<NotificationEntity>> step1Reader(
+            @Value("#{jobParameters['" + JobShardService.SHARD_FROM + "']}") String shardFrom,
+            @Value("#{jobParameters['" + JobShardService.SHARD_TO + "']}") String shardTo)
     {
         return () ->
         {
             ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays).truncatedTo(ChronoUnit.DAYS);
-            List<NotificationEntity> notifications = notificationRepository.findAllByCreatedAtBefore(dateBefore, Limit.of(chunkSize));
+            List<NotificationEntity> notifications;
+            if (partitionRepository.isPartitioned())
+            {
+                notifications = shardFrom == null
+                        ? notificationRepository.findAllInDefaultPartitionByCreatedAtBefore(dateBefore, chunkSize)
+                        : notificationRepository.findAllInDefaultPartitionByCreatedAtBeforeAndIdBetween(
+                                dateBefore, UUID.fromString(shardFrom), UUID.fromString(shardTo), chunkSize);
+            }
+            else
+            {
+                notifications = shardFrom == null
+                        ? notificationRepository.findAllByCreatedAtBefore(dateBefore, Limit.of(chunkSize))
+                        : notificationRepository.findAllByCreatedAtBeforeAndIdBetween(
+                                dateBefore, UUID.fromString(shardFrom), UUID.fromString(shardTo), Limit.of(chunkSize));
+            }
             return notifications.isEmpty() ? null : notifications;
         };
     }
@@ -124,4 +227,31 @@ public class DeleteOldNotificationsJob
             notificationRepository.deleteAll(notifications);
         };
     }
+
+    protected Tasklet step2Tasklet()
+    {
+        return (contribution, chunkContext) ->
+        {
+            if (chunkContext.getStepContext().getJobParameters().get(JobShardService.SHARD_FROM) == null)
+            {
+                contribution.incrementWriteCount(maintainPartitions());
+            }
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * Creates the upcoming partitions and drops the ones older than ageInDays. Returns the number of dropped
+     * partitions, 0 on a plain table.
+     */
+    protected int maintainPartitions()
+    {
+        if (!partitionRepository.isPartitioned())
+        {
+            return 0;
+        }
+        ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays).truncatedTo(ChronoUnit.DAYS);
+        partitionRepository.createPartitions(YearMonth.now(ZoneOffset.UTC), partitionsAhead + 1);
+        return partitionRepository.dropPartitionsBefore(dateBefore).size();
+    }
 }
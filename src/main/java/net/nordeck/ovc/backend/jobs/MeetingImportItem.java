@@ -0,0 +1,48 @@
+package net.nordeck.ovc.backend.jobs;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import lombok.Getter;
+import lombok.Setter;
+import net.nordeck.ovc.backend.dto.MeetingCreateDTO;
+
+import java.util.UUID;
+
+/**
+ * One line of the input of the {@link MeetingImportJob}, parsed by the processor and created by the writer.
+ */
+@Getter
+@Setter
+public class MeetingImportItem
+{
+
+    private final long line;
+
+    private final String content;
+
+    private MeetingCreateDTO meeting;
+
+    private UUID createdId;
+
+    public MeetingImportItem(long line, String content)
+    {
+        this.line = line;
+        this.content = content;
+    }
+
+}
@@ -0,0 +1,200 @@
+package net.nordeck.ovc.backend.jobs;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.dto.MeetingCreateDTO;
+import net.nordeck.ovc.backend.dto.MeetingDTO;
+import net.nordeck.ovc.backend.dto.MeetingType;
+import net.nordeck.ovc.backend.service.MeetingService;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.nordeck.ovc.backend.dto.DTOUtils.isRecurrentMeeting;
+
+/**
+ * Imports meetings from NDJSON, one {@link MeetingCreateDTO} per line, e.g. when migrating from other systems.
+ * <p>
+ * The input is read line by line and created in chunks via {@link MeetingService#createAll(List)}. Lines which can't
+ * be parsed or created are skipped, a failing chunk is retried item by item. One result line per input line is
+ * written to the results whenever a chunk has been committed. Not scheduled, started by
+ * {@link #execute(BufferedReader, Writer)} in the calling thread.
+ */
+@Configuration
+public class MeetingImportJob {
+
+    private static final String JOB_ID = "JobId";
+
+    // input and results of the running imports, by job id, as streams can't be passed as job parameters
+    private final Map<String, Streams> running = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${jobs.meetings-import.chunkSize:100}")
+    protected int chunkSize;
+
+    public BatchStatus execute(BufferedReader input, Writer results) throws JobExecutionException {
+        String jobId = UUID.randomUUID().toString();
+        running.put(jobId, new Streams(input, results));
+        try {
+            JobParameters jobParameters = new JobParametersBuilder()
+                    .addString(JOB_ID, jobId)
+                    .toJobParameters();
+            return jobLauncher.run(job(), jobParameters).getStatus();
+        }
+        finally {
+            running.remove(jobId);
+        }
+    }
+
+    @Bean(name = "MeetingImportJob")
+    public Job job() {
+        return new JobBuilder("MeetingImportJob", jobRepository)
+                .start(step1())
+                .build();
+    }
+
+    /**
+     * Step 1: Create the meetings of the input, skipping the invalid ones
+     */
+    @Bean(name = "MeetingImportJob_Step1")
+    protected Step step1() {
+        MeetingImportResultWriter results = step1Results(null);
+        return new StepBuilder("MeetingImportJob_Step1", jobRepository)
+                .<MeetingImportItem, MeetingImportItem> chunk(chunkSize, transactionManager)
+                .reader(step1Reader(null))
+                .processor(step1Processor())
+                .writer(step1Writer())
+                .faultTolerant()
+                .skip(Exception.class)
+                .noSkip(IOException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .listener((SkipListener<MeetingImportItem, MeetingImportItem>) results)
+                .listener((ChunkListener) results)
+                .listener((ItemWriteListener<MeetingImportItem>) results)
+                .build();
+    }
+
+    @Bean(name = "MeetingImportJob_Step1Reader")
+    @StepScope
+    protected ItemReader<MeetingImportItem> step1Reader(@Value("#{jobParameters['" + JOB_ID + "']}") String jobId) {
+        BufferedReader input = running.get(jobId).input();
+        AtomicLong line = new AtomicLong();
+        return () -> {
+            String content;
+            while ((content = input.readLine()) != null) {
+                line.incrementAndGet();
+                if (!content.isBlank()) {
+                    return new MeetingImportItem(line.get(), content);
+                }
+            }
+            return null;
+        };
+    }
+
+    @Bean(name = "MeetingImportJob_Step1Processor")
+    protected ItemProcessor<MeetingImportItem, MeetingImportItem> step1Processor() {
+        return item -> {
+            MeetingCreateDTO meeting;
+            try {
+                meeting = objectMapper.readValue(item.getContent(), MeetingCreateDTO.class);
+            }
+            catch (JsonProcessingException ex) {
+                // an IOException, which would stop the import like a broken input, and without the source location
+                throw new IllegalArgumentException(ex.getOriginalMessage());
+            }
+            validate(meeting);
+            item.setMeeting(meeting);
+            return item;
+        };
+    }
+
+    @Bean(name = "MeetingImportJob_Step1Writer")
+    protected ItemWriter<MeetingImportItem> step1Writer() {
+        return chunk -> {
+            List<? extends MeetingImportItem> items = chunk.getItems();
+            List<MeetingDTO> created = meetingService.createAll(
+                    items.stream().map(MeetingImportItem::getMeeting).toList());
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setCreatedId(created.get(i).getId());
+            }
+        };
+    }
+
+    @Bean(name = "MeetingImportJob_Step1Results")
+    @StepScope
+    protected MeetingImportResultWriter step1Results(@Value("#{jobParameters['" + JOB_ID + "']}") String jobId) {
+        return new MeetingImportResultWriter(running.get(jobId).results(), objectMapper);
+    }
+
+    /**
+     * Rejects what create() would store inconsistently or fail on in the middle of a chunk.
+     */
+    protected static void validate(MeetingCreateDTO meeting) {
+        if (meeting.getType() == null || StringUtils.isBlank(meeting.getName())) {
+            throw new IllegalArgumentException(Constants.ERR_IMPORT_MEETING_INVALID);
+        }
+        if (MeetingType.NORMAL.equals(meeting.getType()) && (meeting.getStartTime() == null
+                || meeting.getEndTime() == null || !meeting.getStartTime().isBefore(meeting.getEndTime()))) {
+            throw new IllegalArgumentException(Constants.ERR_IMPORT_MEETING_TIMES);
+        }
+        if (isRecurrentMeeting(meeting) && (meeting.getRecurrence().getEndDate() == null
+                || !meeting.getRecurrence().getEndDate().isAfter(meeting.getStartTime()))) {
+            throw new IllegalArgumentException(Constants.ERR_IMPORT_SERIES_END);
+        }
+    }
+
+    private record Streams(BufferedReader input, Writer results) {}
+}
@@ -0,0 +1,105 @@
+package net.nordeck.ovc.backend.jobs;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nordeck.ovc.backend.dto.MeetingImportResultDTO;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import static net.nordeck.ovc.backend.dto.MeetingImportResultDTO.STATUS_CREATED;
+import static net.nordeck.ovc.backend.dto.MeetingImportResultDTO.STATUS_FAILED;
+
+/**
+ * Writes one {@link MeetingImportResultDTO} line per line of the {@link MeetingImportJob} input, flushed after each
+ * chunk, so the caller gets the results while the import is running.
+ */
+public class MeetingImportResultWriter implements ItemWriteListener<MeetingImportItem>,
+        SkipListener<MeetingImportItem, MeetingImportItem>, ChunkListener
+{
+
+    private final Writer results;
+
+    private final ObjectMapper objectMapper;
+
+    public MeetingImportResultWriter(Writer results, ObjectMapper objectMapper)
+    {
+        this.results = results;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends MeetingImportItem> items)
+    {
+        for (MeetingImportItem item : items)
+        {
+            write(new MeetingImportResultDTO(item.getLine(), STATUS_CREATED, item.getCreatedId(), null));
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(MeetingImportItem item, Throwable t)
+    {
+        write(new MeetingImportResultDTO(item.getLine(), STATUS_FAILED, null, getError(t)));
+    }
+
+    @Override
+    public void onSkipInWrite(MeetingImportItem item, Throwable t)
+    {
+        write(new MeetingImportResultDTO(item.getLine(), STATUS_FAILED, null, getError(t)));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context)
+    {
+        try
+        {
+            results.flush();
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void write(MeetingImportResultDTO result)
+    {
+        try
+        {
+            results.write(objectMapper.writeValueAsString(result));
+            results.write('\n');
+        }
+        catch (IOException ex)
+        {
+            // the caller is gone, fail the import instead of creating meetings nobody gets the results of
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String getError(Throwable t)
+    {
+        return t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,114 @@
+package net.nordeck.ovc.backend.jobs;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.nordeck.ovc.backend.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Materialises the notifications appended to the outbox by the user-facing writes (participants added to / removed
+ * from static rooms), so that those requests only insert one outbox row.
+ * <p>
+ * Delivery is at-least-once: a batch is dispatched in one transaction and retried as a whole when it fails. The
+ * notifications carry the id of their outbox entry and the entries are locked while they are dispatched, so neither
+ * a retry nor a concurrent dispatch creates duplicates. When a batch fails, its entries are retried one by one, so
+ * that a failing entry only delays itself: it is postponed and given up after <code>max-attempts</code>.
+ */
+@Component
+@ConditionalOnProperty(name = "jobs.notification-outbox.enabled")
+public class NotificationOutboxDispatcher
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    public static final String JOB_NAME = "NotificationOutboxDispatcher";
+
+    private final NotificationService notificationService;
+
+    @Value("${jobs.notification-outbox.batch-size:200}")
+    protected int batchSize = 200;
+
+    @Value("${jobs.notification-outbox.max-attempts:10}")
+    protected int maxAttempts = 10;
+
+    @Value("${jobs.notification-outbox.retry-delay-in-seconds:60}")
+    protected int retryDelayInSeconds = 60;
+
+    public NotificationOutboxDispatcher(@Autowired NotificationService notificationService)
+    {
+        this.notificationService = notificationService;
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.notification-outbox.interval-in-millis:2000}")
+    @SchedulerLock(name = JOB_NAME)
+    public void dispatch()
+    {
+        List<UUID> due;
+        do
+        {
+            due = notificationService.findDueOutboxEntries(batchSize, maxAttempts);
+            if (due.isEmpty())
+            {
+                return;
+            }
+            try
+            {
+                notificationService.dispatchOutboxEntries(due);
+            }
+            catch (Exception ex)
+            {
+                LOGGER.warn("Could not dispatch a batch of {} notification outbox entries, retrying them one by one. " +
+                                    "Cause: {}", due.size(), ex.getMessage());
+                due.forEach(this::dispatchSingle);
+            }
+        }
+        while (due.size() == batchSize);
+    }
+
+    private void dispatchSingle(UUID outboxId)
+    {
+        try
+        {
+            notificationService.dispatchOutboxEntries(List.of(outboxId));
+        }
+        catch (Exception ex)
+        {
+            int attempts = notificationService.postponeOutboxEntry(outboxId, Duration.ofSeconds(retryDelayInSeconds));
+            if (attempts >= maxAttempts)
+            {
+                LOGGER.error("Giving up notification outbox entry {} after {} attempts. Cause: {}",
+                             outboxId, attempts, ex.getMessage());
+            }
+            else
+            {
+                LOGGER.warn("Could not dispatch notification outbox entry {}, attempt {}. Cause: {}",
+                            outboxId, attempts, ex.getMessage());
+            }
+        }
+    }
+}
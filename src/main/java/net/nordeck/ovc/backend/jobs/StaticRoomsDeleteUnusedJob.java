@@ -17,8 +17,11 @@ package net.nordeck.ovc.backend.jobs;
  */
 
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.StaticRoomCandidateRepository;
+import net.nordeck.ovc.backend.service.ConferencePinService;
 import net.nordeck.ovc.backend.service.NotificationService;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.job.builder.JobBuilder;
@@ -29,8 +32,10 @@ import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteExcep
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -52,6 +57,15 @@ public class StaticRoomsDeleteUnusedJob {
     @Autowired
     MeetingRepository meetingRepository;
 
+    @Autowired
+    private StaticRoomCandidateRepository candidateRepository;
+
+    @Autowired
+    private MeetingBasicCache meetingBasicCache;
+
+    @Autowired
+    private ConferencePinService conferencePinService;
+
     @Autowired
     private NotificationService notificationService;
 
@@ -73,6 +87,9 @@ public class StaticRoomsDeleteUnusedJob {
     @Value("${jobs.static-room-delete-unused.chunkSize:200}")
     protected int chunkSize;
 
+    @Value("${jobs.static-room-delete-unused.set-based:false}")
+    protected boolean setBased;
+
     @Scheduled(cron = "${jobs.static-room-delete-unused.cron:0 15 1 * * *}", zone = "Europe/Berlin")
     @SchedulerLock(name = "StaticRoomsDeleteUnusedJob")
     public void execute() throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException {
@@ -113,8 +130,13 @@ public class StaticRoomsDeleteUnusedJob {
      */
     @Bean(name = "StaticRoomsDeleteUnusedJob_Step2")
     protected Step step2() {
+        if (setBased) {
+            return new StepBuilder("StaticRoomsDeleteUnusedJob_Step2", jobRepository)
+                    .tasklet(step2Tasklet(), transactionManager)
+                    .build();
+        }
         return new StepBuilder("StaticRoomsDeleteUnusedJob_Step2", jobRepository)
-                .<List<MeetingEntity>, List<MeetingEntity>> chunk(1, transactionManager)
+                .<List<UUID>, List<UUID>> chunk(1, transactionManager)
                 .reader(step2Reader())
                 .writer(step2Writer())
                 .faultTolerant()
@@ -128,6 +150,11 @@ public class StaticRoomsDeleteUnusedJob {
      */
     @Bean(name = "StaticRoomsDeleteUnusedJob_Step3")
     protected Step step3() {
+        if (setBased) {
+            return new StepBuilder("StaticRoomsDeleteUnusedJob_Step3", jobRepository)
+                    .tasklet(step3Tasklet(), transactionManager)
+                    .build();
+        }
         return new StepBuilder("StaticRoomsDeleteUnusedJob_Step3", jobRepository)
                 .<List<MeetingEntity>, List<MeetingEntity>> chunk(1, transactionManager)
                 .reader(step3Reader())
@@ -150,29 +177,28 @@ public class StaticRoomsDeleteUnusedJob {
     @Bean(name = "StaticRoomsDeleteUnusedJob_Step1Writer")
     protected ItemWriter<List<MeetingEntity>> step1Writer() {
         return chunk -> {
-            List rooms = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            List<MeetingEntity> rooms = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingBasicCache.evictAll(rooms);
             meetingRepository.deleteAll(rooms);
+            meetingRepository.flush();
+            conferencePinService.reclaim(rooms.stream().map(MeetingEntity::getConferencePin).toList());
         };
     }
 
     @Bean(name = "StaticRoomsDeleteUnusedJob_Step2Reader")
-    protected ItemReader<List<MeetingEntity>> step2Reader() {
+    protected ItemReader<List<UUID>> step2Reader() {
         return () -> {
             ZonedDateTime dateToCompare = ZonedDateTime.now().minusDays(daysBefore);
-            List<MeetingEntity> entities = meetingRepository.findStaticRoomsResetDeleteCandidates(dateToCompare, Limit.of(chunkSize));
-            return entities.isEmpty() ? null : entities;
+            List<UUID> ids = meetingRepository.findStaticRoomsResetDeleteCandidates(dateToCompare, Limit.of(chunkSize));
+            return ids.isEmpty() ? null : ids;
         };
     }
 
     @Bean(name = "StaticRoomsDeleteUnusedJob_Step2Writer")
-    protected ItemWriter<List<MeetingEntity>> step2Writer() {
+    protected ItemWriter<List<UUID>> step2Writer() {
         return chunk -> {
-            List<MeetingEntity> rooms = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
-            for (MeetingEntity room : rooms) {
-                room.setDeleteCandidate(false);
-                room.setRoomDeletionDueDate(null);
-            }
-            meetingRepository.saveAll(rooms);
+            List<UUID> ids = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingRepository.updateDeleteCandidates(ids, false, null, ZonedDateTime.now());
         };
     }
 
@@ -197,4 +223,33 @@ public class StaticRoomsDeleteUnusedJob {
             notificationService.createDeleteCandidateNotifications(rooms);
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Set-based step 2: resets all candidates with a single statement
+     */
+    protected Tasklet step2Tasklet() {
+        return (contribution, chunkContext) -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            contribution.incrementWriteCount(meetingRepository.resetDeleteCandidates(now.minusDays(daysBefore), now));
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * Set-based step 3: flags all new candidates with a single statement, only the flagged rooms are read back to
+     * create the notifications
+     */
+    protected Tasklet step3Tasklet() {
+        return (contribution, chunkContext) -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<UUID> ids = candidateRepository.flagDeleteCandidates(now.minusDays(daysBefore),
+                                                                      now.plusDays(daysBefore), now);
+            for (int i = 0; i < ids.size(); i += chunkSize) {
+                List<UUID> part = ids.subList(i, Math.min(i + chunkSize, ids.size()));
+                notificationService.createDeleteCandidateNotifications(meetingRepository.findWithParticipantsByIdIn(part));
+            }
+            contribution.incrementWriteCount(ids.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+}
@@ -17,8 +17,10 @@ package net.nordeck.ovc.backend.jobs;
  */
 
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.StaticRoomCandidateRepository;
 import net.nordeck.ovc.backend.service.MeetingService;
 import net.nordeck.ovc.backend.service.NotificationService;
 import org.springframework.batch.core.*;
@@ -30,8 +32,10 @@ import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteExcep
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -54,6 +58,12 @@ public class StaticRoomsPasswordChangeJob
     @Autowired
     protected MeetingRepository meetingRepository;
 
+    @Autowired
+    private StaticRoomCandidateRepository candidateRepository;
+
+    @Autowired
+    private MeetingBasicCache meetingBasicCache;
+
     @Autowired
     private NotificationService notificationService;
 
@@ -78,6 +88,9 @@ public class StaticRoomsPasswordChangeJob
     @Value("${jobs.static-room-password-change.passwordLength:8}")
     protected int passwordLength;
 
+    @Value("${jobs.static-room-password-change.set-based:false}")
+    protected boolean setBased;
+
     @Scheduled(cron = "${jobs.static-room-password-change.cron:0 0 1 * * *}", zone = "Europe/Berlin")
     @SchedulerLock(name = "StaticRoomsPasswordChangeJob")
     public void execute() throws JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException, JobInstanceAlreadyCompleteException
@@ -122,8 +135,14 @@ public class StaticRoomsPasswordChangeJob
     @Bean(name = "StaticRoomsPasswordChangeJob_Step2")
     protected Step step2()
     {
+        if (setBased)
+        {
+            return new StepBuilder("StaticRoomsPasswordChangeJob_Step2", jobRepository)
+                    .tasklet(step2Tasklet(), transactionManager)
+                    .build();
+        }
         return new StepBuilder("StaticRoomsPasswordChangeJob_Step2", jobRepository)
-                .<List<MeetingEntity>, List<MeetingEntity>>chunk(1, transactionManager)
+                .<List<UUID>, List<UUID>>chunk(1, transactionManager)
                 .reader(step2Reader())
                 .writer(step2Writer())
                 .faultTolerant()
@@ -138,6 +157,12 @@ public class StaticRoomsPasswordChangeJob
     @Bean(name = "StaticRoomsPasswordChangeJob_Step3")
     protected Step step3()
     {
+        if (setBased)
+        {
+            return new StepBuilder("StaticRoomsPasswordChangeJob_Step3", jobRepository)
+                    .tasklet(step3Tasklet(), transactionManager)
+                    .build();
+        }
         return new StepBuilder("StaticRoomsPasswordChangeJob_Step3", jobRepository)
                 .<List<MeetingEntity>, List<MeetingEntity>>chunk(1, transactionManager)
                 .reader(step3Reader())
@@ -171,31 +196,27 @@ public class StaticRoomsPasswordChangeJob
                 r.setPasswordChangeDueDate(ZonedDateTime.now());
             }
             meetingRepository.saveAll(rooms);
+            meetingBasicCache.evictAll(rooms);
             notificationService.createPasswordChangedNotifications(rooms);
         };
     }
 
     @Bean(name = "StaticRoomsPasswordChangeJob_Step2Reader")
-    protected ItemReader<List<MeetingEntity>> step2Reader()
+    protected ItemReader<List<UUID>> step2Reader()
     {
         return () -> {
             ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(daysBefore);
-            List<MeetingEntity> rooms = meetingRepository.findStaticRoomsResetPasswordChangeCandidates(dateBefore, Limit.of(chunkSize));
-            return rooms.isEmpty() ? null : rooms;
+            List<UUID> ids = meetingRepository.findStaticRoomsResetPasswordChangeCandidates(dateBefore, Limit.of(chunkSize));
+            return ids.isEmpty() ? null : ids;
         };
     }
 
     @Bean(name = "StaticRoomsPasswordChangeJob_Step2Writer")
-    protected ItemWriter<List<MeetingEntity>> step2Writer()
+    protected ItemWriter<List<UUID>> step2Writer()
     {
         return chunk -> {
-            List<MeetingEntity> rooms = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
-            for (MeetingEntity r : rooms)
-            {
-                r.setPasswordChangeCandidate(false);
-                r.setPasswordChangeDueDate(null);
-            }
-            meetingRepository.saveAll(rooms);
+            List<UUID> ids = chunk.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            meetingRepository.updatePasswordChangeCandidates(ids, false, null, ZonedDateTime.now());
         };
     }
 
@@ -224,4 +245,38 @@ public class StaticRoomsPasswordChangeJob
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * Set-based step 2: resets all candidates with a single statement
+     */
+    protected Tasklet step2Tasklet()
+    {
+        return (contribution, chunkContext) -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            contribution.incrementWriteCount(
+                    meetingRepository.resetPasswordChangeCandidates(now.minusDays(daysBefore), now));
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * Set-based step 3: flags all new candidates with a single statement, only the flagged rooms are read back to
+     * create the notifications
+     */
+    protected Tasklet step3Tasklet()
+    {
+        return (contribution, chunkContext) -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<UUID> ids = candidateRepository.flagPasswordChangeCandidates(now.minusDays(daysBefore),
+                                                                              now.plusDays(daysBefore), now);
+            for (int i = 0; i < ids.size(); i += chunkSize)
+            {
+                List<UUID> part = ids.subList(i, Math.min(i + chunkSize, ids.size()));
+                notificationService.createPasswordChangeCandidateNotifications(
+                        meetingRepository.findWithParticipantsByIdIn(part));
+            }
+            contribution.incrementWriteCount(ids.size());
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+}
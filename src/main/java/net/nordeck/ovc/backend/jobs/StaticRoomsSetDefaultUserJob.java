@@ -47,9 +47,12 @@ import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -144,18 +147,29 @@ public class StaticRoomsSetDefaultUserJob {
         return items -> {
             List<MeetingParticipantEntity> participants = new ArrayList<>();
             List<MeetingEntity> entities = items.getItems().stream().flatMap(List::stream).collect(Collectors.toList());
+            String email = defaultUser == null ? defaultUserEmail : defaultUser.getEmail();
+
+            // the default user may already be a participant (unique per meeting and email), it is promoted then
+            Map<UUID, MeetingParticipantEntity> existing = participantRepository
+                    .findAllByMeetingIdInAndEmail(entities.stream().map(MeetingEntity::getId).toList(), email)
+                    .stream()
+                    .collect(Collectors.toMap(MeetingParticipantEntity::getMeetingId, Function.identity(),
+                                              (a, b) -> a));
 
             for(MeetingEntity meeting : entities) {
-                MeetingParticipantEntity participant = new MeetingParticipantEntity();
-                participant.setMeetingId(meeting.getId());
+                MeetingParticipantEntity participant = existing.get(meeting.getId());
+                if (participant == null) {
+                    participant = new MeetingParticipantEntity();
+                    participant.setMeetingId(meeting.getId());
+                    participant.setEmail(email);
+                    participant.setUserId(defaultUser == null ? defaultUserEmail : defaultUser.getUsername());
+                }
                 participant.setRole(ORGANIZER);
-                participant.setEmail(defaultUser == null ? defaultUserEmail : defaultUser.getEmail());
-                participant.setUserId(defaultUser == null ? defaultUserEmail : defaultUser.getUsername());
                 participants.add(participant);
-                meeting.setHasOrganizer(true);
             }
             participantRepository.saveAll(participants);
-            meetingRepository.saveAll(entities);
+            meetingRepository.updateHasOrganizer(entities.stream().map(MeetingEntity::getId).toList(), true,
+                                                 ZonedDateTime.now());
         };
     }
 }
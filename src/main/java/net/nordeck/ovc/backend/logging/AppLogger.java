@@ -22,6 +22,7 @@ import net.logstash.logback.argument.StructuredArguments;
 import net.nordeck.ovc.backend.Constants;
 import net.nordeck.ovc.backend.controller.cache.CachedBodyHttpServletRequest;
 import net.nordeck.ovc.backend.service.AuthenticatedUserService;
+import net.nordeck.ovc.backend.service.CalendarFeedService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
@@ -29,18 +30,31 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class AppLogger
 {
     public static final String UNDEFINED = "undefined";
     public static final String STACK_TRACE = "stack_trace";
+    public static final String USER_HASH_ALGORITHM = "HmacSHA256";
     public static final String POST = "POST";
     public static final String PUT = "PUT";
+    public static final String MASK = "***";
+
+    // the token in the path of the calendar feed does not expire, it is never logged
+    private static final Pattern FEED_PATH = Pattern.compile(
+            Pattern.quote(CalendarFeedService.FEED_PATH).replace("%s", "\\E[^/]+\\Q"));
+
+    private static final String MASKED_FEED_PATH = String.format(CalendarFeedService.FEED_PATH, MASK);
 
     protected Logger logger;
 
@@ -53,8 +67,16 @@ public class AppLogger
         logger = LoggerFactory.getLogger(loggerName);
     }
 
-    @SneakyThrows
     public void logRequest(String message)
+    {
+        logRequest(message, true);
+    }
+
+    /**
+     * @param withBody whether the body of POST / PUT requests is logged, which reads it completely
+     */
+    @SneakyThrows
+    public void logRequest(String message, boolean withBody)
     {
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
         if (requestAttributes != null)
@@ -62,7 +84,7 @@ public class AppLogger
             HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
             String body = null;
 
-            if (POST.equalsIgnoreCase(request.getMethod()) || PUT.equalsIgnoreCase(request.getMethod()))
+            if (withBody && (POST.equalsIgnoreCase(request.getMethod()) || PUT.equalsIgnoreCase(request.getMethod())))
             {
                 CachedBodyHttpServletRequest cachedBodyHttpServletRequest = new CachedBodyHttpServletRequest(request);
                 body = cachedBodyHttpServletRequest.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
@@ -71,13 +93,54 @@ public class AppLogger
 
             logger.info(message,
                         StructuredArguments.keyValue(Constants.REQUEST_METHOD, request.getMethod()),
-                        StructuredArguments.keyValue(Constants.REQUEST_URI, request.getRequestURI()),
+                        StructuredArguments.keyValue(Constants.REQUEST_URI, getRequestUri(request)),
                         StructuredArguments.keyValue(Constants.REQUEST_QUERY, request.getQueryString()),
                         StructuredArguments.keyValue(Constants.REQUEST_BODY, body),
                         StructuredArguments.keyValue(Constants.AUTH_USER, userId));
         }
     }
 
+    public void logRequestWarning(String message, String infoMessage)
+    {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null)
+        {
+            HttpServletRequest req = ((ServletRequestAttributes) requestAttributes).getRequest();
+            String userId = getUserId();
+
+            logger.warn(message,
+                        StructuredArguments.keyValue(Constants.REQUEST_METHOD, req.getMethod()),
+                        StructuredArguments.keyValue(Constants.REQUEST_URI, getRequestUri(req)),
+                        StructuredArguments.keyValue(Constants.REQUEST_QUERY, req.getQueryString()),
+                        StructuredArguments.keyValue(Constants.AUTH_USER, userId),
+                        StructuredArguments.keyValue(Constants.INFO_MESSAGE, infoMessage));
+        }
+    }
+
+    /**
+     * Logs the structured record of a request exceeding its latency threshold. The user is only logged as HMAC keyed
+     * with the given secret, so that the records of one user can be correlated without spreading the email address:
+     * without the key, the hashes can't be reversed with a dictionary of the addresses.
+     */
+    public void logSlowRequest(String route, int status, long durationMs, int statements, long dbTimeMs,
+                               byte[] userHashKey)
+    {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null)
+        {
+            HttpServletRequest req = ((ServletRequestAttributes) requestAttributes).getRequest();
+
+            logger.warn("Slow request.",
+                        StructuredArguments.keyValue(Constants.REQUEST_METHOD, req.getMethod()),
+                        StructuredArguments.keyValue(Constants.ROUTE, route),
+                        StructuredArguments.keyValue(Constants.RESPONSE_STATUS, status),
+                        StructuredArguments.keyValue(Constants.USER_HASH, getUserHash(userHashKey)),
+                        StructuredArguments.keyValue(Constants.DURATION_MS, durationMs),
+                        StructuredArguments.keyValue(Constants.DB_STATEMENTS, statements),
+                        StructuredArguments.keyValue(Constants.DB_TIME_MS, dbTimeMs));
+        }
+    }
+
     public void logRequestError(UUID id, String message, String infoMessage)
     {
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
@@ -89,7 +152,7 @@ public class AppLogger
             logger.error(message,
                          StructuredArguments.keyValue(Constants.ID, id),
                          StructuredArguments.keyValue(Constants.REQUEST_METHOD, req.getMethod()),
-                         StructuredArguments.keyValue(Constants.REQUEST_URI, req.getRequestURI()),
+                         StructuredArguments.keyValue(Constants.REQUEST_URI, getRequestUri(req)),
                          StructuredArguments.keyValue(Constants.REQUEST_QUERY, req.getQueryString()),
                          StructuredArguments.keyValue(Constants.AUTH_USER, userId),
                          StructuredArguments.keyValue(Constants.INFO_MESSAGE, infoMessage));
@@ -111,13 +174,33 @@ public class AppLogger
             logger.error(message,
                          StructuredArguments.keyValue(Constants.ID, id),
                          StructuredArguments.keyValue(Constants.REQUEST_METHOD, req.getMethod()),
-                         StructuredArguments.keyValue(Constants.REQUEST_URI, req.getRequestURI()),
+                         StructuredArguments.keyValue(Constants.REQUEST_URI, getRequestUri(req)),
                          StructuredArguments.keyValue(Constants.REQUEST_QUERY, req.getQueryString()),
                          StructuredArguments.keyValue(Constants.AUTH_USER, userId),
                          StructuredArguments.keyValue(STACK_TRACE, new String(bytesArray).lines()));
         }
     }
 
+    @SneakyThrows
+    private String getUserHash(byte[] key)
+    {
+        String userId = getUserId();
+        if (userId == null || UNDEFINED.equals(userId))
+        {
+            return UNDEFINED;
+        }
+        Mac mac = Mac.getInstance(USER_HASH_ALGORITHM);
+        mac.init(new SecretKeySpec(key, USER_HASH_ALGORITHM));
+        byte[] hash = mac.doFinal(userId.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, 8);
+    }
+
+    private static String getRequestUri(HttpServletRequest request)
+    {
+        String uri = request.getRequestURI();
+        return uri != null && FEED_PATH.matcher(uri).matches() ? MASKED_FEED_PATH : uri;
+    }
+
     private String getUserId()
     {
         String userId;
@@ -0,0 +1,70 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The versions of the calendar feed tokens. A user without a row has version 0, increasing the version revokes the
+ * tokens signed with the previous one.
+ */
+@Repository
+public class CalendarFeedKeyRepository
+{
+
+    private static final String MERGE_VERSION =
+            "MERGE INTO calendar_feed_key k USING (VALUES (CAST(? AS VARCHAR(255)))) AS v(user_id) " +
+            "ON k.user_id = v.user_id " +
+            "WHEN MATCHED THEN UPDATE SET version = k.version + 1, updated_at = ? " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, version, updated_at) VALUES (v.user_id, 1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CalendarFeedKeyRepository(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int findVersion(String userId)
+    {
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM calendar_feed_key WHERE user_id = ?", Integer.class, key(userId));
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * Increases the version of the user and returns the new one.
+     */
+    public int increaseVersion(String userId)
+    {
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbcTemplate.update(MERGE_VERSION, key(userId), now, now);
+        return findVersion(userId);
+    }
+
+    private static String key(String userId)
+    {
+        return userId.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.time.ZonedDateTime;
+
+/**
+ * Amount and last change of the meetings in a calendar feed, a cheap version for the ETag of the feed.
+ */
+public interface CalendarFeedVersion {
+
+    long getCount();
+
+    ZonedDateTime getLastUpdate();
+}
@@ -0,0 +1,86 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves ended meetings and their participants into the archive tables with set-based statements, see
+ * changelog-meeting-archive. The children of a series are moved with their parent, as deleting the parent cascades.
+ */
+@Repository
+public class MeetingArchiveRepository
+{
+
+    private static final String MEETINGS = "(id IN (%1$s) OR parent_id IN (%1$s))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MeetingArchiveRepository(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Copies the meetings (and the children of series) with their participants into the archive tables and deletes
+     * them, the notifications are deleted by the cascade. Returns the moved meetings.
+     */
+    public List<ArchivedMeeting> archive(Collection<UUID> meetingIds, ZonedDateTime archivedAt)
+    {
+        if (meetingIds.isEmpty())
+        {
+            return List.of();
+        }
+        String meetings = String.format(MEETINGS, String.join(", ", Collections.nCopies(meetingIds.size(), "?")));
+        List<Object> ids = new ArrayList<>(meetingIds);
+        ids.addAll(meetingIds);
+        Object[] args = ids.toArray();
+
+        List<ArchivedMeeting> archived = jdbcTemplate.query(
+                "SELECT id, conference_pin FROM meeting WHERE " + meetings,
+                (rs, rowNum) -> new ArchivedMeeting(rs.getObject("id", UUID.class), rs.getString("conference_pin")),
+                args);
+        jdbcTemplate.update(
+                "INSERT INTO meeting_participant_archive (id, meeting_id, email, role, created_at) " +
+                "SELECT id, meeting_id, email, role, created_at FROM meeting_participant " +
+                "WHERE meeting_id IN (SELECT id FROM meeting WHERE " + meetings + ")", args);
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(archivedAt.toOffsetDateTime());
+        insertArgs.addAll(ids);
+        jdbcTemplate.update(
+                "INSERT INTO meeting_archive (id, parent_id, name, owner_id, frequency, start_time, end_time, " +
+                "started_at, instant_meeting, created_at, archived_at) " +
+                "SELECT id, parent_id, name, owner_id, frequency, start_time, end_time, started_at, instant_meeting, " +
+                "created_at, ? FROM meeting WHERE " + meetings, insertArgs.toArray());
+        jdbcTemplate.update("DELETE FROM meeting WHERE " + meetings, args);
+        return archived;
+    }
+
+    public record ArchivedMeeting(UUID id, String conferencePin)
+    {
+    }
+}
@@ -16,11 +16,21 @@
 
 package net.nordeck.ovc.backend.repository;
 
+import jakarta.persistence.QueryHint;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -28,4 +38,33 @@ public interface MeetingParticipantRepository extends JpaRepository<MeetingParti
 
     List<MeetingParticipantEntity> findAllByMeetingId(UUID meetingId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<MeetingParticipantListItem> findAllByMeetingIdIn(Collection<UUID> meetingIds);
+
+    List<MeetingParticipantEntity> findAllByMeetingIdAndIdIn(UUID meetingId, Collection<UUID> ids);
+
+    /**
+     * The upper case emails of the participants of the meeting, among the given upper case emails.
+     */
+    @Query("SELECT DISTINCT upper(p.email) FROM MeetingParticipantEntity p " +
+            "WHERE p.meetingId = :meetingId AND upper(p.email) IN :emails")
+    Set<String> findExistingEmails(@Param("meetingId") UUID meetingId, @Param("emails") Collection<String> emails);
+
+    @Query("SELECT p FROM MeetingParticipantEntity p WHERE p.meetingId IN :meetingIds AND lower(p.email) = lower(:email)")
+    List<MeetingParticipantEntity> findAllByMeetingIdInAndEmail(@Param("meetingIds") Collection<UUID> meetingIds,
+                                                                @Param("email") String email);
+
+    /**
+     * Inserts the participant unless the email (whatever its case) is already a participant of the meeting. The
+     * unique index on (meeting_id, lower(email)) decides, so concurrent inserts of the same email cannot both succeed.
+     *
+     * @return 1 when inserted, 0 when the email is already a participant
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO meeting_participant (id, meeting_id, user_id, role, email, created_at, updated_at) " +
+            "VALUES (:id, :meetingId, :userId, :role, :email, :now, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("meetingId") UUID meetingId, @Param("userId") String userId,
+                       @Param("role") String role, @Param("email") String email, @Param("now") ZonedDateTime now);
+
 }
@@ -16,22 +16,49 @@
 
 package net.nordeck.ovc.backend.repository;
 
+import jakarta.persistence.QueryHint;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
 
+    // columns of MeetingListItem, the list queries don't load managed entities
+    String LIST_ITEM_SELECT = "SELECT m.id AS id, m.parentId AS parentId, m.ownerId AS ownerId, m.name AS name, " +
+            "m.info AS info, m.startTime AS startTime, m.endTime AS endTime, m.startedAt AS startedAt, " +
+            "m.password AS password, m.lobbyEnabled AS lobbyEnabled, m.staticRoom AS staticRoom, " +
+            "m.instantMeeting AS instantMeeting, m.conferencePin AS conferencePin, m.phoneNumber AS phoneNumber, " +
+            "m.sipJibriLink AS sipJibriLink, m.frequency AS frequency, m.seriesEndTime AS seriesEndTime, " +
+            "m.customDays_monday AS customDays_monday, m.customDays_tuesday AS customDays_tuesday, " +
+            "m.customDays_wednesday AS customDays_wednesday, m.customDays_thursday AS customDays_thursday, " +
+            "m.customDays_friday AS customDays_friday, m.customDays_saturday AS customDays_saturday, " +
+            "m.customDays_sunday AS customDays_sunday ";
+
+    // loads the participants in the same query, for callers running outside of a transaction
+    @EntityGraph(attributePaths = "participants")
+    Optional<MeetingEntity> findWithParticipantsById(UUID id);
+
+    @EntityGraph(attributePaths = "participants")
+    List<MeetingEntity> findWithParticipantsByIdIn(Collection<UUID> ids);
+
+    @Transactional(readOnly = true)
     List<MeetingEntity> findByParentIdAndExcludedFalseOrderByEndTimeAsc(UUID parentId);
 
     @Deprecated
@@ -41,7 +68,8 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
 
 
 
-    @Query(value = "SELECT m FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = LIST_ITEM_SELECT + "FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
             "m.instantMeeting = false AND " +
             "m.staticRoom = false AND " +
             "m.excluded = false AND " +
@@ -49,22 +77,65 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
             "m.startTime >= :startDateTime AND " +
             "m.startTime <= :endDateTime AND " +
             "UPPER(p.email) = UPPER(:userId)")
-    Page<MeetingEntity> findAllNormalMeetings(ZonedDateTime startDateTime, ZonedDateTime endDateTime, String userId,
-                                              Pageable pageable);
+    Page<MeetingListItem> findAllNormalMeetings(ZonedDateTime startDateTime, ZonedDateTime endDateTime, String userId,
+                                                Pageable pageable);
 
-    @Query(value = "SELECT m FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = LIST_ITEM_SELECT + "FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
             "m.instantMeeting = false AND " +
             "m.staticRoom = true AND " +
             "m.excluded = false AND " +
             "UPPER(p.email) = UPPER(:userId)")
-    Page<MeetingEntity> findAllStaticRooms(String userId, Pageable pageable);
+    Page<MeetingListItem> findAllStaticRooms(String userId, Pageable pageable);
 
-    @Query(value = "SELECT m FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = LIST_ITEM_SELECT + "FROM MeetingEntity m LEFT JOIN m.participants p WHERE " +
             "m.instantMeeting = true AND " +
             "m.staticRoom = false AND " +
             "m.excluded = false AND " +
             "UPPER(p.email) = UPPER(:userId)")
-    Page<MeetingEntity> findAllInstantMeetings(String userId, Pageable pageable);
+    Page<MeetingListItem> findAllInstantMeetings(String userId, Pageable pageable);
+
+
+
+    // normal meetings and series (parents with all their children) of a user, for the calendar feed
+    String CALENDAR_FEED_WHERE = "FROM MeetingEntity m JOIN m.participants p WHERE " +
+            "m.instantMeeting = false AND " +
+            "m.staticRoom = false AND " +
+            "UPPER(p.email) = UPPER(:userId)";
+
+    /**
+     * The rows of a series are adjacent, the parent first and then its children by start time. Must be consumed
+     * within a transaction, the rows are fetched from a cursor.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200")})
+    @Query(value = LIST_ITEM_SELECT + ", m.excluded AS excluded, m.updatedAt AS updatedAt " + CALENDAR_FEED_WHERE +
+            " ORDER BY COALESCE(m.parentId, m.id), CASE WHEN m.parentId IS NULL THEN 0 ELSE 1 END, m.startTime")
+    Stream<CalendarEventItem> streamCalendarEvents(String userId);
+
+    @Query(value = "SELECT COUNT(m.id) AS count, MAX(m.updatedAt) AS lastUpdate " + CALENDAR_FEED_WHERE)
+    CalendarFeedVersion findCalendarFeedVersion(String userId);
+
+
+
+    /**
+     * Meetings of the given participants overlapping the given time range, ordered by participant and start time.
+     * The emails must be in upper case, to be matched via the upper(email) index.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT UPPER(p.email) AS email, m.startTime AS startTime, m.endTime AS endTime " +
+            "FROM MeetingEntity m JOIN m.participants p WHERE " +
+            "m.instantMeeting = false AND " +
+            "m.staticRoom = false AND " +
+            "m.excluded = false AND " +
+            "((m.frequency = 'ONCE') OR (m.frequency != 'ONCE' AND m.parentId is not null)) AND " +
+            "m.startTime < :endDateTime AND " +
+            "m.endTime > :startDateTime AND " +
+            "UPPER(p.email) IN :emails " +
+            "ORDER BY UPPER(p.email), m.startTime")
+    List<BusyInterval> findBusyIntervals(Collection<String> emails, ZonedDateTime startDateTime,
+                                         ZonedDateTime endDateTime);
 
 
 
@@ -73,11 +144,11 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
             "m.staticRoom = true")
     List<MeetingEntity> findStaticRoomsReadyForPasswordChange(ZonedDateTime dueDate, Limit limit);
 
-    @Query(value = "SELECT m FROM MeetingEntity m WHERE " +
+    @Query(value = "SELECT m.id FROM MeetingEntity m WHERE " +
             "m.passwordChangeCandidate = true AND " +
             "m.lastPasswordChange > :beforeDate AND " +
             "m.staticRoom = true")
-    List<MeetingEntity> findStaticRoomsResetPasswordChangeCandidates(ZonedDateTime beforeDate, Limit limit);
+    List<UUID> findStaticRoomsResetPasswordChangeCandidates(ZonedDateTime beforeDate, Limit limit);
 
     @Query(value = "SELECT m FROM MeetingEntity m WHERE " +
             "m.lastPasswordChange < :beforeDate AND " +
@@ -91,11 +162,11 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
             "m.staticRoom = true")
     List<MeetingEntity> findStaticRoomsReadyForDeletion(ZonedDateTime dueDate, Limit limit);
 
-    @Query(value = "SELECT m FROM MeetingEntity m WHERE " +
+    @Query(value = "SELECT m.id FROM MeetingEntity m WHERE " +
             "m.deleteCandidate = true AND " +
             "m.lastVisitDate > :beforeDate AND " +
             "m.staticRoom = true")
-    List<MeetingEntity> findStaticRoomsResetDeleteCandidates(ZonedDateTime beforeDate, Limit limit);
+    List<UUID> findStaticRoomsResetDeleteCandidates(ZonedDateTime beforeDate, Limit limit);
 
     @Query(value = "SELECT m FROM MeetingEntity m WHERE " +
             "m.lastVisitDate < :beforeDate AND " +
@@ -103,6 +174,44 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
             "m.staticRoom = true")
     List<MeetingEntity> findStaticRoomsNewDeleteCandidates(ZonedDateTime beforeDate, Limit limit);
 
+    /*
+     * Narrow updates of single flags: the rows are neither loaded nor fully rewritten. Pending changes are
+     * flushed first, the loaded entities are not refreshed.
+     */
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE MeetingEntity m SET m.deleteCandidate = :candidate, m.roomDeletionDueDate = :dueDate, " +
+            "m.updatedAt = :now WHERE m.id IN :ids")
+    int updateDeleteCandidates(Collection<UUID> ids, boolean candidate, ZonedDateTime dueDate, ZonedDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE MeetingEntity m SET m.passwordChangeCandidate = :candidate, " +
+            "m.passwordChangeDueDate = :dueDate, m.updatedAt = :now WHERE m.id IN :ids")
+    int updatePasswordChangeCandidates(Collection<UUID> ids, boolean candidate, ZonedDateTime dueDate,
+                                       ZonedDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE MeetingEntity m SET m.hasOrganizer = :hasOrganizer, m.updatedAt = :now " +
+            "WHERE m.id IN :ids")
+    int updateHasOrganizer(Collection<UUID> ids, boolean hasOrganizer, ZonedDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE MeetingEntity m SET m.deleteCandidate = false, m.roomDeletionDueDate = null, " +
+            "m.updatedAt = :now WHERE m.deleteCandidate = true AND m.lastVisitDate > :beforeDate AND " +
+            "m.staticRoom = true")
+    int resetDeleteCandidates(ZonedDateTime beforeDate, ZonedDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE MeetingEntity m SET m.passwordChangeCandidate = false, m.passwordChangeDueDate = null, " +
+            "m.updatedAt = :now WHERE m.passwordChangeCandidate = true AND m.lastPasswordChange > :beforeDate AND " +
+            "m.staticRoom = true")
+    int resetPasswordChangeCandidates(ZonedDateTime beforeDate, ZonedDateTime now);
+
 
 
 
@@ -112,6 +221,17 @@ public interface MeetingRepository extends JpaRepository<MeetingEntity, UUID> {
 
     List<MeetingEntity> findAllByEndTimeBeforeAndStaticRoomIsFalse(ZonedDateTime dateTimeBefore, Limit limit);
 
+    List<MeetingEntity> findAllByEndTimeBeforeAndStaticRoomIsFalseAndIdBetween(ZonedDateTime dateTimeBefore,
+                                                                               UUID idFrom, UUID idTo, Limit limit);
+
+    @Query(value = "SELECT m.id FROM MeetingEntity m WHERE m.endTime < :dateTimeBefore AND m.staticRoom = false")
+    List<UUID> findIdsByEndTimeBeforeAndStaticRoomIsFalse(ZonedDateTime dateTimeBefore, Limit limit);
+
+    @Query(value = "SELECT m.id FROM MeetingEntity m WHERE m.endTime < :dateTimeBefore AND m.staticRoom = false " +
+            "AND m.id BETWEEN :idFrom AND :idTo")
+    List<UUID> findIdsByEndTimeBeforeAndStaticRoomIsFalseAndIdBetween(ZonedDateTime dateTimeBefore, UUID idFrom,
+                                                                      UUID idTo, Limit limit);
+
     List<MeetingEntity> findAllByParentId(UUID parentId);
 
     List<MeetingEntity> findAllByParentIdAndExcludedIsFalse(UUID parentId);
@@ -0,0 +1,50 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.persistence.LockModeType;
+import net.nordeck.ovc.backend.entity.NotificationOutboxEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, UUID>
+{
+
+    @Query("SELECT o.id FROM NotificationOutboxEntity o WHERE o.attempts < :maxAttempts " +
+            "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now) ORDER BY o.createdAt ASC")
+    List<UUID> findDueIds(@Param("maxAttempts") int maxAttempts, @Param("now") ZonedDateTime now, Limit limit);
+
+    /**
+     * Locks the entries until the end of the transaction: a concurrent dispatch of the same entries waits and then
+     * no longer finds the entries it removed. The unique outbox index of a partitioned notification table includes
+     * created_at and cannot prevent a second delivery on its own.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<NotificationOutboxEntity> findAllByIdInOrderByCreatedAtAsc(Collection<UUID> ids);
+
+}
@@ -0,0 +1,176 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintenance of the monthly (UTC) partitions of the notification table, see changelog-notification-partitioning.
+ * Partitioning is optional and Postgres only, on other databases or a plain table {@link #isPartitioned()} is false.
+ */
+@Repository
+public class NotificationPartitionRepository
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationPartitionRepository.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notification_p(\\d{6})");
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Boolean partitioned;
+
+    public NotificationPartitionRepository(@Autowired JdbcTemplate jdbcTemplate,
+                                           @Autowired PlatformTransactionManager transactionManager)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isPartitioned()
+    {
+        if (partitioned == null)
+        {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equalsIgnoreCase(product) && jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                    "WHERE c.relname = 'notification' AND pg_table_is_visible(c.oid)", Integer.class) > 0;
+        }
+        return partitioned;
+    }
+
+    /**
+     * Creates the partitions of the given amount of months starting with the given one, existing ones are kept.
+     * Rows of a month that landed in the default partition are moved into the new partition of the month.
+     */
+    public void createPartitions(YearMonth from, int months)
+    {
+        for (int i = 0; i < months; i++)
+        {
+            YearMonth month = from.plusMonths(i);
+            try
+            {
+                if (hasDefaultPartitionRows(month))
+                {
+                    transactionTemplate.executeWithoutResult(status -> moveFromDefaultPartition(month));
+                }
+                else
+                {
+                    jdbcTemplate.execute(createPartitionSql(month));
+                }
+            }
+            catch (DataAccessException | TransactionException ex)
+            {
+                LOGGER.warn("Could not create the notification partition of {}. Cause: {}", month, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean hasDefaultPartitionRows(YearMonth month)
+    {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM notification_default WHERE " + monthCondition(month) + ")",
+                Boolean.class));
+    }
+
+    /**
+     * Postgres refuses to create a partition while the default partition holds rows of its range. The default
+     * partition is detached for the move, which locks the notification table until the transaction commits.
+     */
+    private void moveFromDefaultPartition(YearMonth month)
+    {
+        jdbcTemplate.execute("ALTER TABLE notification DETACH PARTITION notification_default");
+        jdbcTemplate.execute(createPartitionSql(month));
+        jdbcTemplate.execute("WITH moved AS (DELETE FROM notification_default WHERE " + monthCondition(month) +
+                             " RETURNING *) INSERT INTO notification SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE notification ATTACH PARTITION notification_default DEFAULT");
+    }
+
+    private static String createPartitionSql(YearMonth month)
+    {
+        return String.format("CREATE TABLE IF NOT EXISTS notification_p%s PARTITION OF notification " +
+                             "FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')",
+                             month.format(MONTH), month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    private static String monthCondition(YearMonth month)
+    {
+        return String.format("created_at >= '%s 00:00:00+00' AND created_at < '%s 00:00:00+00'",
+                             month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Detaches and drops the partitions whose month ended before the given time. Returns the dropped partitions.
+     */
+    public List<String> dropPartitionsBefore(ZonedDateTime before)
+    {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = 'notification' " +
+                "AND pg_table_is_visible(p.oid) ORDER BY c.relname", String.class);
+        List<String> dropped = new ArrayList<>();
+        for (String partition : partitions)
+        {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches())
+            {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), MONTH);
+            if (month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).isAfter(before))
+            {
+                continue;
+            }
+            try
+            {
+                jdbcTemplate.execute("ALTER TABLE notification DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped.add(partition);
+            }
+            catch (DataAccessException ex)
+            {
+                // dropped by another node in the meantime
+                LOGGER.warn("Could not drop the notification partition {}. Cause: {}", partition, ex.getMessage());
+            }
+        }
+        return dropped;
+    }
+}
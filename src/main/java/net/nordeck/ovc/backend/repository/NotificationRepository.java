@@ -21,11 +21,15 @@ import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -44,4 +48,25 @@ public interface NotificationRepository extends JpaRepository<NotificationEntity
 
     List<NotificationEntity> findAllByCreatedAtBefore(ZonedDateTime limitDateTime, Limit limit);
 
+    List<NotificationEntity> findAllByCreatedAtBeforeAndIdBetween(ZonedDateTime limitDateTime, UUID idFrom, UUID idTo,
+                                                                  Limit limit);
+
+    /**
+     * Partitioned table only (see {@link NotificationPartitionRepository}): the rows of the default partition, which
+     * is never dropped, created before the given time.
+     */
+    @Query(value = "SELECT * FROM notification_default WHERE created_at < :limitDateTime LIMIT :limit",
+            nativeQuery = true)
+    List<NotificationEntity> findAllInDefaultPartitionByCreatedAtBefore(
+            @Param("limitDateTime") ZonedDateTime limitDateTime, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM notification_default WHERE created_at < :limitDateTime " +
+            "AND id BETWEEN :idFrom AND :idTo LIMIT :limit", nativeQuery = true)
+    List<NotificationEntity> findAllInDefaultPartitionByCreatedAtBeforeAndIdBetween(
+            @Param("limitDateTime") ZonedDateTime limitDateTime, @Param("idFrom") UUID idFrom,
+            @Param("idTo") UUID idTo, @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT n.outboxId FROM NotificationEntity n WHERE n.outboxId IN :outboxIds")
+    Set<UUID> findMaterialisedOutboxIds(@Param("outboxIds") Collection<UUID> outboxIds);
+
 }
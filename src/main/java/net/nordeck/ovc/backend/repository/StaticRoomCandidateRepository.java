@@ -0,0 +1,92 @@
+package net.nordeck.ovc.backend.repository;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based flagging of static room candidates. Each method flags all matching rooms with a single statement and
+ * returns the ids of the flagged rooms, so that only those rows have to be read back (e.g. for notifications).
+ * <p>
+ * Postgres returns the ids with {@code UPDATE ... RETURNING}, H2 (tests) with the equivalent
+ * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)}.
+ */
+@Repository
+public class StaticRoomCandidateRepository
+{
+
+    private static final String FLAG_DELETE_CANDIDATES =
+            "UPDATE meeting SET delete_candidate = true, room_deletion_due_date = ?, updated_at = ? " +
+            "WHERE static_room = true AND delete_candidate = false AND last_visit_date < ?";
+
+    private static final String FLAG_PASSWORD_CHANGE_CANDIDATES =
+            "UPDATE meeting SET password_change_candidate = true, password_change_due_date = ?, updated_at = ? " +
+            "WHERE static_room = true AND password_change_candidate = false AND last_password_change < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean returningSupported;
+
+    public StaticRoomCandidateRepository(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Flags the static rooms not visited since the given date as delete candidates.
+     */
+    public List<UUID> flagDeleteCandidates(ZonedDateTime visitedBefore, ZonedDateTime dueDate, ZonedDateTime now)
+    {
+        return updateReturningIds(FLAG_DELETE_CANDIDATES, visitedBefore, dueDate, now);
+    }
+
+    /**
+     * Flags the static rooms whose password was not changed since the given date as password change candidates.
+     */
+    public List<UUID> flagPasswordChangeCandidates(ZonedDateTime changedBefore, ZonedDateTime dueDate,
+                                                   ZonedDateTime now)
+    {
+        return updateReturningIds(FLAG_PASSWORD_CHANGE_CANDIDATES, changedBefore, dueDate, now);
+    }
+
+    private List<UUID> updateReturningIds(String update, ZonedDateTime before, ZonedDateTime dueDate,
+                                          ZonedDateTime now)
+    {
+        String sql = isReturningSupported() ? update + " RETURNING id" : "SELECT id FROM FINAL TABLE (" + update + ")";
+        return jdbcTemplate.queryForList(sql, UUID.class, dueDate.toOffsetDateTime(), now.toOffsetDateTime(),
+                                         before.toOffsetDateTime());
+    }
+
+    private boolean isReturningSupported()
+    {
+        if (returningSupported == null)
+        {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            returningSupported = !"H2".equalsIgnoreCase(product);
+        }
+        return returningSupported;
+    }
+}
@@ -0,0 +1,55 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.dto.CalendarFeedDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CalendarFeedService
+{
+    String FEED_PATH = "/api/v1.0/calendar/%s/meetings.ics";
+
+    /**
+     * The iCalendar feed of the authenticated user. Calendar clients cannot authenticate, so the feed is identified
+     * by a token signed with <code>calendar.feed.secret</code> and the current feed version of the user.
+     */
+    CalendarFeedDTO getFeedForUser();
+
+    /**
+     * Revokes the feed token of the authenticated user by increasing the feed version, and returns the new feed.
+     */
+    CalendarFeedDTO resetFeedForUser();
+
+    /**
+     * The user of a feed token, an {@link org.springframework.security.access.AccessDeniedException} is thrown when
+     * the token is not valid.
+     */
+    String findUserByToken(String token);
+
+    /**
+     * A version of the feed of the user, which changes whenever one of its meetings is added, updated or removed.
+     */
+    String getFeedETag(String userId);
+
+    /**
+     * Streams the feed of the user: single meetings and series of the normal meetings the user participates in.
+     */
+    void writeFeed(String userId, OutputStream out) throws IOException;
+}
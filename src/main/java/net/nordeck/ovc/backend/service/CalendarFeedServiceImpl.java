@@ -0,0 +1,167 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.dto.CalendarFeedDTO;
+import net.nordeck.ovc.backend.repository.CalendarEventItem;
+import net.nordeck.ovc.backend.repository.CalendarFeedKeyRepository;
+import net.nordeck.ovc.backend.repository.CalendarFeedVersion;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class CalendarFeedServiceImpl implements CalendarFeedService
+{
+    // part of the ETag, to be increased when the content of the feed changes for the same data
+    private static final int FEED_FORMAT_VERSION = 1;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final MeetingRepository meetingRepository;
+
+    private final CalendarFeedKeyRepository feedKeyRepository;
+
+    @Value("${calendar.feed.secret}")
+    protected String secret;
+
+    @Value("${portal.domain}")
+    protected String portalDomain;
+
+    @Value("${portal.meeting-join-path}")
+    protected String meetingJoinPath;
+
+    public CalendarFeedServiceImpl(@Autowired MeetingRepository meetingRepository,
+                                   @Autowired CalendarFeedKeyRepository feedKeyRepository)
+    {
+        this.meetingRepository = meetingRepository;
+        this.feedKeyRepository = feedKeyRepository;
+    }
+
+    @Override
+    @PreAuthorize("@permissionControlService.isUserAuthenticated()")
+    public CalendarFeedDTO getFeedForUser()
+    {
+        String userId = AuthenticatedUserService.getAuthenticatedUser();
+        return buildFeed(userId, feedKeyRepository.findVersion(userId));
+    }
+
+    @Override
+    @PreAuthorize("@permissionControlService.isUserAuthenticated()")
+    public CalendarFeedDTO resetFeedForUser()
+    {
+        String userId = AuthenticatedUserService.getAuthenticatedUser();
+        return buildFeed(userId, feedKeyRepository.increaseVersion(userId));
+    }
+
+    @Override
+    public String findUserByToken(String token)
+    {
+        int separator = token == null ? -1 : token.indexOf('.');
+        if (separator < 0)
+        {
+            throw new AccessDeniedException(Constants.ERR_INVALID_FEED_TOKEN);
+        }
+        try
+        {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String userId = new String(decoder.decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (MessageDigest.isEqual(sign(userId, feedKeyRepository.findVersion(userId)), signature))
+            {
+                return userId;
+            }
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // not base64, handled below
+        }
+        throw new AccessDeniedException(Constants.ERR_INVALID_FEED_TOKEN);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getFeedETag(String userId)
+    {
+        CalendarFeedVersion version = meetingRepository.findCalendarFeedVersion(userId);
+        long lastUpdate = version.getLastUpdate() == null ? 0 : version.getLastUpdate().toInstant().toEpochMilli();
+        return String.format("\"%d-%d-%d\"", FEED_FORMAT_VERSION, version.getCount(), lastUpdate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeFeed(String userId, OutputStream out) throws IOException
+    {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CalendarFeedWriter feed = new CalendarFeedWriter(writer, portalDomain + meetingJoinPath);
+        feed.begin();
+        try (Stream<CalendarEventItem> events = meetingRepository.streamCalendarEvents(userId))
+        {
+            Iterator<CalendarEventItem> iterator = events.iterator();
+            while (iterator.hasNext())
+            {
+                feed.add(iterator.next());
+            }
+        }
+        feed.end();
+    }
+
+    private CalendarFeedDTO buildFeed(String userId, int version)
+    {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString(userId.getBytes(StandardCharsets.UTF_8)) + "." +
+                encoder.encodeToString(sign(userId, version));
+        return new CalendarFeedDTO(token, String.format(FEED_PATH, token));
+    }
+
+    /**
+     * Version 0 signs the user alone, so that the feeds subscribed before the first reset keep working.
+     */
+    private byte[] sign(String userId, int version)
+    {
+        String payload = version == 0 ? userId.toLowerCase() : userId.toLowerCase() + ":" + version;
+        try
+        {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.repository.CalendarEventItem;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Writes the rows of {@link net.nordeck.ovc.backend.repository.MeetingRepository#streamCalendarEvents} as an
+ * iCalendar (RFC 5545) document, holding at most one series in memory.
+ * <p>
+ * A series is written as one VEVENT with RRULE and EXDATE instead of one VEVENT per child meeting: the occurrences
+ * are rebuilt from the series like the children are generated, each child is matched to the occurrence it was
+ * generated for, the excluded children give the EXDATEs and children moved or renamed on their own are written as
+ * overrides (RECURRENCE-ID). All times are written in UTC, as the children are generated with a fixed offset.
+ */
+class CalendarFeedWriter
+{
+    private static final DateTimeFormatter UTC_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private static final String CRLF = "\r\n";
+
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+
+    private final String joinUrl;
+
+    private CalendarEventItem parent;
+
+    private final List<CalendarEventItem> children = new ArrayList<>();
+
+    CalendarFeedWriter(Writer out, String joinUrl)
+    {
+        this.out = out;
+        this.joinUrl = joinUrl;
+    }
+
+    void begin() throws IOException
+    {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Nordeck//OVC Backend//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+    }
+
+    void add(CalendarEventItem item) throws IOException
+    {
+        if (item.getParentId() != null && parent != null && item.getParentId().equals(parent.getId()))
+        {
+            children.add(item);
+            return;
+        }
+        writeSeries();
+        if (item.isRecurrentParent())
+        {
+            parent = item;
+        }
+        else if (!item.isExcluded())
+        {
+            // single meeting, or child of a series the user is not a participant of
+            writeEvent(item, item.getStartTime(), item.getEndTime(), null);
+            line("END:VEVENT");
+        }
+    }
+
+    void end() throws IOException
+    {
+        writeSeries();
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void writeSeries() throws IOException
+    {
+        if (parent == null)
+        {
+            return;
+        }
+        CalendarEventItem series = parent;
+        parent = null;
+        if (children.isEmpty())
+        {
+            return;
+        }
+
+        Duration duration = occurrenceDuration(series);
+        List<ZonedDateTime> occurrences = occurrences(series);
+        Map<ZonedDateTime, CalendarEventItem> slots = assignSlots(occurrences);
+        List<ZonedDateTime> excluded = new ArrayList<>();
+        Map<ZonedDateTime, CalendarEventItem> overrides = new LinkedHashMap<>();
+        for (ZonedDateTime slot : occurrences)
+        {
+            CalendarEventItem child = slots.get(slot);
+            if (child == null || child.isExcluded())
+            {
+                excluded.add(slot);
+            }
+            else if (isOverride(series, child, slot, duration))
+            {
+                overrides.put(slot, child);
+            }
+        }
+
+        if (!occurrences.isEmpty())
+        {
+            ZonedDateTime start = occurrences.get(0);
+            writeEvent(series, start, start.plus(duration), null);
+            String rule = rule(series, occurrences);
+            if (rule != null)
+            {
+                line("RRULE:" + rule);
+            }
+            else
+            {
+                // the occurrences can't be expressed as a rule, e.g. monthly ones clamped to the end of the month
+                for (ZonedDateTime date : occurrences.subList(1, occurrences.size()))
+                {
+                    line("RDATE:" + UTC_FORMAT.format(date));
+                }
+            }
+            for (ZonedDateTime date : excluded)
+            {
+                line("EXDATE:" + UTC_FORMAT.format(date));
+            }
+            line("END:VEVENT");
+        }
+        for (Map.Entry<ZonedDateTime, CalendarEventItem> override : overrides.entrySet())
+        {
+            CalendarEventItem child = override.getValue();
+            writeEvent(child, child.getStartTime(), child.getEndTime(), series.getId());
+            line("RECURRENCE-ID:" + UTC_FORMAT.format(override.getKey()));
+            line("END:VEVENT");
+        }
+        for (CalendarEventItem child : children)
+        {
+            if (!slots.containsValue(child) && !child.isExcluded())
+            {
+                // more children than occurrences of the series, written on their own
+                writeEvent(child, child.getStartTime(), child.getEndTime(), null);
+                line("END:VEVENT");
+            }
+        }
+        children.clear();
+    }
+
+    /**
+     * The occurrences the children of the series are generated for, in UTC. Computed from the series like
+     * {@code MeetingServiceImpl.buildRecurringMeetings}, in the offset of its start time.
+     */
+    private List<ZonedDateTime> occurrences(CalendarEventItem series)
+    {
+        ZonedDateTime start = series.getStartTime().withZoneSameInstant(series.getStartTime().getOffset())
+                .truncatedTo(ChronoUnit.MINUTES);
+        if (Constants.FREQUENCY_CUSTOM.equals(series.getFrequency())
+                && !customDays(series).contains(start.getDayOfWeek()))
+        {
+            start = MeetingServiceImpl.calculateNextDayForCustomRecurrence(start, series);
+        }
+        List<ZonedDateTime> occurrences = new ArrayList<>();
+        if (series.getSeriesEndTime() == null)
+        {
+            return occurrences;
+        }
+        for (ZonedDateTime date = start; date.isBefore(series.getSeriesEndTime());
+             date = MeetingServiceImpl.nextOccurrence(date, series))
+        {
+            occurrences.add(date.withZoneSameInstant(ZoneOffset.UTC));
+        }
+        // a custom series starts on the next week day if it was created on another week day than its start
+        while (occurrences.size() > children.size() && children.stream()
+                .noneMatch(child -> child.getStartTime().isEqual(occurrences.get(0))))
+        {
+            occurrences.remove(0);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Maps the occurrences to the children generated for them: a child still starting at an occurrence belongs to
+     * it, the children moved on their own take the remaining occurrences in order.
+     */
+    private Map<ZonedDateTime, CalendarEventItem> assignSlots(List<ZonedDateTime> occurrences)
+    {
+        Map<ZonedDateTime, CalendarEventItem> slots = new HashMap<>();
+        List<CalendarEventItem> moved = new ArrayList<>();
+        for (CalendarEventItem child : children)
+        {
+            ZonedDateTime slot = child.getStartTime().withZoneSameInstant(ZoneOffset.UTC);
+            if (occurrences.contains(slot) && !slots.containsKey(slot))
+            {
+                slots.put(slot, child);
+            }
+            else
+            {
+                moved.add(child);
+            }
+        }
+        Iterator<ZonedDateTime> free = occurrences.stream().filter(slot -> !slots.containsKey(slot)).iterator();
+        for (CalendarEventItem child : moved)
+        {
+            if (free.hasNext())
+            {
+                slots.put(free.next(), child);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * The week days of a custom series, as set on the series.
+     */
+    private static Set<DayOfWeek> customDays(CalendarEventItem series)
+    {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        addIf(days, series.isCustomDays_monday(), DayOfWeek.MONDAY);
+        addIf(days, series.isCustomDays_tuesday(), DayOfWeek.TUESDAY);
+        addIf(days, series.isCustomDays_wednesday(), DayOfWeek.WEDNESDAY);
+        addIf(days, series.isCustomDays_thursday(), DayOfWeek.THURSDAY);
+        addIf(days, series.isCustomDays_friday(), DayOfWeek.FRIDAY);
+        addIf(days, series.isCustomDays_saturday(), DayOfWeek.SATURDAY);
+        addIf(days, series.isCustomDays_sunday(), DayOfWeek.SUNDAY);
+        return days;
+    }
+
+    private static void addIf(Set<DayOfWeek> days, boolean set, DayOfWeek day)
+    {
+        if (set)
+        {
+            days.add(day);
+        }
+    }
+
+    /**
+     * Writes the VEVENT properties shared by all kinds of events, the caller adds its own ones and END:VEVENT.
+     */
+    private void writeEvent(CalendarEventItem item, ZonedDateTime start, ZonedDateTime end, UUID seriesId)
+            throws IOException
+    {
+        line("BEGIN:VEVENT");
+        line("UID:" + (seriesId != null ? seriesId : item.getId()));
+        line("DTSTAMP:" + UTC_FORMAT.format(item.getUpdatedAt() != null ? item.getUpdatedAt() : ZonedDateTime.now()));
+        line("DTSTART:" + UTC_FORMAT.format(start));
+        if (end != null)
+        {
+            line("DTEND:" + UTC_FORMAT.format(end));
+        }
+        line("SUMMARY:" + escape(item.getName()));
+        String link = joinUrl + item.getId();
+        String info = item.getInfo() == null || item.getInfo().isBlank() ? link : item.getInfo() + "\n\n" + link;
+        line("DESCRIPTION:" + escape(info));
+        line("URL:" + link);
+    }
+
+    /**
+     * The duration of one occurrence, computed from the times of day like the children are generated.
+     */
+    private static Duration occurrenceDuration(CalendarEventItem series)
+    {
+        long seconds = series.getEndTime().toLocalTime().toSecondOfDay()
+                - series.getStartTime().toLocalTime().toSecondOfDay();
+        return Duration.ofSeconds(seconds < 0 ? seconds + 24 * 3600 : seconds);
+    }
+
+    private static boolean isOverride(CalendarEventItem series, CalendarEventItem child, ZonedDateTime slot,
+                                      Duration duration)
+    {
+        return !child.getStartTime().isEqual(slot)
+                || child.getEndTime() == null
+                || !child.getEndTime().isEqual(slot.plus(duration))
+                || !Objects.equals(series.getName(), child.getName())
+                || !Objects.equals(series.getInfo(), child.getInfo());
+    }
+
+    /**
+     * The RRULE of the series, or null if it doesn't produce exactly the given occurrences.
+     */
+    private static String rule(CalendarEventItem series, List<ZonedDateTime> occurrences)
+    {
+        ZonedDateTime start = occurrences.get(0);
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        StringBuilder rule = new StringBuilder("FREQ=");
+        switch (series.getFrequency())
+        {
+            case "DAILY" -> rule.append("DAILY");
+            case "MONTHLY" -> rule.append("MONTHLY");
+            case "CUSTOM" ->
+            {
+                // the week days of the series, shifted to UTC like DTSTART
+                long shift = ChronoUnit.DAYS.between(series.getStartTime().toLocalDate(),
+                                                     series.getStartTime().withZoneSameInstant(ZoneOffset.UTC)
+                                                             .toLocalDate());
+                customDays(series).forEach(day -> days.add(day.plus(shift)));
+                rule.append("WEEKLY;BYDAY=");
+                StringJoiner byDay = new StringJoiner(",");
+                days.forEach(day -> byDay.add(day.name().substring(0, 2)));
+                rule.append(byDay);
+            }
+            default -> rule.append("WEEKLY");
+        }
+        // the children start before the series end time, UNTIL is inclusive
+        rule.append(";UNTIL=").append(UTC_FORMAT.format(series.getSeriesEndTime().minusSeconds(1)));
+
+        // the occurrences of the rule, as a client expands it
+        List<ZonedDateTime> expanded = new ArrayList<>();
+        for (int i = 0; expanded.size() <= occurrences.size(); i++)
+        {
+            ZonedDateTime date = switch (series.getFrequency())
+            {
+                case "DAILY" -> start.plusDays(i);
+                case "MONTHLY" -> start.plusMonths(i);
+                case "CUSTOM" -> start.plusDays(i);
+                default -> start.plusWeeks(i);
+            };
+            if (!date.isBefore(series.getSeriesEndTime()))
+            {
+                break;
+            }
+            boolean skipped = "MONTHLY".equals(series.getFrequency()) && date.getDayOfMonth() != start.getDayOfMonth()
+                    || "CUSTOM".equals(series.getFrequency()) && !days.contains(date.getDayOfWeek());
+            if (!skipped)
+            {
+                expanded.add(date);
+            }
+        }
+        return expanded.equals(occurrences) ? rule.toString() : null;
+    }
+
+    static String escape(String text)
+    {
+        if (text == null)
+        {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    /**
+     * Writes a content line, folded after 75 octets as required by RFC 5545.
+     */
+    private void line(String content) throws IOException
+    {
+        int octets = 0;
+        for (int i = 0; i < content.length(); )
+        {
+            int codePoint = content.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > MAX_LINE_OCTETS)
+            {
+                out.write(CRLF);
+                out.write(' ');
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        out.write(CRLF);
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -61,6 +62,7 @@ public class ConferenceMapperServiceImpl implements ConferenceMapperService
 
 
     @Override
+    @Transactional(readOnly = true)
     public MapperJigasiResponseDTO findByJigasiConferenceId(String meetingId)
     {
         Optional<MeetingEntity> optional = meetingRepository.findById(UUID.fromString(meetingId));
@@ -68,9 +70,8 @@ public class ConferenceMapperServiceImpl implements ConferenceMapperService
         if (optional.isPresent())
         {
             MeetingEntity meeting = optional.get();
-            MeetingDTO meetingDTO = DTOUtils.buildFromEntity(meeting);
-            return new MapperJigasiResponseDTO(MAPPING_SUCCESSFUL, Long.valueOf(meetingDTO.getConferencePin()),
-                                               meetingDTO.getId().toString());
+            return new MapperJigasiResponseDTO(MAPPING_SUCCESSFUL, Long.valueOf(meeting.getConferencePin()),
+                                               meeting.getId().toString());
         }
         else
         {
@@ -80,6 +81,7 @@ public class ConferenceMapperServiceImpl implements ConferenceMapperService
 
 
     @Override
+    @Transactional(readOnly = true)
     public MapperJigasiResponseDTO findByJigasiConferencePin(String conferencePin)
     {
         return findMeetingByConferencePin(conferencePin)
@@ -90,6 +92,7 @@ public class ConferenceMapperServiceImpl implements ConferenceMapperService
 
 
     @Override
+    @Transactional(readOnly = true)
     public MapperJibriResponseDTO findBySipJibriConferencePin(String conferencePin)
     {
         return findMeetingByConferencePin(conferencePin)
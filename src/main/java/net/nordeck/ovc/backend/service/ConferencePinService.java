@@ -0,0 +1,45 @@
+package net.nordeck.ovc.backend.service;
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ConferencePinService
+{
+
+    /**
+     * Returns a conference PIN which is reserved in the database and not used by any meeting.
+     */
+    String nextPin();
+
+    /**
+     * Returns the given amount of distinct conference PINs reserved in the database, for bulk creations.
+     */
+    List<String> nextPins(int count);
+
+    /**
+     * Tops up the in-memory pool of reserved PINs.
+     */
+    void refill();
+
+    /**
+     * Releases the reservations of the given PINs, as far as they are not used by any meeting anymore.
+     */
+    void reclaim(Collection<String> pins);
+
+}
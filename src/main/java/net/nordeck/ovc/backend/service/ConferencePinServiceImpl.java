@@ -0,0 +1,276 @@
+package net.nordeck.ovc.backend.service;
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out conference PINs from an in-memory pool, so creating a meeting needs no uniqueness queries.
+ * <p>
+ * Every PIN in the pool has been reserved before by inserting it into the <code>conference_pin_pool</code> table,
+ * whose primary key guarantees uniqueness across all backend nodes. A reservation stays in place as long as a
+ * meeting uses the PIN. Reservations are released by the retention jobs via {@link #reclaim(Collection)}, and
+ * reservations older than twice the max age which are not used by any meeting (deleted meetings, PINs of a stopped
+ * node) are released by the refill cycle.
+ */
+@Service
+public class ConferencePinServiceImpl implements ConferencePinService
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConferencePinServiceImpl.class);
+
+    public static final String ERR_NO_CONFERENCE_PIN = "can't generate a unique conference pin";
+
+    protected static final String SQL_RESERVE =
+            "INSERT INTO conference_pin_pool (pin, reserved_at) SELECT ?, ? WHERE " +
+            "NOT EXISTS (SELECT 1 FROM conference_pin_pool p WHERE p.pin = ?) AND " +
+            "NOT EXISTS (SELECT 1 FROM meeting m WHERE m.conference_pin = ?)";
+
+    protected static final String SQL_RECLAIM =
+            "DELETE FROM conference_pin_pool WHERE pin = ? AND " +
+            "NOT EXISTS (SELECT 1 FROM meeting m WHERE m.conference_pin = ?)";
+
+    protected static final String SQL_RELEASE_STALE =
+            "DELETE FROM conference_pin_pool WHERE reserved_at < ? AND " +
+            "NOT EXISTS (SELECT 1 FROM meeting m WHERE m.conference_pin = conference_pin_pool.pin)";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Queue<ReservedPin> pool = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private Instant lastStaleRelease = Instant.EPOCH;
+
+    @Value("${conference-pin.pool.size:100}")
+    protected int poolSize = 100;
+
+    @Value("${conference-pin.pool.refill-threshold:25}")
+    protected int refillThreshold = 25;
+
+    @Value("${conference-pin.pool.max-attempts:10}")
+    protected int maxAttempts = 10;
+
+    @Value("${conference-pin.pool.max-age-in-hours:24}")
+    protected int maxAgeInHours = 24;
+
+    public ConferencePinServiceImpl(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String nextPin()
+    {
+        String pin = poll();
+        if (pin == null)
+        {
+            // pool drained faster than the background refill, reserve synchronously
+            refillLock.lock();
+            try
+            {
+                pin = poll();
+                if (pin == null)
+                {
+                    fill();
+                    pin = poll();
+                }
+            }
+            finally
+            {
+                refillLock.unlock();
+            }
+        }
+        if (pin == null)
+        {
+            throw new RuntimeException(ERR_NO_CONFERENCE_PIN);
+        }
+        return pin;
+    }
+
+    @Override
+    public List<String> nextPins(int count)
+    {
+        // reserved on their own instead of taken from the pool, so bulk creations don't drain it
+        List<String> pins = new ArrayList<>(count);
+        for (int attempt = 0; attempt < maxAttempts && pins.size() < count; attempt++)
+        {
+            pins.addAll(reserve(candidates(count - pins.size()), Instant.now()));
+        }
+        if (pins.size() < count)
+        {
+            throw new RuntimeException(ERR_NO_CONFERENCE_PIN);
+        }
+        return pins;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${conference-pin.pool.refill-interval-in-millis:5000}")
+    public void refill()
+    {
+        if (!refillLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            if (pool.size() < refillThreshold)
+            {
+                fill();
+            }
+            releaseStaleReservations();
+        }
+        catch (Exception ex)
+        {
+            LOGGER.warn("Could not refill the conference pin pool. Cause: {}", ex.getMessage());
+        }
+        finally
+        {
+            refillLock.unlock();
+        }
+    }
+
+    @Override
+    public void reclaim(Collection<String> pins)
+    {
+        List<Object[]> args = pins.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(pin -> new Object[]{pin, pin})
+                .toList();
+        if (!args.isEmpty())
+        {
+            jdbcTemplate.batchUpdate(SQL_RECLAIM, args);
+        }
+    }
+
+    protected int getPoolSize()
+    {
+        return pool.size();
+    }
+
+    private String poll()
+    {
+        Instant oldestUsable = Instant.now().minus(Duration.ofHours(maxAgeInHours));
+        ReservedPin reserved;
+        while ((reserved = pool.poll()) != null)
+        {
+            // old reservations may have been released by another node already
+            if (reserved.reservedAt.isAfter(oldestUsable))
+            {
+                return reserved.pin;
+            }
+        }
+        return null;
+    }
+
+    private void fill()
+    {
+        for (int attempt = 0; attempt < maxAttempts && pool.size() < poolSize; attempt++)
+        {
+            Instant reservedAt = Instant.now();
+            for (String pin : reserve(candidates(poolSize - pool.size()), reservedAt))
+            {
+                pool.add(new ReservedPin(pin, reservedAt));
+            }
+        }
+    }
+
+    private static Set<String> candidates(int count)
+    {
+        Set<String> candidates = new HashSet<>();
+        while (candidates.size() < count)
+        {
+            candidates.add(String.valueOf(RANDOM.nextLong(1000000000L, 9999999999L)));
+        }
+        return candidates;
+    }
+
+    private List<String> reserve(Collection<String> candidates, Instant reservedAt)
+    {
+        List<String> pins = new ArrayList<>(candidates);
+        Timestamp timestamp = Timestamp.from(reservedAt);
+        List<String> reserved = new ArrayList<>();
+        try
+        {
+            List<Object[]> args = pins.stream().map(pin -> new Object[]{pin, timestamp, pin, pin}).toList();
+            int[] counts = jdbcTemplate.batchUpdate(SQL_RESERVE, args);
+            for (int i = 0; i < counts.length; i++)
+            {
+                if (counts[i] > 0)
+                {
+                    reserved.add(pins.get(i));
+                }
+            }
+        }
+        catch (DuplicateKeyException ex)
+        {
+            // another node reserved one of the candidates at the same time, retry one by one
+            reserved.clear();
+            for (String pin : pins)
+            {
+                try
+                {
+                    if (jdbcTemplate.update(SQL_RESERVE, pin, timestamp, pin, pin) > 0)
+                    {
+                        reserved.add(pin);
+                    }
+                }
+                catch (DuplicateKeyException ignored)
+                {
+                    // taken by another node
+                }
+            }
+        }
+        return reserved;
+    }
+
+    private void releaseStaleReservations()
+    {
+        Instant now = Instant.now();
+        if (lastStaleRelease.isAfter(now.minus(Duration.ofHours(1))))
+        {
+            return;
+        }
+        lastStaleRelease = now;
+        Timestamp cutoff = Timestamp.from(now.minus(Duration.ofHours(2L * maxAgeInHours)));
+        int released = jdbcTemplate.update(SQL_RELEASE_STALE, cutoff);
+        if (released > 0)
+        {
+            LOGGER.info("Released {} stale conference pin reservations.", released);
+        }
+    }
+
+    private record ReservedPin(String pin, Instant reservedAt) { }
+}
@@ -0,0 +1,31 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.dto.FreeBusyDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyRequestDTO;
+
+public interface FreeBusyService
+{
+
+    /**
+     * Returns the merged busy intervals of the requested participants, computed from their normal meetings.
+     */
+    FreeBusyDTO getFreeBusy(FreeBusyRequestDTO request);
+
+}
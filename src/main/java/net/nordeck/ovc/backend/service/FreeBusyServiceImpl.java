@@ -0,0 +1,110 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.dto.FreeBusyDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyRequestDTO;
+import net.nordeck.ovc.backend.repository.BusyInterval;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+
+@Service
+public class FreeBusyServiceImpl implements FreeBusyService
+{
+
+    private final MeetingRepository meetingRepository;
+
+    @Value("${free-busy.max-emails:100}")
+    protected int maxEmails = 100;
+
+    @Value("${free-busy.max-days:62}")
+    protected int maxDays = 62;
+
+    public FreeBusyServiceImpl(@Autowired MeetingRepository meetingRepository)
+    {
+        this.meetingRepository = meetingRepository;
+    }
+
+    @Override
+    @PreAuthorize("@permissionControlService.isUserAuthenticated()")
+    @Transactional(readOnly = true)
+    public FreeBusyDTO getFreeBusy(FreeBusyRequestDTO request)
+    {
+        ZonedDateTime start = request.getStartTime();
+        ZonedDateTime end = request.getEndTime();
+        if (start == null || end == null || !start.isBefore(end) || start.plusDays(maxDays).isBefore(end))
+        {
+            throw new InvalidRequestException(String.format(Constants.ERR_FREE_BUSY_RANGE, maxDays));
+        }
+
+        // requested spelling by upper case email, the key the query matches and orders by
+        Map<String, String> emails = new LinkedHashMap<>();
+        if (request.getEmails() != null)
+        {
+            request.getEmails().stream().filter(Objects::nonNull).forEach(e -> emails.putIfAbsent(e.toUpperCase(Locale.ROOT), e));
+        }
+        if (emails.isEmpty() || emails.size() > maxEmails)
+        {
+            throw new InvalidRequestException(String.format(Constants.ERR_FREE_BUSY_EMAILS, maxEmails));
+        }
+
+        Map<String, List<long[]>> busy = new LinkedHashMap<>();
+        emails.values().forEach(email -> busy.put(email, new ArrayList<>()));
+        long rangeStart = start.toEpochSecond();
+        long rangeEnd = end.toEpochSecond();
+
+        // sweep over the intervals, sorted by email and start: extend the last interval while they overlap
+        List<long[]> intervals = null;
+        long[] last = null;
+        String lastEmail = null;
+        for (BusyInterval interval : meetingRepository.findBusyIntervals(emails.keySet(), start, end))
+        {
+            if (!interval.getEmail().equals(lastEmail))
+            {
+                lastEmail = interval.getEmail();
+                intervals = busy.get(emails.get(lastEmail));
+                last = null;
+            }
+            if (intervals == null)
+            {
+                // upper case of the database differs from the one of Java, not for plain email addresses
+                continue;
+            }
+            long intervalStart = Math.max(interval.getStartTime().toEpochSecond(), rangeStart);
+            long intervalEnd = Math.min(interval.getEndTime().toEpochSecond(), rangeEnd);
+            if (last != null && intervalStart <= last[1])
+            {
+                last[1] = Math.max(last[1], intervalEnd);
+            }
+            else
+            {
+                last = new long[]{intervalStart, intervalEnd};
+                intervals.add(last);
+            }
+        }
+        return new FreeBusyDTO(start, end, busy);
+    }
+}
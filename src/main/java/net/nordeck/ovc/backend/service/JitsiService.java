@@ -16,8 +16,11 @@ package net.nordeck.ovc.backend.service;
  * limitations under the License.
  */
 
+import net.nordeck.ovc.backend.dto.JitsiLinkDTO;
+import net.nordeck.ovc.backend.dto.JitsiLinkUserDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface JitsiService {
@@ -26,4 +29,6 @@ public interface JitsiService {
 
     String generateLink(UUID meetingId, String password, String userEmail, String displayName, String timeZone);
 
+    List<JitsiLinkDTO> generateLinks(UUID meetingId, String password, List<JitsiLinkUserDTO> users, String timeZone);
+
 }
@@ -22,11 +22,14 @@ import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.persistence.EntityNotFoundException;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import net.nordeck.ovc.backend.Constants;
 import net.nordeck.ovc.backend.dto.DTOUtils;
+import net.nordeck.ovc.backend.dto.JitsiLinkDTO;
+import net.nordeck.ovc.backend.dto.JitsiLinkUserDTO;
 import net.nordeck.ovc.backend.dto.MeetingDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 import net.nordeck.ovc.backend.dto.MeetingType;
@@ -39,12 +42,15 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriUtils;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.time.ZoneId;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
 
 import static net.nordeck.ovc.backend.Constants.APP_ISSUER;
+import static net.nordeck.ovc.backend.Constants.ERR_JITSI_LINKS_SIZE;
 import static net.nordeck.ovc.backend.Constants.ERR_WRONG_MEETING_PASSWORD;
 
 @Service
@@ -76,39 +82,108 @@ public class JitsiServiceImpl implements JitsiService
     @Value("${jitsi.domain}")
     private String domain = "https://jitsi.nordeck.net";
 
+    @Value("${jitsi.links.max-size:500}")
+    private int linksMaxSize = 500;
+
     @Autowired
     private MeetingRepository meetingRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TimeZoneService timeZoneService;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile SecretKey signingKey;
+
+    public void setSecret(String secret)
+    {
+        this.secret = secret;
+        this.signingKey = null;
+    }
+
     @Override
     public String generateToken(MeetingParticipantDTO participant, String userEmail,
                                 String displayName, UUID meetingId, String timeZone)
     {
+        timeZoneService.resolve(timeZone);
         MeetingDTO meeting = findMeeting(meetingId);
-        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
-        String signingKey = Base64.getEncoder().encodeToString(secretBytes);
-        Date issuedAt = new Date();
-        Date notBefore = null;
-        Date expirationAt;
+        boolean lobbyEnabled = false;
+        if (participant != null)
+        {
+            lobbyEnabled = meetingId.equals(participant.getMeetingId())
+                    ? meeting.isLobbyEnabled()
+                    : findMeeting(participant.getMeetingId()).isLobbyEnabled();
+        }
+        return buildToken(meeting, participant, lobbyEnabled, userEmail, displayName);
+    }
 
-        if (MeetingType.NORMAL.equals(meeting.getType()))
+    @Override
+    public String generateLink(UUID meetingId, String password, String userEmail, String displayName, String timeZone)
+    {
+        timeZoneService.resolve(timeZone);
+        MeetingDTO meeting = findMeetingWithPassword(meetingId, password);
+        MeetingParticipantDTO participant = findParticipant(meeting, userEmail);
+        return buildLink(meeting, participant, userEmail, displayName, getRoomName(meeting));
+    }
+
+    @Override
+    public List<JitsiLinkDTO> generateLinks(UUID meetingId, String password,
+                                            List<JitsiLinkUserDTO> users, String timeZone)
+    {
+        if (users == null || users.isEmpty() || users.size() > linksMaxSize)
         {
-            ZonedDateTime startTime = meeting.getStartTime().minusMinutes(notBeforeInMinutes);
-            ZonedDateTime endTime = meeting.getEndTime().plusMinutes(expirationInMinutes);
-            notBefore = Date.from(startTime.toInstant());
-            expirationAt = Date.from(endTime.toInstant());
+            throw new InvalidRequestException(String.format(ERR_JITSI_LINKS_SIZE, linksMaxSize));
+        }
+        timeZoneService.resolve(timeZone);
+        MeetingDTO meeting = findMeetingWithPassword(meetingId, password);
+        Map<String, MeetingParticipantDTO> participants = new HashMap<>();
+        for (MeetingParticipantDTO p : meeting.getParticipants())
+        {
+            participants.putIfAbsent(p.getEmail().toLowerCase(), p);
+        }
+        String roomName = getRoomName(meeting);
 
-            if (!StringUtils.isEmpty(timeZone))
-            {
-                notBefore = Date.from(startTime.withZoneSameInstant(ZoneId.of(timeZone)).toInstant());
-                expirationAt = Date.from(endTime.withZoneSameInstant(ZoneId.of(timeZone)).toInstant());
-            }
+        List<JitsiLinkDTO> links = new ArrayList<>(users.size());
+        for (JitsiLinkUserDTO user : users)
+        {
+            MeetingParticipantDTO participant = user.getEmail() == null
+                    ? null : participants.get(user.getEmail().toLowerCase());
+            String link = buildLink(meeting, participant, user.getEmail(), user.getUserDisplayName(), roomName);
+            links.add(new JitsiLinkDTO(user.getEmail(), link));
+        }
+        return links;
+    }
+
+    private String buildLink(MeetingDTO meeting, MeetingParticipantDTO participant, String userEmail,
+                             String displayName, String roomName)
+    {
+        String token = buildToken(meeting, participant, meeting.isLobbyEnabled(), userEmail, displayName);
+        return domain + "/" + meeting.getId() + "?jwt=" + token + "#" + CONFIG_SUBJECT + "=" + roomName;
+    }
+
+    /**
+     * Signs the token of one user for an already loaded meeting, so callers creating several tokens of the same
+     * meeting do not query it again per user. The validity window is an instant range, so the client's time zone
+     * does not change it and the claims are computed as epoch seconds.
+     */
+    private String buildToken(MeetingDTO meeting, MeetingParticipantDTO participant, boolean lobbyEnabled,
+                              String userEmail, String displayName)
+    {
+        long issuedAt = Instant.now().getEpochSecond();
+        long notBefore = 0;
+        long expirationAt;
+
+        if (MeetingType.NORMAL.equals(meeting.getType()))
+        {
+            notBefore = meeting.getStartTime().toEpochSecond() - notBeforeInMinutes * 60L;
+            expirationAt = meeting.getEndTime().toEpochSecond() + expirationInMinutes * 60L;
         }
         else
         {
-            expirationAt = Date.from(ZonedDateTime.now().plusDays(1).toInstant());
+            expirationAt = ZonedDateTime.now().plusDays(1).toEpochSecond();
         }
 
         CustomClaim customClaim = new CustomClaim();
@@ -126,8 +201,7 @@ public class JitsiServiceImpl implements JitsiService
 
         if (participant != null)
         {
-            MeetingDTO meetingDTO = findMeeting(participant.getMeetingId());
-            context.room.lobby = meetingDTO.isLobbyEnabled();
+            context.room.lobby = lobbyEnabled;
 
             switch (participant.getRole())
             {
@@ -153,13 +227,13 @@ public class JitsiServiceImpl implements JitsiService
                 .claim("aud", APP_ISSUER)
                 .claim("iss", APP_ISSUER)
                 .claim("sub", "*")
-                .claim("room", meetingId)
+                .claim("room", meeting.getId())
                 .claims(contextData)
-                .issuedAt(issuedAt)
+                .claim("iat", issuedAt)
                 .setHeaderParam("typ", Header.JWT_TYPE)
                 .setHeaderParam("alg", TOKEN_ALGORITHM)
-                .expiration(expirationAt)
-                .signWith(SignatureAlgorithm.HS256, signingKey);
+                .claim("exp", expirationAt)
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256);
 
         if (MeetingType.NORMAL.equals(meeting.getType()))
         {
@@ -168,30 +242,28 @@ public class JitsiServiceImpl implements JitsiService
         return jwtBuilder.compact();
     }
 
-    @Override
-    public String generateLink(UUID meetingId, String password, String userEmail, String displayName, String timeZone)
+    /**
+     * The HMAC key is derived from the secret once instead of encoding and decoding it for every token.
+     */
+    private SecretKey getSigningKey()
     {
-        String link = domain + "/" + meetingId;
-        MeetingDTO meeting = findMeeting(meetingId);
-
-        if (!meeting.getPassword().equals(password))
+        SecretKey key = signingKey;
+        if (key == null)
         {
-            throw new AccessDeniedException(ERR_WRONG_MEETING_PASSWORD);
+            key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            signingKey = key;
         }
+        return key;
+    }
 
-        MeetingParticipantDTO participant = findParticipant(meeting, userEmail);
-        String token;
-        if (participant != null)
-        {
-            token = generateToken(participant, userEmail, displayName, meetingId, timeZone);
-        }
-        else
+    private MeetingDTO findMeetingWithPassword(UUID meetingId, String password)
+    {
+        MeetingDTO meeting = findMeeting(meetingId);
+        if (!meeting.getPassword().equals(password))
         {
-            token = generateToken(null, userEmail, displayName, meetingId, timeZone);
+            throw new AccessDeniedException(ERR_WRONG_MEETING_PASSWORD);
         }
-
-        link += "?jwt=" + token + "#" + CONFIG_SUBJECT + "=" + getRoomName(meeting);
-        return link;
+        return meeting;
     }
 
     private String getRoomName(MeetingDTO meeting)
@@ -219,10 +291,12 @@ public class JitsiServiceImpl implements JitsiService
 
     protected MeetingDTO findMeeting(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+        MeetingEntity meeting = meetingRepository.findWithParticipantsById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId))
         );
-        return DTOUtils.buildFromEntity(meeting);
+        // the excluded dates of a series are not needed for tokens and links, so the children are not loaded
+        List<MeetingParticipantDTO> participants = MeetingParticipantDTO.buildFromEntity(meeting.getParticipants());
+        return DTOUtils.buildFromSummary(meeting, participants, null);
     }
 
     @Getter
@@ -0,0 +1,55 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Sharded execution of jobs across all backend nodes. The id space of a job is split into a fixed number of ranges
+ * (shards). Every node leases free shards one after the other and works them off, until all shards of the job have
+ * been completed in the current run. Leases are renewed by a heartbeat while a node works on a shard, the shard of
+ * a dead node is taken over by another node once the lease expired.
+ */
+public interface JobShardService
+{
+
+    /**
+     * Job parameters holding the id range of the shard a job execution works on.
+     */
+    String SHARD_FROM = "shardFrom";
+
+    String SHARD_TO = "shardTo";
+
+    boolean isEnabled();
+
+    /**
+     * Works off the shards of the job, calling the consumer with the id range of each shard leased by this node.
+     * Returns when all shards of the job are completed, or when the shards leased by other nodes were neither
+     * completed nor released within the maximum wait. Returns the number of shards worked off by this node.
+     */
+    int runShards(String jobName, Consumer<IdRange> work);
+
+    /**
+     * Inclusive range of ids, ordered as the database orders UUIDs (unsigned, most significant bits first).
+     */
+    record IdRange(UUID from, UUID to)
+    {
+    }
+
+}
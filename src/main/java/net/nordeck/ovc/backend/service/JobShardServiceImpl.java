@@ -0,0 +1,259 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Service
+public class JobShardServiceImpl implements JobShardService
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobShardServiceImpl.class);
+
+    // a shard is pending in the current run while it was not completed since the start of the run
+    private static final String PENDING = "(completed_at IS NULL OR completed_at < ?)";
+
+    private static final String FREE = "(owner IS NULL OR expires_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nodeId;
+
+    private ScheduledExecutorService heartbeat;
+
+    @Value("${jobs.sharding.enabled:false}")
+    protected boolean enabled;
+
+    @Value("${jobs.sharding.shards:16}")
+    protected int shards = 16;
+
+    @Value("${jobs.sharding.lease-in-seconds:60}")
+    protected int leaseInSeconds = 60;
+
+    @Value("${jobs.sharding.heartbeat-interval-in-millis:15000}")
+    protected long heartbeatIntervalInMillis = 15000;
+
+    @Value("${jobs.sharding.poll-interval-in-millis:5000}")
+    protected long pollIntervalInMillis = 5000;
+
+    @Value("${jobs.sharding.max-wait-in-seconds:120}")
+    protected int maxWaitInSeconds = 120;
+
+    public JobShardServiceImpl(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * The heartbeat runs on its own thread, the scheduler thread is busy with the job while a shard is worked off.
+     */
+    @PostConstruct
+    public void start()
+    {
+        if (enabled)
+        {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "job-shard-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            heartbeat.scheduleWithFixedDelay(this::renewLeases, heartbeatIntervalInMillis, heartbeatIntervalInMillis,
+                                             TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        if (heartbeat != null)
+        {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public int runShards(String jobName, Consumer<IdRange> work)
+    {
+        createShards(jobName);
+        // the nodes start a run at slightly different times, shards completed shortly before belong to this run
+        OffsetDateTime runStart = now().minusSeconds(leaseInSeconds);
+        int worked = 0;
+        long waitingSince = 0;
+        while (true)
+        {
+            Integer shard = claim(jobName, runStart);
+            if (shard != null)
+            {
+                try
+                {
+                    work.accept(range(shard, shards));
+                }
+                catch (RuntimeException ex)
+                {
+                    release(jobName, shard);
+                    throw ex;
+                }
+                complete(jobName, shard);
+                worked++;
+                waitingSince = 0;
+            }
+            else if (countPending(jobName, runStart) == 0)
+            {
+                return worked;
+            }
+            else
+            {
+                // the remaining shards are leased by other nodes, wait until they are completed or their lease
+                // expired; the wait is bounded, a shard still leased afterwards is left for the next run
+                if (waitingSince == 0)
+                {
+                    waitingSince = System.nanoTime();
+                }
+                else if (System.nanoTime() - waitingSince >= TimeUnit.SECONDS.toNanos(maxWaitInSeconds))
+                {
+                    return worked;
+                }
+                try
+                {
+                    Thread.sleep(pollIntervalInMillis);
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                    return worked;
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the id space into equal ranges by the most significant bits of the ids.
+     */
+    static IdRange range(int shard, int shards)
+    {
+        long step = Long.divideUnsigned(-1L, shards);
+        UUID from = new UUID(step * shard, 0L);
+        UUID to = shard == shards - 1 ? new UUID(-1L, -1L) : new UUID(step * (shard + 1) - 1, -1L);
+        return new IdRange(from, to);
+    }
+
+    protected void renewLeases()
+    {
+        try
+        {
+            jdbcTemplate.update("UPDATE job_shard_lease SET expires_at = ? WHERE owner = ?",
+                                now().plusSeconds(leaseInSeconds), nodeId);
+        }
+        catch (Exception ex)
+        {
+            LOGGER.warn("Could not renew the job shard leases. Cause: {}", ex.getMessage());
+        }
+    }
+
+    private void createShards(String jobName)
+    {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM job_shard_lease WHERE job_name = ? AND shard < ?", Integer.class, jobName,
+                shards);
+        if (existing != null && existing < shards)
+        {
+            List<Object[]> rows = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++)
+            {
+                rows.add(new Object[]{jobName, shard});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO job_shard_lease (job_name, shard) VALUES (?, ?) ON CONFLICT DO NOTHING", rows);
+        }
+    }
+
+    private Integer claim(String jobName, OffsetDateTime runStart)
+    {
+        OffsetDateTime now = now();
+        List<Integer> candidates = jdbcTemplate.queryForList(
+                "SELECT shard FROM job_shard_lease WHERE job_name = ? AND shard < ? AND " + PENDING + " AND " + FREE,
+                Integer.class, jobName, shards, runStart, now);
+        // nodes starting at the same time do not compete for the same shards
+        Collections.shuffle(candidates);
+        for (Integer shard : candidates)
+        {
+            int updated = jdbcTemplate.update(
+                    "UPDATE job_shard_lease SET owner = ?, expires_at = ? WHERE job_name = ? AND shard = ? AND " +
+                    PENDING + " AND " + FREE,
+                    nodeId, now.plusSeconds(leaseInSeconds), jobName, shard, runStart, now);
+            if (updated == 1)
+            {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private void complete(String jobName, int shard)
+    {
+        jdbcTemplate.update("UPDATE job_shard_lease SET owner = NULL, expires_at = NULL, completed_at = ? " +
+                            "WHERE job_name = ? AND shard = ? AND owner = ?", now(), jobName, shard, nodeId);
+    }
+
+    private void release(String jobName, int shard)
+    {
+        jdbcTemplate.update("UPDATE job_shard_lease SET owner = NULL, expires_at = NULL " +
+                            "WHERE job_name = ? AND shard = ? AND owner = ?", jobName, shard, nodeId);
+    }
+
+    private int countPending(String jobName, OffsetDateTime runStart)
+    {
+        Integer pending = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM job_shard_lease WHERE job_name = ? AND shard < ? AND " + PENDING,
+                Integer.class, jobName, shards, runStart);
+        return pending == null ? 0 : pending;
+    }
+
+    /**
+     * The database time, the clocks of the nodes may differ.
+     */
+    private OffsetDateTime now()
+    {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", OffsetDateTime.class);
+    }
+}
@@ -0,0 +1,48 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import net.nordeck.ovc.backend.dto.JitsiEventDTO;
+import net.nordeck.ovc.backend.dto.MeetingOccupancyDTO;
+
+import java.util.UUID;
+
+public interface MeetingActivityService
+{
+
+    /**
+     * Records a room event sent by Jitsi. The occupancy changes, the start and last visit of the meeting are
+     * buffered and written by {@link #flush()}.
+     */
+    void handleEvent(String secret, JitsiEventDTO event);
+
+    /**
+     * Records a visit of the meeting at the current time, written by {@link #flush()}.
+     */
+    void recordVisit(UUID meetingId);
+
+    /**
+     * The participants in the room of the meeting, summed over the counts written by all nodes of the cluster.
+     */
+    MeetingOccupancyDTO getOccupancy(UUID meetingId);
+
+    /**
+     * Writes the buffered occupancy changes, start and last visit dates in batched updates.
+     */
+    void flush();
+
+}
@@ -0,0 +1,294 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import jakarta.annotation.PreDestroy;
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.dto.JitsiEventDTO;
+import net.nordeck.ovc.backend.dto.MeetingOccupancyDTO;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces the room events of Jitsi and the visits of the join pages in memory, so that joins and leaves do not
+ * write to the database.
+ * <p>
+ * Only the latest visit and the first start per meeting are kept and written every
+ * <code>flush-interval-in-millis</code> and on shutdown. The visits are written with one
+ * <code>UPDATE ... FROM (VALUES ...)</code> per <code>flush-batch-size</code> meetings.
+ * <p>
+ * The events of a room can reach any node of the cluster. Every node sums up the joins and leaves it received and
+ * adds them to its own row per meeting in <code>meeting_occupancy</code> on flush, the occupancy of a meeting is the
+ * sum over the rows of all nodes. A destroyed room clears the rows of all nodes.
+ */
+@Service
+public class MeetingActivityServiceImpl implements MeetingActivityService
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeetingActivityServiceImpl.class);
+
+    protected static final String SQL_UPDATE_LAST_VISITS =
+            "UPDATE meeting SET last_visit_date = v.ts FROM (VALUES %s) AS v(id, ts) WHERE meeting.id = v.id AND " +
+            "(meeting.last_visit_date IS NULL OR meeting.last_visit_date < v.ts)";
+
+    // typed, as Postgres cannot infer the types of the parameters in a VALUES list
+    private static final String SQL_VISIT_ROW = "(CAST(? AS UUID), CAST(? AS TIMESTAMP WITH TIME ZONE))";
+
+    protected static final String SQL_UPDATE_STARTED_AT =
+            "UPDATE meeting SET started_at = ? WHERE id = ? AND started_at IS NULL";
+
+    // one statement per batch, a failing batch is retried as a whole without counting the changes twice
+    protected static final String SQL_MERGE_OCCUPANCY =
+            "MERGE INTO meeting_occupancy o USING (SELECT v.meeting_id, v.delta " +
+            "FROM (VALUES %s) AS v(meeting_id, delta) JOIN meeting m ON m.id = v.meeting_id) AS d " +
+            "ON o.node_id = ? AND o.meeting_id = d.meeting_id " +
+            "WHEN MATCHED THEN UPDATE SET participants = o.participants + d.delta " +
+            "WHEN NOT MATCHED THEN INSERT (node_id, meeting_id, participants) VALUES (?, d.meeting_id, d.delta)";
+
+    private static final String SQL_OCCUPANCY_ROW = "(CAST(? AS UUID), CAST(? AS INTEGER))";
+
+    protected static final String SQL_SELECT_OCCUPANCY =
+            "SELECT COALESCE(SUM(participants), 0) FROM meeting_occupancy WHERE meeting_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nodeId;
+
+    private final Map<UUID, Instant> pendingVisits = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Instant> pendingStarts = new ConcurrentHashMap<>();
+
+    // joins minus leaves received by this node since the last flush
+    private final Map<UUID, Integer> pendingOccupancy = new ConcurrentHashMap<>();
+
+    private final Set<UUID> pendingDestroyed = ConcurrentHashMap.newKeySet();
+
+    @Value("${jitsi.events.secret:}")
+    protected String secret = "";
+
+    @Value("${jitsi.events.flush-batch-size:1000}")
+    protected int flushBatchSize = 1000;
+
+    public MeetingActivityServiceImpl(@Autowired JdbcTemplate jdbcTemplate)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    @Override
+    public void handleEvent(String secret, JitsiEventDTO event)
+    {
+        if (StringUtils.isEmpty(this.secret) || secret == null ||
+                !MessageDigest.isEqual(this.secret.getBytes(StandardCharsets.UTF_8),
+                                       secret.getBytes(StandardCharsets.UTF_8)))
+        {
+            throw new AccessDeniedException(Constants.ERR_INVALID_EVENT_SECRET);
+        }
+        UUID meetingId = parseRoom(event);
+        if (meetingId == null)
+        {
+            return;
+        }
+        Instant now = Instant.now();
+        switch (event.getEventName())
+        {
+            case ROOM_CREATED -> pendingStarts.putIfAbsent(meetingId, now);
+            case PARTICIPANT_JOINED -> pendingOccupancy.merge(meetingId, 1, Integer::sum);
+            case PARTICIPANT_LEFT -> pendingOccupancy.merge(meetingId, -1, Integer::sum);
+            case ROOM_DESTROYED -> {
+                pendingOccupancy.remove(meetingId);
+                pendingDestroyed.add(meetingId);
+            }
+        }
+        mergeVisit(meetingId, now);
+    }
+
+    @Override
+    public void recordVisit(UUID meetingId)
+    {
+        mergeVisit(meetingId, Instant.now());
+    }
+
+    @Override
+    @PreAuthorize("@permissionControlService.canReadMeeting(#meetingId)")
+    public MeetingOccupancyDTO getOccupancy(UUID meetingId)
+    {
+        // the changes of this node not flushed yet count as well
+        Integer flushed = pendingDestroyed.contains(meetingId)
+                ? Integer.valueOf(0)
+                : jdbcTemplate.queryForObject(SQL_SELECT_OCCUPANCY, Integer.class, meetingId);
+        int participants = (flushed == null ? 0 : flushed) + pendingOccupancy.getOrDefault(meetingId, 0);
+        // a leave reaching the database before its join
+        return new MeetingOccupancyDTO(meetingId, Math.max(participants, 0));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${jitsi.events.flush-interval-in-millis:5000}")
+    public void flush()
+    {
+        flushOccupancy();
+        Map<UUID, Instant> starts = drain(pendingStarts);
+        Map<UUID, Instant> visits = drain(pendingVisits);
+        try
+        {
+            if (!starts.isEmpty())
+            {
+                List<Object[]> args = new ArrayList<>(starts.size());
+                starts.forEach((id, at) -> args.add(new Object[] { Timestamp.from(at), id }));
+                jdbcTemplate.batchUpdate(SQL_UPDATE_STARTED_AT, args);
+            }
+            List<Map.Entry<UUID, Instant>> entries = new ArrayList<>(visits.entrySet());
+            for (int i = 0; i < entries.size(); i += flushBatchSize)
+            {
+                updateLastVisits(entries.subList(i, Math.min(i + flushBatchSize, entries.size())));
+            }
+        }
+        catch (Exception ex)
+        {
+            // kept for the next flush, newer events of the same meetings win
+            starts.forEach(pendingStarts::putIfAbsent);
+            visits.forEach(this::mergeVisit);
+            LOGGER.warn("Could not write the activity of {} meetings, retrying with the next flush. Cause: {}",
+                        visits.size() + starts.size(), ex.getMessage());
+        }
+    }
+
+    private void flushOccupancy()
+    {
+        List<UUID> destroyed = new ArrayList<>();
+        for (UUID id : pendingDestroyed)
+        {
+            if (pendingDestroyed.remove(id))
+            {
+                destroyed.add(id);
+            }
+        }
+        List<Map.Entry<UUID, Integer>> changes = new ArrayList<>(drain(pendingOccupancy).entrySet());
+        changes.removeIf(change -> change.getValue() == 0);
+        int written = 0;
+        try
+        {
+            if (!destroyed.isEmpty())
+            {
+                jdbcTemplate.batchUpdate("DELETE FROM meeting_occupancy WHERE meeting_id = ?",
+                                         destroyed.stream().map(id -> new Object[] { id }).toList());
+            }
+            destroyed.clear();
+            while (written < changes.size())
+            {
+                int end = Math.min(written + flushBatchSize, changes.size());
+                mergeOccupancy(changes.subList(written, end));
+                written = end;
+            }
+            jdbcTemplate.update("DELETE FROM meeting_occupancy WHERE node_id = ? AND participants = 0", nodeId);
+        }
+        catch (Exception ex)
+        {
+            // kept for the next flush, the batches written are not counted again
+            pendingDestroyed.addAll(destroyed);
+            changes.subList(written, changes.size())
+                    .forEach(change -> pendingOccupancy.merge(change.getKey(), change.getValue(), Integer::sum));
+            LOGGER.warn("Could not write the occupancy of {} meetings, retrying with the next flush. Cause: {}",
+                        destroyed.size() + changes.size() - written, ex.getMessage());
+        }
+    }
+
+    protected int mergeOccupancy(List<Map.Entry<UUID, Integer>> changes)
+    {
+        String rows = String.join(", ", Collections.nCopies(changes.size(), SQL_OCCUPANCY_ROW));
+        Object[] args = new Object[changes.size() * 2 + 2];
+        for (int i = 0; i < changes.size(); i++)
+        {
+            args[2 * i] = changes.get(i).getKey();
+            args[2 * i + 1] = changes.get(i).getValue();
+        }
+        args[args.length - 2] = nodeId;
+        args[args.length - 1] = nodeId;
+        return jdbcTemplate.update(String.format(SQL_MERGE_OCCUPANCY, rows), args);
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        flush();
+    }
+
+    protected int updateLastVisits(List<Map.Entry<UUID, Instant>> visits)
+    {
+        String rows = String.join(", ", Collections.nCopies(visits.size(), SQL_VISIT_ROW));
+        Object[] args = new Object[visits.size() * 2];
+        for (int i = 0; i < visits.size(); i++)
+        {
+            args[2 * i] = visits.get(i).getKey();
+            args[2 * i + 1] = Timestamp.from(visits.get(i).getValue());
+        }
+        return jdbcTemplate.update(String.format(SQL_UPDATE_LAST_VISITS, rows), args);
+    }
+
+    private void mergeVisit(UUID meetingId, Instant at)
+    {
+        pendingVisits.merge(meetingId, at, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    private static <T> Map<UUID, T> drain(Map<UUID, T> pending)
+    {
+        Map<UUID, T> drained = new HashMap<>();
+        for (UUID id : pending.keySet())
+        {
+            T value = pending.remove(id);
+            if (value != null)
+            {
+                drained.put(id, value);
+            }
+        }
+        return drained;
+    }
+
+    private static UUID parseRoom(JitsiEventDTO event)
+    {
+        if (event.getEventName() == null || event.isBreakout() || StringUtils.isBlank(event.getRoomName()))
+        {
+            return null;
+        }
+        try
+        {
+            return UUID.fromString(event.getRoomName());
+        }
+        catch (IllegalArgumentException e)
+        {
+            // rooms not created by this backend
+            return null;
+        }
+    }
+
+}
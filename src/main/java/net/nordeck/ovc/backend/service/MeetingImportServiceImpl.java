@@ -0,0 +1,66 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.nordeck.ovc.backend.jobs.MeetingImportJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class MeetingImportServiceImpl implements MeetingImportService
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeetingImportServiceImpl.class);
+
+    private final MeetingImportJob meetingImportJob;
+
+    public MeetingImportServiceImpl(@Autowired MeetingImportJob meetingImportJob)
+    {
+        this.meetingImportJob = meetingImportJob;
+    }
+
+    @Override
+    @PreAuthorize("@permissionControlService.canCreateRecords()")
+    public void importMeetings(InputStream input, OutputStream results) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(results, StandardCharsets.UTF_8));
+        try
+        {
+            BatchStatus status = meetingImportJob.execute(reader, writer);
+            if (status != BatchStatus.COMPLETED)
+            {
+                // the results written so far are committed, the caller sees where the import stopped
+                LOGGER.warn("Meeting import ended with status {}.", status);
+            }
+        }
+        catch (JobExecutionException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+        writer.flush();
+    }
+}
@@ -18,6 +18,7 @@ package net.nordeck.ovc.backend.service;
 
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantRequestDTO;
+import net.nordeck.ovc.backend.dto.MeetingParticipantRoleRequestDTO;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,4 +33,23 @@ public interface MeetingParticipantService {
 
     void delete(UUID mId, UUID pId);
 
+    /**
+     * Adds the participants in one transaction. Emails which are already participants of the meeting (or repeated in
+     * the request) are skipped, so the call can be repeated safely.
+     *
+     * @return the created participants
+     */
+    List<MeetingParticipantDTO> createAll(UUID meetingId, List<MeetingParticipantRequestDTO> dtos);
+
+    /**
+     * Changes the roles of the participants in one transaction, fails when one of them is not a participant of the
+     * meeting.
+     */
+    List<MeetingParticipantDTO> updateRoles(UUID meetingId, List<MeetingParticipantRoleRequestDTO> dtos);
+
+    /**
+     * Removes the participants in one transaction, fails when one of them is not a participant of the meeting.
+     */
+    void deleteAll(UUID meetingId, List<UUID> participantIds);
+
 }
@@ -18,22 +18,24 @@ package net.nordeck.ovc.backend.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.dto.DTOUtils;
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantRequestDTO;
+import net.nordeck.ovc.backend.dto.MeetingParticipantRoleRequestDTO;
+import net.nordeck.ovc.backend.dto.Role;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.ZonedDateTime;
+import java.util.*;
 
 import static net.nordeck.ovc.backend.Constants.NO_MEETING_FOUND_FOR_ID;
 
@@ -49,6 +51,9 @@ public class MeetingParticipantServiceImpl implements MeetingParticipantService
 
     protected NotificationService notificationService;
 
+    @Value("${participants.bulk.max-size:500}")
+    protected int bulkMaxSize = 500;
+
     public MeetingParticipantServiceImpl(
             @Autowired MeetingParticipantRepository participantRepository,
             @Autowired MeetingRepository meetingRepository,
@@ -60,6 +65,7 @@ public class MeetingParticipantServiceImpl implements MeetingParticipantService
     }
 
     @Override
+    @Transactional(readOnly = true)
     @PreAuthorize("@permissionControlService.canReadMeeting(#meetingId)")
     public List<MeetingParticipantDTO> findByMeetingId(UUID meetingId)
     {
@@ -75,6 +81,7 @@ public class MeetingParticipantServiceImpl implements MeetingParticipantService
 
 
     @Override
+    @Transactional
     @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
     public MeetingParticipantDTO create(UUID meetingId, MeetingParticipantRequestDTO dto)
     {
@@ -82,35 +89,44 @@ public class MeetingParticipantServiceImpl implements MeetingParticipantService
                 () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId))
         );
 
-        Optional<MeetingParticipantEntity> result = meeting.getParticipants()
-                .stream()
-                .filter(p -> p.getEmail().equalsIgnoreCase(dto.getEmail()))
-                .findFirst();
-        if (result.isPresent())
-        {
-            throw new RuntimeException(String.format(Constants.ERR_PARTICIPANT_DUPLICATE, dto.getEmail()));
-        }
-
+        ZonedDateTime now = ZonedDateTime.now();
         MeetingParticipantEntity entity = new MeetingParticipantEntity();
+        entity.setId(UUID.randomUUID());
         entity.setEmail(dto.getEmail());
         entity.setRole(dto.getRole().getValue());
         entity.setMeetingId(meetingId);
+        entity.setCreatedAt(now);
+        entity.setUpdatedAt(now);
 
-        MeetingParticipantEntity saved = participantRepository.save(entity);
+        // the duplicate check is left to the unique index, no need to load the participants
+        int inserted = participantRepository.insertIfAbsent(entity.getId(), meetingId, null, entity.getRole(),
+                                                            entity.getEmail(), now);
+        if (inserted == 0)
+        {
+            throw new RuntimeException(String.format(Constants.ERR_PARTICIPANT_DUPLICATE, dto.getEmail()));
+        }
         if (meeting.isStaticRoom())
         {
-            notificationService.createParticipantAddedNotifications(meeting, List.of(entity));
+            notificationService.enqueueParticipantAddedNotifications(meeting, List.of(entity), false);
         }
-        return MeetingParticipantDTO.buildFromEntity(saved);
+        return MeetingParticipantDTO.buildFromEntity(entity);
     }
 
 
     @Override
+    @Transactional
     @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
     public MeetingParticipantDTO update(UUID meetingId, UUID participantId, MeetingParticipantRequestDTO dto)
     {
         MeetingParticipantEntity mpEntity = participantRepository.findById(participantId)
                 .orElseThrow(EntityNotFoundException::new);
+        boolean duplicate = participantRepository.findAllByMeetingIdInAndEmail(List.of(meetingId), dto.getEmail())
+                .stream()
+                .anyMatch(p -> !p.getId().equals(participantId));
+        if (duplicate)
+        {
+            throw new RuntimeException(String.format(Constants.ERR_PARTICIPANT_DUPLICATE, dto.getEmail()));
+        }
         mpEntity.setRole(dto.getRole().getValue());
         mpEntity.setEmail(dto.getEmail().toLowerCase());
         mpEntity = participantRepository.save(mpEntity);
@@ -131,10 +147,132 @@ public class MeetingParticipantServiceImpl implements MeetingParticipantService
         );
         if (meeting.isStaticRoom())
         {
-            notificationService.createParticipantDeletedNotifications(meeting, List.of(participant));
+            notificationService.enqueueParticipantDeletedNotifications(meeting, List.of(participant));
         }
         meeting.getParticipants().remove(participant);
         participantRepository.deleteById(participantId);
     }
 
+
+    @Override
+    @Transactional
+    @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
+    public List<MeetingParticipantDTO> createAll(UUID meetingId, List<MeetingParticipantRequestDTO> dtos)
+    {
+        checkBulkSize(dtos);
+        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+                () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId))
+        );
+
+        Map<String, MeetingParticipantRequestDTO> requested = new LinkedHashMap<>();
+        for (MeetingParticipantRequestDTO dto : dtos)
+        {
+            if (dto.getEmail() == null || dto.getEmail().isBlank() || dto.getRole() == null)
+            {
+                throw new InvalidRequestException(Constants.ERR_PARTICIPANT_INVALID);
+            }
+        }
+        for (MeetingParticipantRequestDTO dto : DTOUtils.distinctByEmail(dtos))
+        {
+            requested.put(dto.getEmail().trim().toUpperCase(), dto);
+        }
+        if (requested.isEmpty())
+        {
+            return List.of();
+        }
+
+        Set<String> existing = participantRepository.findExistingEmails(meetingId, requested.keySet());
+        List<MeetingParticipantEntity> entities = new ArrayList<>();
+        requested.forEach((email, dto) ->
+                          {
+                              if (!existing.contains(email))
+                              {
+                                  MeetingParticipantEntity entity = new MeetingParticipantEntity();
+                                  entity.setEmail(dto.getEmail().trim());
+                                  entity.setRole(dto.getRole().getValue());
+                                  entity.setMeetingId(meetingId);
+                                  entities.add(entity);
+                              }
+                          });
+
+        List<MeetingParticipantEntity> saved = participantRepository.saveAll(entities);
+        if (meeting.isStaticRoom())
+        {
+            notificationService.enqueueParticipantAddedNotifications(meeting, saved, false);
+        }
+        return MeetingParticipantDTO.buildFromEntity(saved);
+    }
+
+
+    @Override
+    @Transactional
+    @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
+    public List<MeetingParticipantDTO> updateRoles(UUID meetingId, List<MeetingParticipantRoleRequestDTO> dtos)
+    {
+        checkBulkSize(dtos);
+        Map<UUID, Role> roles = new LinkedHashMap<>();
+        for (MeetingParticipantRoleRequestDTO dto : dtos)
+        {
+            if (dto.getId() == null || dto.getRole() == null)
+            {
+                throw new InvalidRequestException(Constants.ERR_PARTICIPANT_INVALID);
+            }
+            roles.put(dto.getId(), dto.getRole());
+        }
+
+        List<MeetingParticipantEntity> participants = findParticipants(meetingId, roles.keySet());
+        participants.forEach(p -> p.setRole(roles.get(p.getId()).getValue()));
+        return MeetingParticipantDTO.buildFromEntity(participantRepository.saveAll(participants));
+    }
+
+
+    @Override
+    @Transactional
+    @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
+    public void deleteAll(UUID meetingId, List<UUID> participantIds)
+    {
+        checkBulkSize(participantIds);
+        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+                () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId))
+        );
+        List<MeetingParticipantEntity> participants = findParticipants(meetingId, new LinkedHashSet<>(participantIds));
+        if (participants.isEmpty())
+        {
+            return;
+        }
+        if (meeting.isStaticRoom())
+        {
+            notificationService.enqueueParticipantDeletedNotifications(meeting, participants);
+        }
+        participantRepository.deleteAllInBatch(participants);
+    }
+
+    private void checkBulkSize(List<?> items)
+    {
+        if (items.size() > bulkMaxSize)
+        {
+            throw new InvalidRequestException(String.format(Constants.ERR_PARTICIPANT_BULK_SIZE, bulkMaxSize));
+        }
+    }
+
+    /**
+     * Loads the participants with one query, restricted to the given meeting.
+     */
+    private List<MeetingParticipantEntity> findParticipants(UUID meetingId, Set<UUID> ids)
+    {
+        if (ids.isEmpty())
+        {
+            return List.of();
+        }
+        List<MeetingParticipantEntity> participants = participantRepository.findAllByMeetingIdAndIdIn(meetingId, ids);
+        if (participants.size() < ids.size())
+        {
+            Set<UUID> missing = new LinkedHashSet<>(ids);
+            participants.forEach(p -> missing.remove(p.getId()));
+            throw new EntityNotFoundException(
+                    String.format(Constants.ERR_NO_PARTICIPANT_FOUND_FOR_ID, missing.iterator().next()));
+        }
+        return participants;
+    }
+
 }
\ No newline at end of file
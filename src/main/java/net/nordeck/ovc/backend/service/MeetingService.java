@@ -20,6 +20,7 @@ import net.nordeck.ovc.backend.dto.*;
 import org.apache.commons.lang3.RandomStringUtils;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface MeetingService
@@ -29,6 +30,12 @@ public interface MeetingService
 
     MeetingDTO create(MeetingCreateDTO dto);
 
+    /**
+     * Creates the given meetings like {@link #create(MeetingCreateDTO)}, with batched inserts and one bulk
+     * reservation of the conference PINs. The result is in the order of the given DTOs.
+     */
+    List<MeetingDTO> createAll(List<MeetingCreateDTO> dtos);
+
     MeetingDTO update(UUID meetingId, MeetingUpdateDTO meeting);
 
     MeetingsPageDTO getMeetingsPage(String type, Integer offset, Integer pageSize, String order, ZonedDateTime startDateTime, ZonedDateTime endDateTime);
@@ -19,12 +19,14 @@ package net.nordeck.ovc.backend.service;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.SneakyThrows;
 import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.dto.*;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.entity.MeetingSummary;
+import net.nordeck.ovc.backend.repository.MeetingListItem;
 import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
-import net.nordeck.ovc.backend.repository.NotificationRepository;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,7 +38,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -61,14 +62,17 @@ public class MeetingServiceImpl implements MeetingService
     @Lazy
     protected MeetingParticipantRepository participantRepository;
 
-    @Lazy
-    protected NotificationRepository notificationRepository;
-
     @Lazy
     protected NotificationService notificationService;
 
     protected KeycloakClientService keycloakClientService;
 
+    protected MeetingBasicCache meetingBasicCache;
+
+    protected ConferencePinService conferencePinService;
+
+    protected MeetingActivityService meetingActivityService;
+
     @Value("${sip.phone.number}")
     protected String sipPhoneNumber;
 
@@ -81,15 +85,19 @@ public class MeetingServiceImpl implements MeetingService
 
     public MeetingServiceImpl(@Autowired MeetingRepository meetingRepository,
                               @Autowired MeetingParticipantRepository participantRepository,
-                              @Autowired NotificationRepository notificationRepository,
                               @Autowired NotificationService notificationService,
-                              @Autowired KeycloakClientService keycloakClientService)
+                              @Autowired KeycloakClientService keycloakClientService,
+                              @Autowired MeetingBasicCache meetingBasicCache,
+                              @Autowired ConferencePinService conferencePinService,
+                              @Autowired MeetingActivityService meetingActivityService)
     {
         this.meetingRepository = meetingRepository;
         this.participantRepository = participantRepository;
-        this.notificationRepository = notificationRepository;
         this.notificationService = notificationService;
         this.keycloakClientService = keycloakClientService;
+        this.meetingBasicCache = meetingBasicCache;
+        this.conferencePinService = conferencePinService;
+        this.meetingActivityService = meetingActivityService;
     }
 
 
@@ -101,11 +109,13 @@ public class MeetingServiceImpl implements MeetingService
         String userId = AuthenticatedUserService.getAuthenticatedUser();
         MeetingEntity entity = MeetingEntity.buildFromMeetingAbstractDTO(dto);
         entity.setOwnerId(userId);
-        entity.setConferencePin(getUniqueConferencePin());
+        entity.setConferencePin(conferencePinService.nextPin());
         entity.setPhoneNumber(sipPhoneNumber);
         entity.setSipJibriLink(sipJibriLink);
         entity.setCreatedAt(ZonedDateTime.now());
         entity.setUpdatedAt(ZonedDateTime.now());
+        // the owner of a static room is added as organizer below
+        entity.setHasOrganizer(MeetingType.STATIC.equals(dto.getType()));
         entity = meetingRepository.save(entity);
 
         // always add the owner as moderator to the participants list
@@ -134,6 +144,82 @@ public class MeetingServiceImpl implements MeetingService
         return created;
     }
 
+    @Override
+    @PreAuthorize("@permissionControlService.canCreateRecords()")
+    @Transactional
+    public List<MeetingDTO> createAll(List<MeetingCreateDTO> dtos)
+    {
+        String userId = AuthenticatedUserService.getAuthenticatedUser();
+        List<String> pins = conferencePinService.nextPins(dtos.size());
+        List<MeetingEntity> meetings = new ArrayList<>(dtos.size());
+        List<List<MeetingParticipantRequestDTO>> requested = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++)
+        {
+            MeetingCreateDTO dto = dtos.get(i);
+            MeetingEntity entity = MeetingEntity.buildFromMeetingAbstractDTO(dto);
+            entity.setOwnerId(userId);
+            entity.setConferencePin(pins.get(i));
+            entity.setPhoneNumber(sipPhoneNumber);
+            entity.setSipJibriLink(sipJibriLink);
+            entity.setCreatedAt(ZonedDateTime.now());
+            entity.setUpdatedAt(ZonedDateTime.now());
+
+            // owner added like in create(), without changing the given DTO
+            List<MeetingParticipantRequestDTO> participants =
+                    new ArrayList<>(dto.getParticipants() == null ? List.of() : dto.getParticipants());
+            participants.add(new MeetingParticipantRequestDTO(
+                    MeetingType.STATIC.equals(dto.getType()) ? ORGANIZER : MODERATOR, userId));
+            entity.setHasOrganizer(entity.isStaticRoom() &&
+                                           participants.stream().anyMatch(p -> ORGANIZER.equals(p.getRole())));
+            meetings.add(entity);
+            requested.add(participants);
+        }
+        meetings = meetingRepository.saveAll(meetings);
+
+        // the children of all series are saved at once, they get the participants of their parent
+        List<MeetingEntity> children = new ArrayList<>();
+        List<List<MeetingParticipantRequestDTO>> childRequested = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++)
+        {
+            if (isNormalMeeting(dtos.get(i)) && isRecurrentMeeting(dtos.get(i)))
+            {
+                for (MeetingEntity child : buildRecurringMeetings(meetings.get(i)))
+                {
+                    children.add(child);
+                    childRequested.add(requested.get(i));
+                }
+            }
+        }
+        children = meetingRepository.saveAll(children);
+
+        List<List<MeetingParticipantEntity>> participants = new ArrayList<>(dtos.size());
+        List<MeetingParticipantEntity> toCreate = new ArrayList<>();
+        for (int i = 0; i < meetings.size(); i++)
+        {
+            participants.add(buildParticipants(meetings.get(i), requested.get(i)));
+            toCreate.addAll(participants.get(i));
+        }
+        for (int i = 0; i < children.size(); i++)
+        {
+            toCreate.addAll(buildParticipants(children.get(i), childRequested.get(i)));
+        }
+        participantRepository.saveAll(toCreate);
+
+        List<MeetingDTO> created = new ArrayList<>(meetings.size());
+        for (int i = 0; i < meetings.size(); i++)
+        {
+            MeetingEntity meeting = meetings.get(i);
+            if (meeting.isStaticRoom())
+            {
+                notificationService.enqueueParticipantAddedNotifications(meeting, participants.get(i), false);
+            }
+            MeetingDTO dto = DTOUtils.buildFromEntity(meeting);
+            dto.setParticipants(MeetingParticipantDTO.buildFromEntity(participants.get(i)));
+            created.add(dto);
+        }
+        return created;
+    }
+
     @Override
     @PreAuthorize("@permissionControlService.canEditMeeting(#meetingId)")
     @Transactional
@@ -155,6 +241,7 @@ public class MeetingServiceImpl implements MeetingService
                 existing = updateDataAndSave(newDTO, existing);
 
                 List<MeetingEntity> childrenToDelete = meetingRepository.findAllByParentId(meetingId);
+                meetingBasicCache.evictAll(childrenToDelete);
                 meetingRepository.deleteAll(childrenToDelete);
 
                 List<MeetingEntity> children = createRecurringMeetings(existing);
@@ -194,10 +281,10 @@ public class MeetingServiceImpl implements MeetingService
             existing = updateDataAndSave(newDTO, existing);
             if (existing.isStaticRoom())
             {
-                notificationRepository.deleteAllByMeetingId(existing.getId());
-                notificationService.createParticipantAddedNotifications(existing, existing.getParticipants());
+                notificationService.enqueueParticipantAddedNotifications(existing, existing.getParticipants(), true);
             }
         }
+        meetingBasicCache.evictAll(List.of(existing));
         return DTOUtils.buildFromEntity(existing);
     }
 
@@ -209,6 +296,7 @@ public class MeetingServiceImpl implements MeetingService
         MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId)));
 
+        meetingBasicCache.evict(meeting);
         if (meeting.isSingleMeeting() || meeting.isRecurrentParent())
         {
             meetingRepository.delete(meeting);
@@ -223,6 +311,7 @@ public class MeetingServiceImpl implements MeetingService
                 MeetingEntity parent = meetingRepository.findById(meeting.getParentId()).orElseThrow(
                         () -> new EntityNotFoundException(
                                 String.format(Constants.NO_PARENT_MEETING_FOUND_FOR_ID, meeting.getParentId())));
+                meetingBasicCache.evict(parent);
                 meetingRepository.delete(parent);
             }
             else
@@ -235,32 +324,37 @@ public class MeetingServiceImpl implements MeetingService
     }
 
     @Override
+    @Transactional(readOnly = true)
     @PreAuthorize("@permissionControlService.canReadMeeting(#meetingId)")
     public MeetingDTO findById(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+        MeetingEntity meeting = meetingRepository.findWithParticipantsById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId))
         );
         return DTOUtils.buildFromEntity(meeting);
     }
 
+    // no transaction here: cache hits must not take a connection, the loader runs a single repository call
     @Override
     public MeetingBasicDTO findBasicById(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
-                () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId))
-        );
-        return DTOUtils.buildBasicDTOFromEntity(meeting);
+        return meetingBasicCache.getBasic(meetingId, () -> {
+            MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+                    () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId))
+            );
+            return DTOUtils.buildBasicDTOFromEntity(meeting);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     @PreAuthorize("@permissionControlService.userAuthenticated")
     public MeetingsPageDTO getMeetingsPage(String type, Integer offset, Integer pageSize, String order,
                                            ZonedDateTime startDateTime, ZonedDateTime endDateTime)
     {
         String userId = AuthenticatedUserService.getAuthenticatedUser();
 
-        Page<MeetingEntity> page;
+        Page<MeetingListItem> page;
 
         switch (type.toUpperCase())
         {
@@ -282,11 +376,35 @@ public class MeetingServiceImpl implements MeetingService
                 page = meetingRepository.findAllNormalMeetings(startDateTime, endDateTime, userId, pageRequest);
             }
         }
-        List<MeetingDTO> content = page.getContent().stream().map(DTOUtils::buildFromEntity).collect(Collectors.toList());
+        List<MeetingDTO> content = buildFromListItems(page.getContent());
         return new MeetingsPageDTO(page.getTotalPages(), page.getTotalElements(), page.getSize(),
                                                      page.getNumber(), content.size(), content);
     }
 
+    private List<MeetingDTO> buildFromListItems(List<MeetingListItem> items)
+    {
+        if (items.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+        Map<UUID, List<MeetingParticipantDTO>> participants = participantRepository
+                .findAllByMeetingIdIn(items.stream().map(MeetingListItem::getId).toList()).stream()
+                .map(MeetingParticipantDTO::buildFromEntity)
+                .collect(Collectors.groupingBy(MeetingParticipantDTO::getMeetingId));
+
+        List<MeetingDTO> content = new ArrayList<>(items.size());
+        for (MeetingListItem item : items)
+        {
+            // the list queries don't return series parents, so this lookup is an exception
+            List<String> excludedDates = item.isRecurrentParent()
+                    ? DTOUtils.buildExcludedDates(meetingRepository.findAllByParentId(item.getId()))
+                    : null;
+            content.add(DTOUtils.buildFromSummary(item, participants.getOrDefault(item.getId(), new ArrayList<>()),
+                                                  excludedDates));
+        }
+        return content;
+    }
+
     private PageRequest getPageRequestWithSorting(Integer offset, Integer pageSize, String sortingColumn, String order)
     {
         if ("DESC".equalsIgnoreCase(order))
@@ -301,6 +419,11 @@ public class MeetingServiceImpl implements MeetingService
 
     @Override
     public MeetingBasicDTO findNextOfSeries(UUID parentId)
+    {
+        return meetingBasicCache.getNextOfSeries(parentId, () -> loadNextOfSeries(parentId));
+    }
+
+    private MeetingBasicDTO loadNextOfSeries(UUID parentId)
     {
         ZonedDateTime currentTime = ZonedDateTime.now();
         List<MeetingEntity> meetings = meetingRepository.findByParentIdAndExcludedFalseOrderByEndTimeAsc(parentId);
@@ -329,14 +452,17 @@ public class MeetingServiceImpl implements MeetingService
     @Override
     public void updateStaticRoomsLastVisitDate(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
-                () -> new EntityNotFoundException(String.format(Constants.NO_MEETING_FOUND_FOR_ID, meetingId))
-        );
-        meeting.setLastVisitDate(ZonedDateTime.now());
-        meetingRepository.save(meeting);
+        // the existence check is served by the cache of the join pages, the date is written behind in batches
+        findBasicById(meetingId);
+        meetingActivityService.recordVisit(meetingId);
     }
 
     protected List<MeetingEntity> createRecurringMeetings(MeetingEntity parent)
+    {
+        return meetingRepository.saveAll(buildRecurringMeetings(parent));
+    }
+
+    private List<MeetingEntity> buildRecurringMeetings(MeetingEntity parent)
     {
         List<MeetingEntity> children = new ArrayList<>();
         ZonedDateTime startDateTime = parent.getStartTime().truncatedTo(ChronoUnit.MINUTES);
@@ -358,19 +484,27 @@ public class MeetingServiceImpl implements MeetingService
             childMeeting.setStartTime(startDateTime);
             childMeeting.setEndTime(endDateTime);
             children.add(childMeeting);
-
-            switch (parent.getFrequency())
-            {
-                case "DAILY" -> startDateTime = startDateTime.plusDays(1);
-                case "WEEKLY" -> startDateTime = startDateTime.plusWeeks(1);
-                case "MONTHLY" -> startDateTime = startDateTime.plusMonths(1);
-                case "CUSTOM" -> startDateTime = calculateNextDayForCustomRecurrence(startDateTime, parent);
-            }
+            startDateTime = nextOccurrence(startDateTime, parent);
         }
-        children = meetingRepository.saveAll(children);
         return children;
     }
 
+    /**
+     * The start of the occurrence following the given one. Also used by the calendar feed to rebuild the occurrences
+     * the children were generated for.
+     */
+    static ZonedDateTime nextOccurrence(ZonedDateTime startDateTime, MeetingSummary parent)
+    {
+        return switch (parent.getFrequency())
+        {
+            case "DAILY" -> startDateTime.plusDays(1);
+            case "WEEKLY" -> startDateTime.plusWeeks(1);
+            case "MONTHLY" -> startDateTime.plusMonths(1);
+            case "CUSTOM" -> calculateNextDayForCustomRecurrence(startDateTime, parent);
+            default -> throw new IllegalArgumentException("Not a recurring frequency: " + parent.getFrequency());
+        };
+    }
+
     protected boolean startCustomWeekDayIsTodayAndNotSet(MeetingEntity parent, int startWeekDay, int todayWeekDay)
     {
         if (todayWeekDay != startWeekDay) return false;
@@ -388,7 +522,8 @@ public class MeetingServiceImpl implements MeetingService
         }
     }
 
-    protected ZonedDateTime calculateNextDayForCustomRecurrence(ZonedDateTime currentDate, MeetingEntity meeting)
+    protected static ZonedDateTime calculateNextDayForCustomRecurrence(ZonedDateTime currentDate,
+                                                                      MeetingSummary meeting)
     {
         switch (currentDate.getDayOfWeek().getValue())
         {
@@ -667,8 +802,14 @@ public class MeetingServiceImpl implements MeetingService
     private List<MeetingParticipantEntity> createParticipants(MeetingEntity meeting,
                                                            List<MeetingParticipantRequestDTO> participants)
     {
-        Map<String, MeetingParticipantEntity> toCreate = new HashMap<>();
-        for (MeetingParticipantRequestDTO p : participants)
+        return participantRepository.saveAll(buildParticipants(meeting, participants));
+    }
+
+    private List<MeetingParticipantEntity> buildParticipants(MeetingEntity meeting,
+                                                          List<MeetingParticipantRequestDTO> participants)
+    {
+        List<MeetingParticipantEntity> toCreate = new ArrayList<>();
+        for (MeetingParticipantRequestDTO p : DTOUtils.distinctByEmail(participants))
         {
             MeetingParticipantEntity entity = new MeetingParticipantEntity();
             entity.setMeetingId(meeting.getId());
@@ -676,16 +817,16 @@ public class MeetingServiceImpl implements MeetingService
             entity.setRole(p.getRole().getValue());
             entity.setCreatedAt(ZonedDateTime.now());
             entity.setUpdatedAt(ZonedDateTime.now());
-            toCreate.put(entity.getEmail(), entity);
+            toCreate.add(entity);
         }
-        return participantRepository.saveAll(toCreate.values());
+        return toCreate;
     }
 
     protected void handleStaticRoom(MeetingEntity meeting, List<MeetingParticipantEntity> participants)
     {
         if (meeting.isStaticRoom())
         {
-            notificationService.createParticipantAddedNotifications(meeting, participants);
+            notificationService.enqueueParticipantAddedNotifications(meeting, participants, false);
 
             boolean hasOrganizer = false;
             for (MeetingParticipantEntity participant : participants)
@@ -696,25 +837,13 @@ public class MeetingServiceImpl implements MeetingService
                     break;
                 }
             }
-            meeting.setHasOrganizer(hasOrganizer);
-            meetingRepository.save(meeting);
-        }
-    }
-
-    private String getUniqueConferencePin() {
-        // don't want to make an infinite loop
-        for (int i = 0; i < 10; i++) {
-            String pin = getNextConferencePin();
-            if (!meetingRepository.existsByConferencePin(pin)) {
-                return pin;
+            // only written when changed, a dynamic update of the flag
+            if (meeting.isHasOrganizer() != hasOrganizer)
+            {
+                meeting.setHasOrganizer(hasOrganizer);
+                meetingRepository.save(meeting);
             }
         }
-        throw new RuntimeException("can't generate a unique conference pin");
-    }
-
-    private static String getNextConferencePin()
-    {
-        return String.valueOf(new SecureRandom().nextLong(1000000000L, 9999999999L));
     }
 
     private ZonedDateTime getEndDateTime(MeetingEntity meeting, ZonedDateTime startDateTime)
@@ -22,6 +22,7 @@ import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +44,32 @@ public interface NotificationService {
 
     void createParticipantDeletedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants);
 
+    /**
+     * Appends one outbox entry, the notifications are created asynchronously by the outbox dispatcher.
+     *
+     * @param replaceExisting whether the existing notifications of the meeting are deleted first
+     */
+    void enqueueParticipantAddedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants,
+                                              boolean replaceExisting);
+
+    /**
+     * Appends one outbox entry, the notifications are created asynchronously by the outbox dispatcher.
+     */
+    void enqueueParticipantDeletedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants);
+
+    List<UUID> findDueOutboxEntries(int limit, int maxAttempts);
+
+    /**
+     * Creates the notifications of the given outbox entries and removes the entries, all in one transaction. Entries
+     * whose notifications exist already (a former attempt did commit) are only removed.
+     */
+    void dispatchOutboxEntries(List<UUID> outboxIds);
+
+    /**
+     * Counts a failed attempt of the entry and delays its next attempt. Returns the attempts so far.
+     */
+    int postponeOutboxEntry(UUID outboxId, Duration delay);
+
     void createDeleteCandidateNotifications(List<MeetingEntity> meetings);
 
     void createPasswordChangeCandidateNotifications(List<MeetingEntity> meetings);
@@ -23,20 +23,24 @@ import net.nordeck.ovc.backend.dto.NotificationsPageDTO;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.entity.NotificationEntity;
+import net.nordeck.ovc.backend.entity.NotificationOutboxEntity;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.NotificationOutboxRepository;
 import net.nordeck.ovc.backend.repository.NotificationRepository;
 import org.apache.logging.log4j.LogManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static net.nordeck.ovc.backend.dto.Role.ORGANIZER;
@@ -47,6 +51,10 @@ public class NotificationServiceImpl implements NotificationService
 
     private NotificationRepository notificationRepository;
 
+    private NotificationOutboxRepository outboxRepository;
+
+    private MeetingRepository meetingRepository;
+
     @Autowired
     protected ObjectMapper objectMapper;
 
@@ -57,12 +65,17 @@ public class NotificationServiceImpl implements NotificationService
     private String meetingJoinPath;
 
 
-    public NotificationServiceImpl(@Autowired NotificationRepository notificationRepository)
+    public NotificationServiceImpl(@Autowired NotificationRepository notificationRepository,
+                                   @Autowired NotificationOutboxRepository outboxRepository,
+                                   @Autowired MeetingRepository meetingRepository)
     {
         this.notificationRepository = notificationRepository;
+        this.outboxRepository = outboxRepository;
+        this.meetingRepository = meetingRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     @PreAuthorize("@permissionControlService.canReadNotification(#id)")
     public NotificationDTO findById(UUID id)
     {
@@ -78,6 +91,7 @@ public class NotificationServiceImpl implements NotificationService
     }
 
     @Override
+    @Transactional(readOnly = true)
     @PreAuthorize("@permissionControlService.isUserAuthenticated()")
     public NotificationsPageDTO findAllForUser(PageRequest pageRequest)
     {
@@ -111,62 +125,93 @@ public class NotificationServiceImpl implements NotificationService
     @Override
     public void createParticipantAddedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants)
     {
-        if (participants != null && !participants.isEmpty())
+        List<NotificationEntity> notifications =
+                createParticipantNotifications(meeting, recipients(meeting, participants), PARTICIPANT_ADDED, null);
+        if (!notifications.isEmpty())
         {
-            List<NotificationEntity> notifications = new ArrayList<>();
-            for (MeetingParticipantEntity participant : participants)
-            {
-
-                // do not create notifications for room owner
-                if (participant.getEmail().equalsIgnoreCase(meeting.getOwnerId()))
-                {
-                    continue;
-                }
-
-                NotificationEntity notification = createNotification(meeting, participant, PARTICIPANT_ADDED);
-                Message msg = new Message();
-                msg.password = meeting.getPassword();
-                msg.link = portalDomain + meetingJoinPath + meeting.getId();
-                try
-                {
-                    notification.setMessage(objectMapper.writeValueAsString(msg));
-                }
-                catch (Exception ex)
-                {
-                    LogManager.getLogger().warn("Error creating notification JSON payload. Cause: {}", ex.getMessage());
-                }
-                notifications.add(notification);
-            }
-            if (!notifications.isEmpty())
-            {
-                notificationRepository.saveAll(notifications);
-            }
+            notificationRepository.saveAll(notifications);
         }
     }
 
     @Override
     public void createParticipantDeletedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants)
     {
-        if (participants != null && !participants.isEmpty())
+        List<NotificationEntity> notifications =
+                createParticipantNotifications(meeting, recipients(meeting, participants), PARTICIPANT_DELETED, null);
+        if (!notifications.isEmpty())
         {
-            List<NotificationEntity> notifications = new ArrayList<>();
-            for (MeetingParticipantEntity participant : participants)
-            {
+            notificationRepository.saveAll(notifications);
+        }
+    }
 
-                // do not create notifications for room owner
-                if (participant.getEmail().equalsIgnoreCase(meeting.getOwnerId()))
-                {
-                    continue;
-                }
+    @Override
+    public void enqueueParticipantAddedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants,
+                                                     boolean replaceExisting)
+    {
+        enqueue(meeting, participants, PARTICIPANT_ADDED, replaceExisting);
+    }
+
+    @Override
+    public void enqueueParticipantDeletedNotifications(MeetingEntity meeting, List<MeetingParticipantEntity> participants)
+    {
+        enqueue(meeting, participants, PARTICIPANT_DELETED, false);
+    }
+
+    @Override
+    public List<UUID> findDueOutboxEntries(int limit, int maxAttempts)
+    {
+        return outboxRepository.findDueIds(maxAttempts, ZonedDateTime.now(), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional
+    public void dispatchOutboxEntries(List<UUID> outboxIds)
+    {
+        List<NotificationOutboxEntity> entries = outboxRepository.findAllByIdInOrderByCreatedAtAsc(outboxIds);
+        if (entries.isEmpty())
+        {
+            return;
+        }
+        List<UUID> entryIds = entries.stream().map(NotificationOutboxEntity::getId).toList();
+        Set<UUID> materialised = notificationRepository.findMaterialisedOutboxIds(entryIds);
+        Map<UUID, MeetingEntity> meetings = meetingRepository
+                .findAllById(entries.stream().map(NotificationOutboxEntity::getMeetingId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(MeetingEntity::getId, Function.identity()));
 
-                NotificationEntity notification = createNotification(meeting, participant, PARTICIPANT_DELETED);
-                notifications.add(notification);
+        List<NotificationEntity> notifications = new ArrayList<>();
+        for (NotificationOutboxEntity entry : entries)
+        {
+            MeetingEntity meeting = meetings.get(entry.getMeetingId());
+            // meeting deleted in the meantime, or entry delivered by a former attempt
+            if (meeting == null || materialised.contains(entry.getId()))
+            {
+                continue;
             }
-            if (!notifications.isEmpty())
+            if (entry.isReplaceExisting())
             {
-                notificationRepository.saveAll(notifications);
+                notifications.removeIf(n -> meeting.getId().equals(n.getMeetingId()));
+                notificationRepository.deleteAllByMeetingId(meeting.getId());
             }
+            notifications.addAll(createParticipantNotifications(meeting, entry.getRecipientList(), entry.getType(),
+                                                                entry.getId()));
         }
+        notificationRepository.saveAll(notifications);
+        outboxRepository.deleteAllInBatch(entries);
+    }
+
+    @Override
+    @Transactional
+    public int postponeOutboxEntry(UUID outboxId, Duration delay)
+    {
+        return outboxRepository.findById(outboxId)
+                .map(entry ->
+                     {
+                         entry.setAttempts(entry.getAttempts() + 1);
+                         entry.setNextAttemptAt(ZonedDateTime.now().plus(delay));
+                         return outboxRepository.save(entry).getAttempts();
+                     })
+                .orElse(0);
     }
 
     @Override
@@ -262,12 +307,79 @@ public class NotificationServiceImpl implements NotificationService
         }
     }
 
+    private void enqueue(MeetingEntity meeting, List<MeetingParticipantEntity> participants, String type,
+                         boolean replaceExisting)
+    {
+        List<String> recipients = recipients(meeting, participants);
+        if (recipients.isEmpty() && !replaceExisting)
+        {
+            return;
+        }
+        NotificationOutboxEntity entry = new NotificationOutboxEntity();
+        entry.setMeetingId(meeting.getId());
+        entry.setType(type);
+        entry.setRecipientList(recipients);
+        entry.setReplaceExisting(replaceExisting);
+        entry.setCreatedAt(ZonedDateTime.now());
+        outboxRepository.save(entry);
+    }
+
+    /**
+     * The emails of the participants to notify, the owner is never notified.
+     */
+    private static List<String> recipients(MeetingEntity meeting, List<MeetingParticipantEntity> participants)
+    {
+        if (participants == null)
+        {
+            return List.of();
+        }
+        return participants.stream()
+                .map(MeetingParticipantEntity::getEmail)
+                .filter(email -> !email.equalsIgnoreCase(meeting.getOwnerId()))
+                .toList();
+    }
+
+    private List<NotificationEntity> createParticipantNotifications(MeetingEntity meeting, List<String> recipients,
+                                                                    String type, UUID outboxId)
+    {
+        String message = "";
+        if (PARTICIPANT_ADDED.equals(type))
+        {
+            // the payload is the same for all recipients, so it is serialised once
+            Message msg = new Message();
+            msg.password = meeting.getPassword();
+            msg.link = portalDomain + meetingJoinPath + meeting.getId();
+            try
+            {
+                message = objectMapper.writeValueAsString(msg);
+            }
+            catch (Exception ex)
+            {
+                LogManager.getLogger().warn("Error creating notification JSON payload. Cause: {}", ex.getMessage());
+            }
+        }
+        List<NotificationEntity> notifications = new ArrayList<>();
+        for (String recipient : recipients)
+        {
+            NotificationEntity notification = createNotification(meeting, recipient, type);
+            notification.setMessage(message);
+            notification.setOutboxId(outboxId);
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
     private static NotificationEntity createNotification(MeetingEntity meeting,
                                                          MeetingParticipantEntity participant,
                                                          String type)
+    {
+        return createNotification(meeting, participant.getEmail(), type);
+    }
+
+    private static NotificationEntity createNotification(MeetingEntity meeting, String email, String type)
     {
         NotificationEntity notification = new NotificationEntity();
-        notification.setUserId(participant.getEmail());
+        notification.setUserId(email);
         notification.setMeetingId(meeting.getId());
         notification.setType(type);
         notification.setRoomName(meeting.getName());
@@ -62,7 +62,7 @@ public class PermissionControlServiceImpl implements PermissionControlService
     @Override
     public boolean canReadMeeting(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+        MeetingEntity meeting = meetingRepository.findWithParticipantsById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId)));
         return this.canReadMeeting(meeting);
     }
@@ -84,7 +84,7 @@ public class PermissionControlServiceImpl implements PermissionControlService
         {
             return canCreateRecords();
         }
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+        MeetingEntity meeting = meetingRepository.findWithParticipantsById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId)));
         return this.canEditMeeting(meeting);
     }
@@ -125,7 +125,7 @@ public class PermissionControlServiceImpl implements PermissionControlService
     @Override
     public MeetingPermissionsDTO getPermissions(UUID meetingId)
     {
-        MeetingEntity meeting = meetingRepository.findById(meetingId).orElseThrow(
+        MeetingEntity meeting = meetingRepository.findWithParticipantsById(meetingId).orElseThrow(
                 () -> new EntityNotFoundException(String.format(NO_MEETING_FOUND_FOR_ID, meetingId)));
 
         String userId = AuthenticatedUserService.getAuthenticatedUser();
@@ -0,0 +1,65 @@
+package net.nordeck.ovc.backend.service;
+
+
+/*
+ * Copyright 2025 Nordeck IT + Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import net.nordeck.ovc.backend.Constants;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class TimeZoneServiceImpl implements TimeZoneService
+{
+
+    // only valid zones are cached; the map stops growing at the limit, as offsets can be written in many ways
+    private final Map<String, ZoneId> zones = new ConcurrentHashMap<>();
+
+    @Value("${time-zones.cache-size:1000}")
+    protected int cacheSize = 1000;
+
+    @Override
+    public ZoneId resolve(String timeZone)
+    {
+        if (StringUtils.isBlank(timeZone))
+        {
+            return null;
+        }
+        ZoneId zone = zones.get(timeZone);
+        if (zone == null)
+        {
+            try
+            {
+                zone = ZoneId.of(timeZone);
+            }
+            catch (DateTimeException e)
+            {
+                throw new InvalidRequestException(String.format(Constants.ERR_INVALID_TIME_ZONE, timeZone), e);
+            }
+            if (zones.size() < cacheSize)
+            {
+                zones.putIfAbsent(timeZone, zone);
+            }
+        }
+        return zone;
+    }
+
+}
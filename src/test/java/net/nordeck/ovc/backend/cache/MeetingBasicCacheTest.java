@@ -0,0 +1,147 @@
+package net.nordeck.ovc.backend.cache;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.configuration.ReadYourWritesGuard;
+import net.nordeck.ovc.backend.dto.MeetingBasicDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class MeetingBasicCacheTest
+{
+
+    private MeetingBasicCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp()
+    {
+        cache = new MeetingBasicCache(true, 30, 100, Mockito.mock(ObjectProvider.class),
+                                      Mockito.mock(ObjectProvider.class));
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<MeetingBasicDTO> loader(ZonedDateTime endTime)
+    {
+        return () -> {
+            loads.incrementAndGet();
+            MeetingBasicDTO dto = TestUtils.getMeetingBasicDTO();
+            dto.setEndTime(endTime);
+            return dto;
+        };
+    }
+
+    @Test
+    void getBasic_loadsOnlyOnce()
+    {
+        UUID id = UUID.randomUUID();
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getBasic_reloadsAfterEvict()
+    {
+        UUID id = UUID.randomUUID();
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        cache.evict(List.of(id));
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getBasic_disabled_alwaysLoads()
+    {
+        cache = new MeetingBasicCache(false, 30, 100, Mockito.mock(ObjectProvider.class),
+                                      Mockito.mock(ObjectProvider.class));
+        UUID id = UUID.randomUUID();
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getNextOfSeries_reloadsWhenCachedMeetingIsOver()
+    {
+        UUID parentId = UUID.randomUUID();
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+        assertEquals(1, loads.get());
+
+        cache.evictLocal(List.of(parentId));
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().minusMinutes(1)));
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void withReplicas_entriesAreLoadedFromThePrimary()
+    {
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(5, 100);
+        cache = new MeetingBasicCache(true, 30, 100, Mockito.mock(ObjectProvider.class), provider(guard));
+
+        MeetingBasicDTO basic = cache.getBasic(UUID.randomUUID(), () -> {
+            assertTrue(guard.readsFromPrimary());
+            return TestUtils.getMeetingBasicDTO();
+        });
+
+        assertNotNull(basic);
+        assertFalse(guard.readsFromPrimary());
+    }
+
+    @Test
+    void withReplicas_readsOfAReadOnlyTransactionAreNotCached()
+    {
+        cache = new MeetingBasicCache(true, 30, 100, Mockito.mock(ObjectProvider.class),
+                                      provider(new ReadYourWritesGuard(5, 100)));
+        UUID id = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try
+        {
+            cache.getBasic(id, loader(ZonedDateTime.now()));
+            cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+        }
+        finally
+        {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+        cache.getBasic(id, loader(ZonedDateTime.now()));
+        cache.getNextOfSeries(parentId, loader(ZonedDateTime.now().plusHours(1)));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void parseIds_ignoresInvalidValues()
+    {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        List<UUID> ids = MeetingCacheClusterSync.parseIds(id1 + ",invalid, " + id2);
+        assertEquals(List.of(id1, id2), ids);
+        assertTrue(MeetingCacheClusterSync.parseIds(null).isEmpty());
+    }
+
+    private static ObjectProvider<ReadYourWritesGuard> provider(ReadYourWritesGuard guard)
+    {
+        ObjectProvider<ReadYourWritesGuard> provider = Mockito.mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(guard);
+        return provider;
+    }
+}
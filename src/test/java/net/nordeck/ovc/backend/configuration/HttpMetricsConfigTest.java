@@ -0,0 +1,61 @@
+package net.nordeck.ovc.backend.configuration;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpMetricsConfigTest
+{
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new HttpMetricsConfig().apiLatencySloFilter(
+                new Duration[]{Duration.ofMillis(500), Duration.ofMillis(100)},
+                new Duration[]{Duration.ofMillis(25), Duration.ofMillis(100)}));
+    }
+
+    @Test
+    void portalRoutes_getPortalSloBuckets()
+    {
+        assertArrayEquals(new double[]{100, 500}, sloMillis(timer("/api/v1.0/meetings/")));
+    }
+
+    @Test
+    void dialInRoutes_getDialInSloBuckets()
+    {
+        assertArrayEquals(new double[]{25, 100}, sloMillis(timer("/api/v1.0/conference-mapper/jigasi/by-pin")));
+    }
+
+    @Test
+    void otherRoutes_areNotChanged()
+    {
+        assertEquals(0, sloMillis(timer("/actuator/prometheus")).length);
+    }
+
+    private Timer timer(String route)
+    {
+        Timer timer = Timer.builder(HttpMetricsConfig.HTTP_SERVER_REQUESTS)
+                .tags(Tags.of("uri", route, "method", "GET"))
+                .register(meterRegistry);
+        timer.record(Duration.ofMillis(50));
+        return timer;
+    }
+
+    private double[] sloMillis(Timer timer)
+    {
+        return Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .mapToDouble(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toArray();
+    }
+}
@@ -0,0 +1,48 @@
+package net.nordeck.ovc.backend.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.nordeck.ovc.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryMetricsConfigTest {
+
+    private static final String USER = "metrics.user@nordeck.net";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestQueryStats_collectsStatementsAndRepositoryTime()
+    {
+        RequestQueryStats.start();
+        notificationRepository.findAllByUserIdOrderByCreatedAtDesc(USER, PageRequest.of(0, 10));
+        RequestQueryStats.Stats stats = RequestQueryStats.stop();
+
+        assertTrue(stats.getStatements() >= 1, "expected the page query to be counted, got " + stats.getStatements());
+        assertTrue(stats.getRepositoryNanos() > 0);
+    }
+
+    @Test
+    void repositoryInvocations_areTimedPerMethod()
+    {
+        notificationRepository.findAllByUserIdOrderByCreatedAtDesc(USER, PageRequest.of(0, 10));
+
+        long count = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "NotificationRepository")
+                .tag("method", "findAllByUserIdOrderByCreatedAtDesc")
+                .timer()
+                .count();
+        assertTrue(count >= 1);
+    }
+}
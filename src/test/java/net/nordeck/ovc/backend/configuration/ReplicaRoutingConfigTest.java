@@ -0,0 +1,149 @@
+package net.nordeck.ovc.backend.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class ReplicaRoutingConfigTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    private ReadYourWritesGuard guard;
+
+    @BeforeEach
+    void setUp()
+    {
+        SecurityContextHolder.clearContext();
+        DataSource primary = h2("routing-primary");
+        guard = new ReadYourWritesGuard(5, 100);
+        ReplicaDataSource replicas = new ReplicaDataSource(primary, List.of(h2("routing-replica-0"),
+                                                                            h2("routing-replica-1")), guard);
+        DataSource routing = ReplicaRoutingConfig.routingDataSource(primary, replicas, guard);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_areSpreadOverReplicas()
+    {
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+        assertEquals("ROUTING-REPLICA-1", readOnly.execute(status -> database()));
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readWriteTransactions_useThePrimary()
+    {
+        assertEquals("ROUTING-PRIMARY", readWrite.execute(status -> database()));
+        // no transaction at all
+        assertEquals("ROUTING-PRIMARY", database());
+    }
+
+    @Test
+    void readsAfterAWrite_stayOnThePrimaryForThatUser()
+    {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer", null, "USER"));
+        readWrite.execute(status -> database());
+
+        assertEquals("ROUTING-PRIMARY", readOnly.execute(status -> database()));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other", null, "USER"));
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readsFromPrimary_useThePrimary()
+    {
+        assertEquals("ROUTING-PRIMARY", guard.readFromPrimary(() -> readOnly.execute(status -> database())));
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readsAfterAWrite_withoutUser_useReplicas()
+    {
+        readWrite.execute(status -> database());
+
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readsAfterAnAnonymousWrite_useReplicas()
+    {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        readWrite.execute(status -> database());
+
+        assertFalse(guard.isSticky());
+        assertEquals("ROUTING-REPLICA-0", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void pools_areConfiguredByTheHikariProperties()
+    {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext())
+        {
+            TestPropertyValues.of("datasource.replicas.enabled=true",
+                                  "datasource.replicas.urls=jdbc:h2:mem:routing-replica-0",
+                                  "spring.datasource.url=jdbc:h2:mem:routing-primary",
+                                  "spring.datasource.hikari.maximum-pool-size=3",
+                                  "spring.datasource.hikari.connection-timeout=1500").applyTo(context);
+            context.register(DataSourcePropertiesConfig.class, ReplicaRoutingConfig.class);
+            context.refresh();
+
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            assertEquals(3, primary.getMaximumPoolSize());
+            assertEquals(1500, primary.getConnectionTimeout());
+            assertEquals("primary", primary.getPoolName());
+        }
+    }
+
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig
+    {
+    }
+
+    private String database()
+    {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static DataSource h2(String name)
+    {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,149 @@
+package net.nordeck.ovc.backend.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.nordeck.ovc.backend.logging.AppLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RequestMetricsFilterTest
+{
+    private static final String URI_PATTERN = "/api/v1.0/meetings/";
+    private static final String DIAL_IN_PATTERN = "/api/v1.0/conference-mapper/jigasi/by-pin";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter filter;
+    private MockHttpServletRequest request;
+    private final RequestQueryStats queryStats = new RequestQueryStats();
+
+    @BeforeEach
+    void setUp()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestMetricsFilter(meterRegistry, 3, Duration.ofSeconds(1), Duration.ofMillis(100), "secret");
+        filter.logger = mock(AppLogger.class);
+        request = new MockHttpServletRequest("GET", "/api/v1.0/meetings/");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI_PATTERN);
+    }
+
+    @Test
+    void doFilter_recordsStatementsPerRequest() throws Exception
+    {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(2));
+
+        DistributionSummary summary = meterRegistry.get(RequestMetricsFilter.STATEMENTS_METRIC)
+                .tag("method", "GET")
+                .tag("uri", URI_PATTERN)
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+        assertNull(meterRegistry.find(RequestMetricsFilter.EXCEEDED_METRIC).counter());
+        verify(filter.logger, never()).logRequestWarning(anyString(), anyString());
+    }
+
+    @Test
+    void doFilter_flagsRequestsAboveThreshold() throws Exception
+    {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(4));
+
+        assertEquals(1, meterRegistry.get(RequestMetricsFilter.EXCEEDED_METRIC).tag("uri", URI_PATTERN)
+                .counter().count());
+        verify(filter.logger, times(1)).logRequestWarning(anyString(), eq("4 statements, threshold is 3"));
+    }
+
+    @Test
+    void doFilter_unmappedRequestIsTaggedUnknown() throws Exception
+    {
+        request.removeAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(0));
+
+        assertEquals(1, meterRegistry.get(RequestMetricsFilter.STATEMENTS_METRIC)
+                .tag("uri", RequestMetricsFilter.UNKNOWN_URI).summary().count());
+    }
+
+    @Test
+    void inspect_outsideOfRequestIsNotCounted()
+    {
+        executeStatements(5);
+
+        RequestQueryStats.start();
+        executeStatements(1);
+        assertEquals(1, RequestQueryStats.stop().getStatements());
+        assertEquals(0, RequestQueryStats.stop().getStatements());
+    }
+
+    @Test
+    void doFilter_fastRequestIsNotLoggedAsSlow() throws Exception
+    {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(1));
+
+        verify(filter.logger, never()).logSlowRequest(anyString(), anyInt(), anyLong(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void doFilter_logsSlowRequestWithDatabaseStats() throws Exception
+    {
+        filter = new RequestMetricsFilter(meterRegistry, 3, Duration.ZERO, Duration.ofMillis(100), "secret");
+        filter.logger = mock(AppLogger.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(200);
+
+        filter.doFilter(request, response, (req, res) ->
+        {
+            executeStatements(2);
+            RequestQueryStats.addRepositoryTime(Duration.ofMillis(7).toNanos());
+        });
+
+        verify(filter.logger, times(1)).logSlowRequest(eq(URI_PATTERN), eq(200), anyLong(), eq(2), eq(7L),
+                                                       aryEq("secret".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void doFilter_dialInRoutesUseTheirOwnThreshold() throws Exception
+    {
+        filter = new RequestMetricsFilter(meterRegistry, 3, Duration.ofHours(1), Duration.ZERO, "secret");
+        filter.logger = mock(AppLogger.class);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, DIAL_IN_PATTERN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(1));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI_PATTERN);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(1));
+
+        verify(filter.logger, times(1)).logSlowRequest(eq(DIAL_IN_PATTERN), anyInt(), anyLong(), eq(1), anyLong(),
+                                                       any());
+        verify(filter.logger, never()).logSlowRequest(eq(URI_PATTERN), anyInt(), anyLong(), anyInt(), anyLong(),
+                                                      any());
+    }
+
+    @Test
+    void doFilter_nonApiRoutesAreNotLoggedAsSlow() throws Exception
+    {
+        filter = new RequestMetricsFilter(meterRegistry, 3, Duration.ZERO, Duration.ZERO, "secret");
+        filter.logger = mock(AppLogger.class);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/actuator/prometheus");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> executeStatements(0));
+
+        verify(filter.logger, never()).logSlowRequest(anyString(), anyInt(), anyLong(), anyInt(), anyLong(), any());
+    }
+
+    private void executeStatements(int amount)
+    {
+        for (int i = 0; i < amount; i++)
+        {
+            assertEquals("select 1", queryStats.inspect("select 1"));
+        }
+    }
+}
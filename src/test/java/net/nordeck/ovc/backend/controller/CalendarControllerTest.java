@@ -0,0 +1,146 @@
+package net.nordeck.ovc.backend.controller;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.CalendarFeedDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyDTO;
+import net.nordeck.ovc.backend.service.CalendarFeedService;
+import net.nordeck.ovc.backend.service.FreeBusyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles(value = "test")
+public class CalendarControllerTest
+{
+    private static final String TOKEN = "dXNlcg.c2lnbmF0dXJl";
+    private static final String USER = "user@nordeck.net";
+    private static final String ETAG = "\"1-2-3\"";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    CalendarFeedService service;
+
+    @MockBean
+    FreeBusyService freeBusyService;
+
+    @AfterEach
+    void finishAfterEach()
+    {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getFeed() throws Exception
+    {
+        TestUtils.initSecurityContext(null, null);
+        when(service.getFeedForUser()).thenReturn(new CalendarFeedDTO(TOKEN, "/api/v1.0/calendar/" + TOKEN +
+                "/meetings.ics"));
+
+        mockMvc.perform(get("/api/v1.0/calendar/feed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(TOKEN));
+    }
+
+    @Test
+    void resetFeed() throws Exception
+    {
+        TestUtils.initSecurityContext(null, null);
+        when(service.resetFeedForUser()).thenReturn(new CalendarFeedDTO(TOKEN, "/api/v1.0/calendar/" + TOKEN +
+                "/meetings.ics"));
+
+        mockMvc.perform(post("/api/v1.0/calendar/feed/reset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(TOKEN));
+        verify(service).resetFeedForUser();
+    }
+
+    @Test
+    void getFeedContent_streamsFeed() throws Exception
+    {
+        when(service.findUserByToken(TOKEN)).thenReturn(USER);
+        when(service.getFeedETag(USER)).thenReturn(ETAG);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("BEGIN:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(service).writeFeed(eq(USER), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1.0/calendar/{token}/meetings.ics", TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string("BEGIN:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void getFeedContent_notModified() throws Exception
+    {
+        when(service.findUserByToken(TOKEN)).thenReturn(USER);
+        when(service.getFeedETag(USER)).thenReturn(ETAG);
+
+        mockMvc.perform(get("/api/v1.0/calendar/{token}/meetings.ics", TOKEN).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+        verify(service, never()).writeFeed(any(), any());
+    }
+
+    @Test
+    void getFeedContent_invalidToken() throws Exception
+    {
+        when(service.findUserByToken(TOKEN)).thenThrow(new AccessDeniedException("invalid"));
+
+        mockMvc.perform(get("/api/v1.0/calendar/{token}/meetings.ics", TOKEN))
+                .andExpect(status().isForbidden());
+        verify(service, never()).getFeedETag(any());
+    }
+
+    @Test
+    void getFreeBusy() throws Exception
+    {
+        TestUtils.initSecurityContext(null, null);
+        ZonedDateTime start = ZonedDateTime.parse("2030-01-07T00:00:00Z");
+        when(freeBusyService.getFreeBusy(any())).thenReturn(new FreeBusyDTO(
+                start, start.plusDays(1), Map.of(USER, List.of(new long[]{1893981600L, 1893985200L}))));
+
+        mockMvc.perform(post("/api/v1.0/calendar/free-busy")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"emails\": [\"" + USER + "\"], " +
+                                         "\"start_time\": \"2030-01-07T00:00:00.000Z\", " +
+                                         "\"end_time\": \"2030-01-08T00:00:00.000Z\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy['" + USER + "'][0][0]").value(1893981600L))
+                .andExpect(jsonPath("$.busy['" + USER + "'][0][1]").value(1893985200L));
+        verify(freeBusyService).getFreeBusy(argThat(request -> request.getEmails().equals(List.of(USER)) &&
+                request.getEndTime().isEqual(start.plusDays(1))));
+    }
+}
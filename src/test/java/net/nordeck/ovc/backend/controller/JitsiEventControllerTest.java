@@ -0,0 +1,85 @@
+package net.nordeck.ovc.backend.controller;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.JitsiEventType;
+import net.nordeck.ovc.backend.dto.MeetingOccupancyDTO;
+import net.nordeck.ovc.backend.service.MeetingActivityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static net.nordeck.ovc.backend.controller.JitsiEventController.EVENT_SECRET_HEADER;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles(value = "test")
+public class JitsiEventControllerTest
+{
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    MeetingActivityService service;
+
+    @AfterEach
+    void finishAfterEach()
+    {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void receiveEvent_success() throws Exception
+    {
+        UUID meetingId = UUID.randomUUID();
+        String json = "{\"event_name\":\"muc-occupant-joined\",\"room_name\":\"" + meetingId + "\"," +
+                "\"room_jid\":\"" + meetingId + "@conference.jitsi\",\"is_breakout\":false}";
+        mockMvc.perform(post("/api/v1.0/jitsi/events")
+                                .header(EVENT_SECRET_HEADER, "secret")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(json))
+                .andExpect(status().isOk());
+
+        verify(service, times(1)).handleEvent(eq("secret"), argThat(
+                e -> e.getEventName() == JitsiEventType.PARTICIPANT_JOINED && e.getRoomName().equals(meetingId.toString())));
+    }
+
+    @Test
+    void receiveEvent_invalidSecret() throws Exception
+    {
+        doThrow(new AccessDeniedException("denied")).when(service).handleEvent(any(), any());
+        mockMvc.perform(post("/api/v1.0/jitsi/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"event_name\":\"muc-room-created\",\"room_name\":\"room\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getOccupancy_success() throws Exception
+    {
+        TestUtils.initSecurityContext(null, null);
+        UUID meetingId = UUID.randomUUID();
+        when(service.getOccupancy(meetingId)).thenReturn(new MeetingOccupancyDTO(meetingId, 3));
+
+        mockMvc.perform(get("/api/v1.0/jitsi/occupancy/{mId}", meetingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meeting_id").value(meetingId.toString()))
+                .andExpect(jsonPath("$.participants").value(3));
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import net.nordeck.ovc.backend.TestUtils;
 import net.nordeck.ovc.backend.dto.*;
 import net.nordeck.ovc.backend.service.JitsiService;
+import net.nordeck.ovc.backend.service.MeetingImportService;
 import net.nordeck.ovc.backend.service.MeetingParticipantService;
 import net.nordeck.ovc.backend.service.MeetingService;
 import net.nordeck.ovc.backend.service.PermissionControlService;
@@ -19,12 +20,18 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +57,9 @@ public class MeetingControllerTest
     @MockBean
     JitsiService jitsiService;
 
+    @MockBean
+    MeetingImportService meetingImportService;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -138,6 +148,53 @@ public class MeetingControllerTest
                 participantDTO.getMeetingId(),participantDTO.getId());
     }
 
+    @Test
+    void createParticipants_success() throws Exception
+    {
+        List<MeetingParticipantDTO> list = List.of(participantDTO);
+        when(participantService.createAll(any(), any())).thenReturn(list);
+
+        mockMvc.perform(
+                        post("/api/v1.0/meetings/{mId}/participants/bulk", participantDTO.getMeetingId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(List.of(participantRequestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(list)));
+
+        verify(participantService, times(1)).createAll(eq(participantDTO.getMeetingId()), argThat(l -> l.size() == 1));
+    }
+
+    @Test
+    void updateParticipantRoles_success() throws Exception
+    {
+        List<MeetingParticipantDTO> list = List.of(participantDTO);
+        when(participantService.updateRoles(any(), any())).thenReturn(list);
+        MeetingParticipantRoleRequestDTO roleDTO =
+                new MeetingParticipantRoleRequestDTO(participantDTO.getId(), participantDTO.getRole());
+
+        mockMvc.perform(
+                        put("/api/v1.0/meetings/{mId}/participants/bulk", participantDTO.getMeetingId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(List.of(roleDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(participantService, times(1)).updateRoles(eq(participantDTO.getMeetingId()), any());
+        verify(participantService, never()).update(any(), any(), any());
+    }
+
+    @Test
+    void deleteParticipants_success() throws Exception
+    {
+        mockMvc.perform(
+                        post("/api/v1.0/meetings/{mId}/participants/bulk-delete", participantDTO.getMeetingId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(List.of(participantDTO.getId()))))
+                .andExpect(status().isOk());
+
+        verify(participantService, times(1)).deleteAll(participantDTO.getMeetingId(), List.of(participantDTO.getId()));
+    }
+
     @Test
     void given_meeting_findById_success() throws Exception
     {
@@ -309,6 +366,30 @@ public class MeetingControllerTest
                 dto.getId(), dto.getPassword(), request.getEmail(), dto.getName(), "America/Sao_Paulo");
     }
 
+    @Test
+    void generateLinks_success() throws Exception
+    {
+        MeetingDTO dto = TestUtils.getMeetingDTO();
+        List<JitsiLinkUserDTO> users = List.of(new JitsiLinkUserDTO(TestUtils.OWNER_EMAIL, "owner"),
+                                               new JitsiLinkUserDTO(TestUtils.GUEST_EMAIL2, "guest"));
+        JitsiLinksRequestDTO request = new JitsiLinksRequestDTO(dto.getPassword(), "America/Sao_Paulo", users);
+        when(jitsiService.generateLinks(eq(dto.getId()), eq(dto.getPassword()), any(), eq("America/Sao_Paulo")))
+                .thenReturn(List.of(new JitsiLinkDTO(TestUtils.OWNER_EMAIL, "link1"),
+                                    new JitsiLinkDTO(TestUtils.GUEST_EMAIL2, "link2")));
+        json = objectMapper.writeValueAsString(request);
+        mockMvc.perform(
+                        post("/api/v1.0/meetings/{mId}/jitsi-links", dto.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email").value(TestUtils.OWNER_EMAIL))
+                .andExpect(jsonPath("$[1].link").value("link2"));
+
+        verify(jitsiService, times(1)).generateLinks(eq(dto.getId()), eq(dto.getPassword()),
+                                                     argThat(u -> u.size() == 2), eq("America/Sao_Paulo"));
+    }
+
     @Test
     void findMeetings_success() throws Exception
     {
@@ -330,4 +411,45 @@ public class MeetingControllerTest
                 .andExpect(status().isOk());
     }
 
-}
\ No newline at end of file
+    @Test
+    void importMeetings_streamsResults() throws Exception
+    {
+        doAnswer(invocation -> {
+            byte[] input = invocation.getArgument(0, InputStream.class).readAllBytes();
+            invocation.getArgument(1, OutputStream.class).write(input.length);
+            return null;
+        }).when(meetingImportService).importMeetings(any(), any());
+
+        MvcResult result = mockMvc.perform(
+                        post("/api/v1.0/meetings/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{}\n{}\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().bytes(new byte[]{6}));
+    }
+
+    @Test
+    void importMeetings_runsAsCaller() throws Exception
+    {
+        AtomicReference<Authentication> importer = new AtomicReference<>();
+        doAnswer(invocation -> {
+            importer.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        }).when(meetingImportService).importMeetings(any(), any());
+
+        MvcResult result = mockMvc.perform(
+                        post("/api/v1.0/meetings/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{}\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertSame(auth, importer.get());
+    }
+
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import net.nordeck.ovc.backend.Constants;
 import net.nordeck.ovc.backend.dto.ApiErrorDTO;
+import net.nordeck.ovc.backend.service.InvalidRequestException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -81,6 +82,16 @@ public class RestExceptionHandlerTest
         handler.handleIllegalArgumentException(request, new IllegalArgumentException("message"));
     }
 
+    @Test
+    void handleInvalidRequestException()
+    {
+        String message = String.format(Constants.ERR_INVALID_TIME_ZONE, "Mars/Olympus");
+        ApiErrorDTO error = (ApiErrorDTO) handler.handleInvalidRequestException(
+                request, new InvalidRequestException(message)).getBody();
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatus());
+        assertEquals(message, error.getMessage());
+    }
+
     @Test
     void handleMethodArgumentTypeMismatch()
     {
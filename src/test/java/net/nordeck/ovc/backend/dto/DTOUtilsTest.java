@@ -10,6 +10,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +18,20 @@ import static org.junit.jupiter.api.Assertions.*;
 @ActiveProfiles(value = "test")
 public class DTOUtilsTest
 {
+    @Test
+    void distinctByEmail_lastRequestWins()
+    {
+        List<MeetingParticipantRequestDTO> distinct = DTOUtils.distinctByEmail(List.of(
+                new MeetingParticipantRequestDTO(Role.GUEST, "a@mail.com"),
+                new MeetingParticipantRequestDTO(Role.GUEST, "b@mail.com"),
+                new MeetingParticipantRequestDTO(Role.MODERATOR, " A@Mail.com")));
+
+        assertEquals(2, distinct.size());
+        assertEquals(Role.MODERATOR, distinct.get(0).getRole());
+        assertEquals(" A@Mail.com", distinct.get(0).getEmail());
+        assertEquals("b@mail.com", distinct.get(1).getEmail());
+    }
+
     @Test
     void buildFromEntityStatic()
     {
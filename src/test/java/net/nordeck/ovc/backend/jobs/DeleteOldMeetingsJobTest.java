@@ -5,6 +5,7 @@ import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.service.JobShardService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.batch.core.repository.JobExecutionAlreadyRunningExcep
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.item.Chunk;
 import org.springframework.batch.test.JobLauncherTestUtils;
 import org.springframework.batch.test.JobRepositoryTestUtils;
 import org.springframework.batch.test.context.SpringBatchTest;
@@ -23,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -54,6 +57,12 @@ public class DeleteOldMeetingsJobTest {
     @Autowired
     private MeetingParticipantRepository meetingParticipantRepository;
 
+    @Autowired
+    private DeleteOldMeetingsJob jobConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Mock
     private JobRepository jobRepository;
 
@@ -117,6 +126,8 @@ public class DeleteOldMeetingsJobTest {
         jobRepositoryTestUtils.removeJobExecutions();
         meetingRepository.deleteAll();
         meetingParticipantRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM meeting_participant_archive");
+        jdbcTemplate.update("DELETE FROM meeting_archive");
     }
 
     private JobParameters defaultJobParameters() {
@@ -154,6 +165,42 @@ public class DeleteOldMeetingsJobTest {
         assertEquals(0, roomsAfter.size());
     }
 
+    @Test
+    void givenThreeMeetings_whenStepExecutedPerShard_thenExpectTwoHaveBeenDeleted() {
+        ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays);
+        launchShard(new UUID(0L, 0L), new UUID(Long.MAX_VALUE, -1L));
+        launchShard(new UUID(Long.MIN_VALUE, 0L), new UUID(-1L, -1L));
+
+        List<MeetingEntity> roomsAfter = meetingRepository.findAllByEndTimeBeforeAndStaticRoomIsFalse(dateBefore, Limit.of(10));
+        assertEquals(0, roomsAfter.size());
+    }
+
+    private void launchShard(UUID from, UUID to) {
+        JobParameters parameters = new JobParametersBuilder(defaultJobParameters())
+                .addString(JobShardService.SHARD_FROM, from.toString())
+                .addString(JobShardService.SHARD_TO, to.toString())
+                .toJobParameters();
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep("DeleteOldMeetingsJob_Step1", parameters);
+        assertThat(jobExecution.getExitStatus().getExitCode(), is("COMPLETED"));
+    }
+
+    @Test
+    void givenThreeMeetings_whenArchiveWriterExecuted_thenExpectTwoMovedToArchive() throws Exception {
+        ZonedDateTime dateBefore = ZonedDateTime.now().minusDays(ageInDays);
+        List<UUID> ids = meetingRepository.findIdsByEndTimeBeforeAndStaticRoomIsFalse(dateBefore, Limit.of(10));
+        assertEquals(2, ids.size());
+        int participants = meetingParticipantRepository.findAllByMeetingIdIn(ids).size();
+
+        jobConfig.step1ArchiveWriter().write(new Chunk<>(List.of(ids)));
+
+        assertEquals(1, meetingRepository.count());
+        assertEquals(0, meetingParticipantRepository.findAllByMeetingIdIn(ids).size());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meeting_archive WHERE archived_at IS NOT NULL",
+                                                    Integer.class));
+        assertEquals(participants, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meeting_participant_archive", Integer.class));
+    }
+
     @Test
     void execute() throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException {
         mockedJob.execute();
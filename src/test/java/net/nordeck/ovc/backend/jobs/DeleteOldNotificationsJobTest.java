@@ -2,7 +2,9 @@ package net.nordeck.ovc.backend.jobs;
 
 import net.nordeck.ovc.backend.TestUtils;
 import net.nordeck.ovc.backend.entity.NotificationEntity;
+import net.nordeck.ovc.backend.repository.NotificationPartitionRepository;
 import net.nordeck.ovc.backend.repository.NotificationRepository;
+import net.nordeck.ovc.backend.service.JobShardService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +16,11 @@ import org.springframework.batch.core.repository.JobExecutionAlreadyRunningExcep
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
 import org.springframework.batch.test.JobLauncherTestUtils;
 import org.springframework.batch.test.JobRepositoryTestUtils;
+import org.springframework.batch.test.MetaDataInstanceFactory;
 import org.springframework.batch.test.context.SpringBatchTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -25,6 +30,8 @@ import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
@@ -34,6 +41,9 @@ import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @SpringBatchTest
@@ -59,6 +69,9 @@ public class DeleteOldNotificationsJobTest
     @Mock
     private JobLauncher jobLauncher;
 
+    @Mock
+    private NotificationPartitionRepository partitionRepository;
+
     @Autowired
     @Qualifier(DeleteOldNotificationsJob.JOB_NAME)
     private Job job;
@@ -141,4 +154,79 @@ public class DeleteOldNotificationsJobTest
         List<NotificationEntity> roomsAfter = notificationRepository.findAll();
         assertEquals(1, roomsAfter.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenThreeNotifications_whenStepExecutedPerShard_thenExpectTwoHaveBeenDeleted()
+    {
+        UUID middle = new UUID(Long.MIN_VALUE, 0L);
+        launchShard(new UUID(0L, 0L), new UUID(Long.MAX_VALUE, -1L));
+        launchShard(middle, new UUID(-1L, -1L));
+
+        assertEquals(1, notificationRepository.findAll().size());
+    }
+
+    @Test
+    void givenPartitionedTable_whenStepRead_thenExpectDefaultPartitionPurged() throws Exception
+    {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        NotificationEntity expired = TestUtils.getNotificationEntity();
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        when(repository.findAllInDefaultPartitionByCreatedAtBefore(any(), eq(chunkSize))).thenReturn(List.of(expired));
+        mockedJob.notificationRepository = repository;
+
+        assertEquals(List.of(expired), mockedJob.step1Reader(null, null).read());
+        verify(repository, never()).findAllByCreatedAtBefore(any(), any());
+    }
+
+    @Test
+    void givenPlainTable_whenPartitionStepExecuted_thenExpectNothingDropped()
+    {
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep(
+                "DeleteOldNotificationsJob_Step2", defaultJobParameters());
+
+        assertThat(jobExecution.getExitStatus().getExitCode(), is("COMPLETED"));
+        assertEquals(0, jobExecution.getStepExecutions().iterator().next().getWriteCount());
+        assertEquals(3, notificationRepository.findAll().size());
+    }
+
+    @Test
+    void givenShardExecution_whenPartitionStepExecuted_thenExpectPartitionsUntouched() throws Exception
+    {
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        JobParameters parameters = new JobParametersBuilder(defaultJobParameters())
+                .addString(JobShardService.SHARD_FROM, new UUID(0L, 0L).toString())
+                .addString(JobShardService.SHARD_TO, new UUID(-1L, -1L).toString())
+                .toJobParameters();
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(parameters);
+
+        mockedJob.step2Tasklet().execute(stepExecution.createStepContribution(),
+                                         new ChunkContext(new StepContext(stepExecution)));
+
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    void givenShardedMode_whenPartitionsMaintained_thenExpectOneRunPerPurge()
+    {
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        mockedJob.partitionsAhead = 3;
+
+        mockedJob.maintainPartitionsSharded();
+        verifyNoInteractions(partitionRepository);
+
+        mockedJob.sharded = true;
+        mockedJob.maintainPartitionsSharded();
+        verify(partitionRepository).createPartitions(YearMonth.now(ZoneOffset.UTC), 4);
+        verify(partitionRepository).dropPartitionsBefore(any());
+    }
+
+    private void launchShard(UUID from, UUID to)
+    {
+        JobParameters parameters = new JobParametersBuilder(defaultJobParameters())
+                .addString(JobShardService.SHARD_FROM, from.toString())
+                .addString(JobShardService.SHARD_TO, to.toString())
+                .toJobParameters();
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep("DeleteOldNotificationsJob_Step1", parameters);
+        assertThat(jobExecution.getExitStatus().getExitCode(), is("COMPLETED"));
+    }
+}
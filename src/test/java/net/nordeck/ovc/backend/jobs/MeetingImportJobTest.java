@@ -0,0 +1,118 @@
+package net.nordeck.ovc.backend.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nordeck.ovc.backend.Constants;
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.*;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.service.MeetingImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeetingImportJobTest {
+
+    @Autowired
+    private MeetingImportService meetingImportService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<UUID> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        for (UUID id : createdIds) {
+            List<MeetingEntity> meetings = new ArrayList<>(meetingRepository.findAllByParentId(id));
+            meetingRepository.findById(id).ifPresent(meetings::add);
+            for (MeetingEntity meeting : meetings) {
+                participantRepository.deleteAll(participantRepository.findAllByMeetingId(meeting.getId()));
+            }
+            meetingRepository.deleteAll(meetings);
+        }
+    }
+
+    @Test
+    void importMeetings_createsValidLinesAndReportsEachLine() throws Exception {
+        TestUtils.initSecurityContext(null, null);
+        MeetingCreateDTO single = TestUtils.getMeetingCreateDTO(false, 0);
+        single.setParticipants(List.of(new MeetingParticipantRequestDTO(Role.GUEST, TestUtils.GUEST_EMAIL2)));
+        MeetingCreateDTO wrongTimes = TestUtils.getMeetingCreateDTO(false, 0);
+        wrongTimes.setEndTime(wrongTimes.getStartTime().minusHours(1));
+        MeetingCreateDTO static_ = new MeetingCreateDTO();
+        static_.setType(MeetingType.STATIC);
+        static_.setName("Imported room");
+        MeetingCreateDTO noRole = TestUtils.getMeetingCreateDTO(false, 0);
+        noRole.setParticipants(List.of(new MeetingParticipantRequestDTO(null, TestUtils.GUEST_EMAIL2)));
+        MeetingCreateDTO series = TestUtils.getMeetingCreateDTO(true, 3);
+        series.getRecurrence().setWeekDays(new WeekDays());
+        String input = String.join("\n",
+                objectMapper.writeValueAsString(single),
+                "not json",
+                "",
+                objectMapper.writeValueAsString(wrongTimes),
+                objectMapper.writeValueAsString(series),
+                objectMapper.writeValueAsString(static_),
+                objectMapper.writeValueAsString(noRole));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        meetingImportService.importMeetings(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+        Map<Long, MeetingImportResultDTO> results = new TreeMap<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            MeetingImportResultDTO result = objectMapper.readValue(line, MeetingImportResultDTO.class);
+            results.put(result.getLine(), result);
+            if (result.getId() != null) {
+                createdIds.add(result.getId());
+            }
+        }
+        assertEquals(Set.of(1L, 2L, 4L, 5L, 6L, 7L), results.keySet());
+        assertEquals(MeetingImportResultDTO.STATUS_FAILED, results.get(2L).getStatus());
+        assertEquals(Constants.ERR_IMPORT_MEETING_TIMES, results.get(4L).getError());
+        // the failing line of the second chunk is written on its own, the other ones are created anyway
+        assertEquals(MeetingImportResultDTO.STATUS_FAILED, results.get(7L).getStatus());
+        assertEquals(3, createdIds.size());
+
+        MeetingEntity meeting = meetingRepository.findById(results.get(1L).getId()).orElseThrow();
+        assertEquals(single.getName(), meeting.getName());
+        assertEquals(TestUtils.OWNER_EMAIL, meeting.getOwnerId());
+        assertEquals(2, participantRepository.findAllByMeetingId(meeting.getId()).size());
+
+        MeetingEntity parent = meetingRepository.findById(results.get(5L).getId()).orElseThrow();
+        List<MeetingEntity> children = meetingRepository.findAllByParentId(parent.getId());
+        assertEquals(3, children.size());
+        for (MeetingEntity child : children) {
+            assertEquals(parent.getConferencePin(), child.getConferencePin());
+            List<MeetingParticipantEntity> participants = participantRepository.findAllByMeetingId(child.getId());
+            assertEquals(1, participants.size());
+        }
+
+        MeetingEntity room = meetingRepository.findById(results.get(6L).getId()).orElseThrow();
+        assertTrue(room.isStaticRoom());
+        assertTrue(room.isHasOrganizer());
+        assertEquals(3, new HashSet<>(List.of(meeting.getConferencePin(), parent.getConferencePin(),
+                                              room.getConferencePin())).size());
+    }
+}
@@ -0,0 +1,197 @@
+package net.nordeck.ovc.backend.jobs;
+
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.entity.NotificationEntity;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.NotificationOutboxRepository;
+import net.nordeck.ovc.backend.repository.NotificationRepository;
+import net.nordeck.ovc.backend.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static net.nordeck.ovc.backend.service.NotificationService.PARTICIPANT_ADDED;
+import static net.nordeck.ovc.backend.service.NotificationService.PARTICIPANT_DELETED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class NotificationOutboxDispatcherTest
+{
+    private static final String OWNER = "outbox.owner@nordeck.net";
+    private static final String USER1 = "outbox.user1@nordeck.net";
+    private static final String USER2 = "outbox.user2@nordeck.net";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationOutboxDispatcher dispatcher;
+
+    private MeetingEntity room;
+
+    @BeforeEach
+    void initData()
+    {
+        dispatcher = new NotificationOutboxDispatcher(notificationService);
+        room = meetingRepository.save(MeetingEntity.builder().name("Outbox Room").frequency("ONCE").staticRoom(true)
+                                              .ownerId(OWNER).password("secret").build());
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        outboxRepository.deleteAll();
+        List.of(OWNER, USER1, USER2).forEach(user -> notificationRepository.deleteAll(
+                notificationRepository.findAllByUserId(user)));
+        meetingRepository.deleteById(room.getId());
+    }
+
+    @Test
+    void dispatch_materialisesQueuedNotifications()
+    {
+        notificationService.enqueueParticipantAddedNotifications(room, participants(OWNER, USER1, USER2), false);
+        notificationService.enqueueParticipantDeletedNotifications(room, participants(USER2));
+        assertTrue(notificationRepository.findAllByUserId(USER1).isEmpty());
+
+        dispatcher.dispatch();
+
+        assertEquals(0, outboxRepository.count());
+        assertTrue(notificationRepository.findAllByUserId(OWNER).isEmpty());
+        List<NotificationEntity> user1 = notificationRepository.findAllByUserId(USER1);
+        assertEquals(1, user1.size());
+        assertEquals(PARTICIPANT_ADDED, user1.get(0).getType());
+        assertTrue(user1.get(0).getMessage().contains("secret"));
+        assertEquals(List.of(PARTICIPANT_ADDED, PARTICIPANT_DELETED),
+                     notificationRepository.findAllByUserId(USER2).stream()
+                             .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
+                             .map(NotificationEntity::getType).toList());
+    }
+
+    @Test
+    void dispatch_replaceExistingRemovesFormerNotifications()
+    {
+        notificationService.enqueueParticipantAddedNotifications(room, participants(USER1), false);
+        dispatcher.dispatch();
+        notificationService.enqueueParticipantAddedNotifications(room, participants(USER2), true);
+
+        dispatcher.dispatch();
+
+        assertTrue(notificationRepository.findAllByUserId(USER1).isEmpty());
+        assertEquals(1, notificationRepository.findAllByUserId(USER2).size());
+    }
+
+    @Test
+    void dispatchOutboxEntries_isIdempotent()
+    {
+        notificationService.enqueueParticipantAddedNotifications(room, participants(USER1), false);
+        List<UUID> due = notificationService.findDueOutboxEntries(10, 3);
+        assertEquals(1, due.size());
+
+        // a former attempt committed the notification but the entry was not removed
+        NotificationEntity delivered = new NotificationEntity();
+        delivered.setUserId(USER1);
+        delivered.setMeetingId(room.getId());
+        delivered.setType(PARTICIPANT_ADDED);
+        delivered.setMessage("");
+        delivered.setOutboxId(due.get(0));
+        delivered.setCreatedAt(ZonedDateTime.now());
+        notificationRepository.save(delivered);
+
+        notificationService.dispatchOutboxEntries(due);
+
+        assertEquals(1, notificationRepository.findAllByUserId(USER1).size());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void dispatchOutboxEntries_concurrentDispatchDeliversOnce() throws Exception
+    {
+        notificationService.enqueueParticipantAddedNotifications(room, participants(USER1, USER2), false);
+        List<UUID> due = notificationService.findDueOutboxEntries(10, 3);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> concurrent = transactionTemplate.execute(status ->
+            {
+                notificationService.dispatchOutboxEntries(due);
+                // waits for the lock on the entries held by this transaction
+                Future<?> second = executor.submit(() -> notificationService.dispatchOutboxEntries(due));
+                assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+                return second;
+            });
+            concurrent.get(10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, notificationRepository.findAllByUserId(USER1).size());
+        assertEquals(1, notificationRepository.findAllByUserId(USER2).size());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void findDueOutboxEntries_skipsPostponedEntries()
+    {
+        notificationService.enqueueParticipantAddedNotifications(room, participants(USER1), false);
+        UUID id = notificationService.findDueOutboxEntries(10, 3).get(0);
+
+        assertEquals(1, notificationService.postponeOutboxEntry(id, Duration.ofMinutes(5)));
+
+        assertTrue(notificationService.findDueOutboxEntries(10, 3).isEmpty());
+    }
+
+    @Test
+    void dispatch_retriesFailedBatchEntryByEntry()
+    {
+        UUID good = UUID.randomUUID();
+        UUID bad = UUID.randomUUID();
+        NotificationService service = Mockito.mock(NotificationService.class);
+        when(service.findDueOutboxEntries(anyInt(), anyInt())).thenReturn(List.of(good, bad));
+        doThrow(new IllegalStateException("batch")).when(service).dispatchOutboxEntries(List.of(good, bad));
+        doThrow(new IllegalStateException("entry")).when(service).dispatchOutboxEntries(List.of(bad));
+        when(service.postponeOutboxEntry(eq(bad), any())).thenReturn(1);
+
+        new NotificationOutboxDispatcher(service).dispatch();
+
+        verify(service).dispatchOutboxEntries(List.of(good));
+        verify(service).postponeOutboxEntry(eq(bad), any());
+        verify(service, never()).postponeOutboxEntry(eq(good), any());
+    }
+
+    private List<MeetingParticipantEntity> participants(String... emails)
+    {
+        return List.of(emails).stream().map(email -> MeetingParticipantEntity.builder().meetingId(room.getId())
+                .email(email).role("GUEST").build()).toList();
+    }
+}
@@ -4,6 +4,8 @@ import net.nordeck.ovc.backend.TestUtils;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.NotificationRepository;
+import net.nordeck.ovc.backend.service.NotificationService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,7 @@ import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @SpringBatchTest
@@ -48,6 +51,12 @@ public class StaticRoomsPasswordChangeJobTest {
     @Autowired
     private MeetingRepository meetingRepository;
 
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private StaticRoomsPasswordChangeJob jobConfig;
+
     @Mock
     private JobRepository jobRepository;
 
@@ -204,4 +213,29 @@ public class StaticRoomsPasswordChangeJobTest {
                 .toList();
         assertEquals(1, roomsAfter.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenThreeRooms_whenSetBasedStepsExecuted_thenExpectOneResetAndOneNewCandidate() throws Exception {
+        StepContribution contribution = new StepContribution(
+                new StepExecution("StaticRoomsPasswordChangeJob_Step2", new JobExecution(1L)));
+
+        jobConfig.step2Tasklet().execute(contribution, null);
+        jobConfig.step3Tasklet().execute(contribution, null);
+
+        assertEquals(2, contribution.getWriteCount());
+        List<MeetingEntity> rooms = meetingRepository.findAll();
+        assertEquals(1, rooms.stream()
+                .filter(room -> !room.isPasswordChangeCandidate() && room.getPasswordChangeDueDate() == null)
+                .count());
+        ZonedDateTime expectedDueDate = ZonedDateTime.now().plusDays(daysBefore);
+        List<UUID> flagged = rooms.stream()
+                .filter(room -> room.isPasswordChangeCandidate() &&
+                        room.getPasswordChangeDueDate().getDayOfYear() == expectedDueDate.getDayOfYear())
+                .map(MeetingEntity::getId)
+                .toList();
+        assertEquals(1, flagged.size());
+        assertTrue(notificationRepository.findAll().stream()
+                           .anyMatch(n -> flagged.get(0).equals(n.getMeetingId()) &&
+                                   NotificationService.PASSWORD_CHANGE_CANDIDATE.equals(n.getType())));
+    }
+}
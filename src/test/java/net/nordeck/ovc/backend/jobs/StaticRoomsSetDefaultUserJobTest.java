@@ -21,6 +21,7 @@ import org.springframework.batch.test.JobRepositoryTestUtils;
 import org.springframework.batch.test.context.SpringBatchTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
@@ -58,6 +59,9 @@ public class StaticRoomsSetDefaultUserJobTest {
     @InjectMocks
     private StaticRoomsSetDefaultUserJob mockedJob;
 
+    @Value("${jobs.static-room-default-user.email}")
+    private String defaultUserEmail;
+
     @Mock
     private JobRepository jobRepository;
 
@@ -137,6 +141,23 @@ public class StaticRoomsSetDefaultUserJobTest {
         assertEquals(0, roomsAfter.size());
     }
 
+    @Test
+    void givenDefaultUserIsGuest_whenStepExecuted_thenExpectDefaultUserPromoted() {
+        jobLauncherTestUtils.setJob(job);
+        MeetingEntity room = meetingRepository.findAllByStaticRoomIsTrueAndHasOrganizerIsFalse(Limit.of(1)).get(0);
+        meetingParticipantRepository.save(MeetingParticipantEntity.builder().meetingId(room.getId())
+                                                  .email(defaultUserEmail.toUpperCase()).role("GUEST").build());
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep(
+                StaticRoomsSetDefaultUserJob.STEP_NAME, defaultJobParameters());
+
+        assertThat(jobExecution.getExitStatus().getExitCode(), is("COMPLETED"));
+        List<MeetingParticipantEntity> defaultUsers = meetingParticipantRepository
+                .findAllByMeetingIdInAndEmail(List.of(room.getId()), defaultUserEmail);
+        assertEquals(1, defaultUsers.size());
+        assertEquals("ORGANIZER", defaultUsers.get(0).getRole());
+    }
+
     @Test
     void execute() throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException {
         mockedJob.execute();
@@ -15,11 +15,16 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -118,6 +123,24 @@ public class AppLoggerTest
         assertEquals(authUserCaptor.getValue().toString(), "auth_user=" + AUTH_USER);
     }
 
+    @Test
+    void logFeedRequestWithMaskedToken()
+    {
+        when(request.getRequestURI()).thenReturn("/api/v1.0/calendar/dXNlcg.c2lnbmF0dXJl/meetings.ics");
+
+        appLogger.logRequest(MESSAGE);
+
+        verify(logger, times(1)).info(
+                messageCaptor.capture(),
+                methodCaptor.capture(),
+                uriCaptor.capture(),
+                queryCaptor.capture(),
+                bodyCaptor.capture(),
+                authUserCaptor.capture());
+
+        assertEquals("request_uri=/api/v1.0/calendar/***/meetings.ics", uriCaptor.getValue().toString());
+    }
+
     @Test
     void logPostRequestWithMessageOnly() throws IOException
     {
@@ -143,6 +166,69 @@ public class AppLoggerTest
         assertEquals(authUserCaptor.getValue().toString(), "auth_user=" + AUTH_USER);
     }
 
+    @Test
+    void logPostRequestWithoutBody() throws IOException
+    {
+        when(request.getMethod()).thenReturn(POST);
+
+        appLogger.logRequest(MESSAGE, false);
+
+        verify(logger, times(1)).info(
+                messageCaptor.capture(),
+                methodCaptor.capture(),
+                uriCaptor.capture(),
+                queryCaptor.capture(),
+                bodyCaptor.capture(),
+                authUserCaptor.capture());
+
+        assertEquals(bodyCaptor.getValue().toString(), "request_body=" + null);
+        verify(request, never()).getInputStream();
+    }
+
+    @Test
+    void logGetRequestWarningWithInfoMessage()
+    {
+        appLogger.logRequestWarning(MESSAGE, INFO_MESSAGE);
+
+        verify(logger, times(1)).warn(
+                messageCaptor.capture(),
+                methodCaptor.capture(),
+                uriCaptor.capture(),
+                queryCaptor.capture(),
+                authUserCaptor.capture(),
+                infoMessageCaptor.capture());
+
+        assertEquals(messageCaptor.getValue(), MESSAGE);
+        assertEquals(methodCaptor.getValue().toString(), "request_method=" + GET);
+        assertEquals(uriCaptor.getValue().toString(), "request_uri=" + URI);
+        assertEquals(queryCaptor.getValue().toString(), "request_query=" + QUERY_STRING);
+        assertEquals(authUserCaptor.getValue().toString(), "auth_user=" + AUTH_USER);
+        assertEquals(infoMessageCaptor.getValue().toString(), "info_message=" + INFO_MESSAGE);
+    }
+
+    @Test
+    void logSlowRequestWithHashedUser() throws Exception
+    {
+        byte[] key = "user-hash-secret".getBytes(StandardCharsets.UTF_8);
+        appLogger.logSlowRequest("/api/v1.0/meetings/", 200, 1500, 12, 900, key);
+
+        ArgumentCaptor<Object[]> argumentsCaptor = ArgumentCaptor.forClass(Object[].class);
+        verify(logger, times(1)).warn(messageCaptor.capture(), argumentsCaptor.capture());
+
+        String arguments = Arrays.toString(argumentsCaptor.getValue());
+        assertEquals("Slow request.", messageCaptor.getValue());
+        assertTrue(arguments.contains("route=/api/v1.0/meetings/"));
+        assertTrue(arguments.contains("response_status=200"));
+        assertTrue(arguments.contains("duration_ms=1500"));
+        assertTrue(arguments.contains("db_statements=12"));
+        assertTrue(arguments.contains("db_time_ms=900"));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        byte[] hash = mac.doFinal(AUTH_USER.getBytes(StandardCharsets.UTF_8));
+        assertTrue(arguments.contains("user_hash=" + HexFormat.of().formatHex(hash, 0, 8)));
+        assertFalse(arguments.contains(AUTH_USER));
+    }
+
     @Test
     void logGetRequestErrorWithInfoMessage()
     {
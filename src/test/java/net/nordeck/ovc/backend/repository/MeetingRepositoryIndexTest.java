@@ -0,0 +1,103 @@
+package net.nordeck.ovc.backend.repository;
+
+import net.nordeck.ovc.backend.configuration.RequestQueryStats;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.*;
+
+/**
+ * Guards the indexes of the hot {@link MeetingRepository} queries: the repository methods are called and the plans
+ * of the SQL statements Hibernate generates for them (captured by the statement inspector) must not fall back to a
+ * full scan of the meeting table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeetingRepositoryIndexTest {
+
+    // full scan markers of H2 and Postgres plans
+    private static final List<String> FULL_SCAN_MARKERS = List.of("public.meeting.tablescan", "seq scan on meeting ");
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+    private static final String USER = "index-test@mail.test";
+    private static final Limit LIMIT = Limit.of(10);
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private RequestQueryStats requestQueryStats;
+
+    @Test
+    void findByConferencePin_usesIndex() {
+        assertIndexed(() -> meetingRepository.findByConferencePin("1234567890"));
+        assertIndexed(() -> meetingRepository.existsByConferencePin("1234567890"));
+    }
+
+    @Test
+    void findAllByParentId_usesIndex() {
+        assertIndexed(() -> meetingRepository.findAllByParentId(ID));
+        assertIndexed(() -> meetingRepository.findByParentIdAndExcludedFalseOrderByEndTimeAsc(ID));
+    }
+
+    @Test
+    void findAllNormalMeetings_usesIndex() {
+        ZonedDateTime now = ZonedDateTime.now();
+        assertIndexed(() -> meetingRepository.findAllNormalMeetings(now, now.plusDays(1), USER, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findStaticRooms_usesIndex() {
+        ZonedDateTime now = ZonedDateTime.now();
+        assertIndexed(() -> meetingRepository.findStaticRoomsReadyForDeletion(now, LIMIT));
+        assertIndexed(() -> meetingRepository.findStaticRoomsNewDeleteCandidates(now, LIMIT));
+        assertIndexed(() -> meetingRepository.findStaticRoomsReadyForPasswordChange(now, LIMIT));
+        assertIndexed(() -> meetingRepository.findStaticRoomsResetPasswordChangeCandidates(now, LIMIT));
+        assertIndexed(() -> meetingRepository.findAllByStaticRoomIsTrueAndHasOrganizerIsFalse(LIMIT));
+    }
+
+    @Test
+    void findInstantMeetings_usesIndex() {
+        assertIndexed(() -> meetingRepository.findAllByStartTimeIsNullAndStartedAtIsNull(LIMIT));
+        assertIndexed(() -> meetingRepository.findAllByStartTimeIsNullAndStartedAtBefore(ZonedDateTime.now(), LIMIT));
+    }
+
+    private void assertIndexed(Runnable repositoryCall) {
+        clearInvocations(requestQueryStats);
+        repositoryCall.run();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(requestQueryStats, atLeastOnce()).inspect(statements.capture());
+        statements.getAllValues().forEach(this::assertIndexed);
+    }
+
+    private void assertIndexed(String sql) {
+        // the parameters don't change the plan, they are bound as null
+        List<String> rows = jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setNull(i, Types.NULL);
+            }
+        }, (ResultSet rs, int rowNum) -> rs.getString(1));
+        String plan = String.join("\n", rows).toLowerCase(Locale.ROOT);
+        FULL_SCAN_MARKERS.forEach(marker ->
+                assertFalse(plan.contains(marker), () -> "full table scan for: " + sql + "\n" + plan));
+    }
+}
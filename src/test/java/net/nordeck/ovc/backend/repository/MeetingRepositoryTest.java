@@ -0,0 +1,212 @@
+package net.nordeck.ovc.backend.repository;
+
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeetingRepositoryTest {
+
+    private static final String USER = "projection.user@nordeck.net";
+    private static final String OTHER_USER = "participant.user@nordeck.net";
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    private MeetingEntity roomB;
+    private MeetingEntity roomA;
+    private MeetingEntity meeting;
+
+    @BeforeEach
+    void initData()
+    {
+        ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusHours(1);
+        roomB = save(MeetingEntity.builder().name("Room B").frequency("ONCE").staticRoom(true)
+                             .password("secret").lobbyEnabled(true).build());
+        roomA = save(MeetingEntity.builder().name("Room A").frequency("ONCE").staticRoom(true).build());
+        meeting = save(MeetingEntity.builder().name("Meeting").frequency("ONCE").startTime(start)
+                               .endTime(start.plusHours(1)).conferencePin("4711").build());
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        List<MeetingParticipantListItem> participants = participantRepository.findAllByMeetingIdIn(
+                List.of(roomA.getId(), roomB.getId(), meeting.getId()));
+        participantRepository.deleteAllById(participants.stream().map(MeetingParticipantListItem::getId).toList());
+        meetingRepository.deleteAllById(List.of(roomA.getId(), roomB.getId(), meeting.getId()));
+    }
+
+    @Test
+    void findExistingEmails_matchesCaseInsensitive()
+    {
+        participantRepository.saveAll(List.of(
+                MeetingParticipantEntity.builder().meetingId(roomA.getId()).email(OTHER_USER).role("GUEST").build(),
+                MeetingParticipantEntity.builder().meetingId(roomB.getId()).email("other@nordeck.net").role("GUEST")
+                        .build()));
+
+        Set<String> existing = participantRepository.findExistingEmails(
+                roomA.getId(), List.of(OTHER_USER.toUpperCase(), "OTHER@NORDECK.NET"));
+
+        assertEquals(Set.of(OTHER_USER.toUpperCase()), existing);
+    }
+
+    @Test
+    void insertIfAbsent_rejectsSameEmailInOtherCase()
+    {
+        ZonedDateTime now = ZonedDateTime.now();
+
+        assertEquals(1, participantRepository.insertIfAbsent(UUID.randomUUID(), roomA.getId(), null, "GUEST", OTHER_USER,
+                                                             now));
+        assertEquals(0, participantRepository.insertIfAbsent(UUID.randomUUID(), roomA.getId(), null, "MODERATOR",
+                                                             OTHER_USER.toUpperCase(), now));
+        assertEquals(1, participantRepository.insertIfAbsent(UUID.randomUUID(), roomB.getId(), null, "GUEST",
+                                                             OTHER_USER.toUpperCase(), now));
+
+        List<MeetingParticipantEntity> participants =
+                participantRepository.findAllByMeetingIdInAndEmail(List.of(roomA.getId()), OTHER_USER);
+        assertEquals(1, participants.size());
+        assertEquals("GUEST", participants.get(0).getRole());
+    }
+
+    @Test
+    void save_rejectsSameEmailInOtherCase()
+    {
+        participantRepository.save(
+                MeetingParticipantEntity.builder().meetingId(roomA.getId()).email(OTHER_USER).role("GUEST").build());
+
+        assertThrows(DataIntegrityViolationException.class, () -> participantRepository.save(
+                MeetingParticipantEntity.builder().meetingId(roomA.getId()).email(OTHER_USER.toUpperCase()).role("GUEST")
+                        .build()));
+    }
+
+    @Test
+    void findAllStaticRooms_returnsSortedListItems()
+    {
+        Page<MeetingListItem> page = meetingRepository.findAllStaticRooms(
+                USER.toUpperCase(), PageRequest.of(0, 10).withSort(Sort.by("name").ascending()));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(roomA.getId(), roomB.getId()),
+                     page.getContent().stream().map(MeetingListItem::getId).toList());
+        MeetingListItem item = page.getContent().get(1);
+        assertTrue(item.isStaticRoom());
+        assertTrue(item.isLobbyEnabled());
+        assertEquals("secret", item.getPassword());
+        assertFalse(item.isRecurrentParent());
+    }
+
+    @Test
+    void findAllNormalMeetings_returnsListItems()
+    {
+        Page<MeetingListItem> page = meetingRepository.findAllNormalMeetings(
+                meeting.getStartTime().minusMinutes(1), meeting.getStartTime().plusMinutes(1), USER,
+                PageRequest.of(0, 10).withSort(Sort.by("startTime").descending()));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(meeting.getId(), page.getContent().get(0).getId());
+        assertEquals("4711", page.getContent().get(0).getConferencePin());
+        assertEquals(meeting.getStartTime().toInstant(), page.getContent().get(0).getStartTime().toInstant());
+    }
+
+    @Test
+    void findBusyIntervals_returnsOverlappingNormalMeetings()
+    {
+        List<BusyInterval> busy = meetingRepository.findBusyIntervals(
+                List.of(USER.toUpperCase(), OTHER_USER.toUpperCase()), meeting.getStartTime().plusMinutes(30),
+                meeting.getEndTime().plusHours(1));
+
+        // the static rooms of the user have no times
+        assertEquals(1, busy.size());
+        assertEquals(USER.toUpperCase(), busy.get(0).getEmail());
+        assertEquals(meeting.getStartTime().toInstant(), busy.get(0).getStartTime().toInstant());
+        assertEquals(meeting.getEndTime().toInstant(), busy.get(0).getEndTime().toInstant());
+        // touching the end of the meeting is no overlap
+        assertTrue(meetingRepository.findBusyIntervals(List.of(USER.toUpperCase()), meeting.getEndTime(),
+                                                       meeting.getEndTime().plusHours(1)).isEmpty());
+    }
+
+    @Test
+    void findAllInstantMeetings_sortedByCreationTime()
+    {
+        Page<MeetingListItem> page = meetingRepository.findAllInstantMeetings(
+                USER, PageRequest.of(0, 10).withSort(Sort.by("createdAt").descending()));
+
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void findAllByMeetingIdIn_returnsParticipantsOfAllMeetings()
+    {
+        List<MeetingParticipantListItem> participants = participantRepository.findAllByMeetingIdIn(
+                List.of(roomA.getId(), meeting.getId()));
+
+        assertEquals(2, participants.size());
+        participants.forEach(p -> assertEquals(USER, p.getEmail()));
+    }
+
+    @Test
+    void findWithParticipantsById_initializesParticipants()
+    {
+        MeetingEntity loaded = meetingRepository.findWithParticipantsById(meeting.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(loaded.getParticipants()));
+        assertEquals(USER, loaded.getParticipants().get(0).getEmail());
+    }
+
+    @Test
+    void updateDeleteCandidates_writesOnlyFlagAndDates()
+    {
+        ZonedDateTime due = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(7);
+
+        int updated = meetingRepository.updateDeleteCandidates(List.of(roomA.getId(), roomB.getId()), true, due,
+                                                               ZonedDateTime.now());
+
+        assertEquals(2, updated);
+        MeetingEntity loaded = meetingRepository.findById(roomB.getId()).orElseThrow();
+        assertTrue(loaded.isDeleteCandidate());
+        assertEquals(due.toInstant(), loaded.getRoomDeletionDueDate().toInstant());
+        assertEquals("secret", loaded.getPassword());
+        assertTrue(loaded.isLobbyEnabled());
+        assertFalse(meetingRepository.findById(meeting.getId()).orElseThrow().isDeleteCandidate());
+    }
+
+    @Test
+    void updateHasOrganizer_setsFlag()
+    {
+        meetingRepository.updateHasOrganizer(List.of(roomA.getId()), true, ZonedDateTime.now());
+
+        assertTrue(meetingRepository.findById(roomA.getId()).orElseThrow().isHasOrganizer());
+        assertFalse(meetingRepository.findById(roomB.getId()).orElseThrow().isHasOrganizer());
+    }
+
+    private MeetingEntity save(MeetingEntity entity)
+    {
+        MeetingEntity saved = meetingRepository.save(entity);
+        participantRepository.save(MeetingParticipantEntity.builder().meetingId(saved.getId()).email(USER)
+                                           .role("OWNER").build());
+        return saved;
+    }
+}
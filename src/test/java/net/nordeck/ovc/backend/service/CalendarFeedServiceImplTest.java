@@ -0,0 +1,228 @@
+package net.nordeck.ovc.backend.service;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.CalendarFeedDTO;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingParticipantListItem;
+import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CalendarFeedServiceImplTest
+{
+    private static final String USER = "feed.user@nordeck.net";
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2030, 1, 7, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private CalendarFeedService service;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> meetingIds = new ArrayList<>();
+
+    private MeetingEntity single;
+    private MeetingEntity series;
+
+    @BeforeEach
+    void initData()
+    {
+        single = save(MeetingEntity.builder().name("Single, once").info("Agenda\nline two").frequency("ONCE")
+                              .startTime(START.minusDays(1)).endTime(START.minusDays(1).plusHours(1)).build());
+        series = save(MeetingEntity.builder().name("Weekly").frequency("WEEKLY").startTime(START)
+                              .endTime(START.plusHours(1)).seriesEndTime(START.plusWeeks(3)).build());
+        for (int week = 0; week < 3; week++)
+        {
+            ZonedDateTime start = START.plusWeeks(week).plusHours(week == 2 ? 2 : 0);
+            save(MeetingEntity.builder().parentId(series.getId()).name("Weekly").frequency("WEEKLY")
+                         .startTime(start).endTime(start.plusHours(1)).seriesEndTime(START.plusWeeks(3))
+                         .excluded(week == 1).build());
+        }
+        save(MeetingEntity.builder().name("Not invited").frequency("ONCE").startTime(START)
+                     .endTime(START.plusHours(1)).build());
+        participantRepository.delete(participantRepository.findAllByMeetingIdInAndEmail(
+                List.of(meetingIds.get(meetingIds.size() - 1)), USER).get(0));
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        SecurityContextHolder.clearContext();
+        List<MeetingParticipantListItem> participants = participantRepository.findAllByMeetingIdIn(meetingIds);
+        participantRepository.deleteAllById(participants.stream().map(MeetingParticipantListItem::getId).toList());
+        Collections.reverse(meetingIds);
+        meetingRepository.deleteAllById(meetingIds);
+        meetingIds.clear();
+    }
+
+    @Test
+    void findUserByToken_returnsUserOfFeed()
+    {
+        TestUtils.initSecurityContext(USER, null);
+
+        CalendarFeedDTO feed = service.getFeedForUser();
+
+        assertEquals(USER, service.findUserByToken(feed.getToken()));
+        assertEquals(String.format(CalendarFeedService.FEED_PATH, feed.getToken()), feed.getPath());
+    }
+
+    @Test
+    void findUserByToken_rejectsInvalidToken()
+    {
+        TestUtils.initSecurityContext(USER, null);
+        String token = service.getFeedForUser().getToken();
+        String otherUser = token.replace(token.substring(0, token.indexOf('.')), "b3RoZXJAbm9yZGVjay5uZXQ");
+
+        assertThrows(AccessDeniedException.class, () -> service.findUserByToken(otherUser));
+        assertThrows(AccessDeniedException.class, () -> service.findUserByToken(token + "x"));
+        assertThrows(AccessDeniedException.class, () -> service.findUserByToken("no-separator"));
+        assertThrows(AccessDeniedException.class, () -> service.findUserByToken("%%%.%%%"));
+    }
+
+    @Test
+    void resetFeedForUser_revokesPreviousToken()
+    {
+        TestUtils.initSecurityContext(USER, null);
+        String token = service.getFeedForUser().getToken();
+        try
+        {
+            CalendarFeedDTO reset = service.resetFeedForUser();
+
+            assertNotEquals(token, reset.getToken());
+            assertEquals(reset.getToken(), service.getFeedForUser().getToken());
+            assertEquals(USER, service.findUserByToken(reset.getToken()));
+            assertThrows(AccessDeniedException.class, () -> service.findUserByToken(token));
+
+            CalendarFeedDTO second = service.resetFeedForUser();
+            assertThrows(AccessDeniedException.class, () -> service.findUserByToken(reset.getToken()));
+            assertEquals(USER, service.findUserByToken(second.getToken()));
+        }
+        finally
+        {
+            jdbcTemplate.update("DELETE FROM calendar_feed_key");
+        }
+    }
+
+    @Test
+    void writeFeed_writesSeriesAsRecurringEvent() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeFeed(USER.toUpperCase(), out);
+
+        String ics = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertEquals(3, ics.split("BEGIN:VEVENT").length - 1);
+        assertTrue(ics.contains("UID:" + single.getId()));
+        assertTrue(ics.contains("SUMMARY:Single\\, once"));
+        assertTrue(ics.contains("DESCRIPTION:Agenda\\nline two\\n\\n"));
+        assertTrue(ics.contains("UID:" + series.getId()));
+        assertTrue(ics.contains("DTSTART:20300107T100000Z\r\nDTEND:20300107T110000Z"));
+        assertTrue(ics.contains("RRULE:FREQ=WEEKLY;UNTIL=20300128T095959Z"));
+        assertTrue(ics.contains("EXDATE:20300114T100000Z"));
+        assertTrue(ics.contains("DTSTART:20300121T120000Z"));
+        assertTrue(ics.contains("RECURRENCE-ID:20300121T100000Z"));
+        assertFalse(ics.contains("Not invited"));
+    }
+
+    @Test
+    void writeFeed_matchesMovedChildToItsOccurrence() throws Exception
+    {
+        // monday and wednesday, the first wednesday moved to thursday
+        MeetingEntity custom = save(MeetingEntity.builder().name("Custom").frequency("CUSTOM").startTime(START)
+                                            .endTime(START.plusHours(1)).seriesEndTime(START.plusDays(10))
+                                            .customDays_monday(true).customDays_wednesday(true).build());
+        for (int day : new int[] {0, 3, 7, 9})
+        {
+            save(MeetingEntity.builder().parentId(custom.getId()).name("Custom").frequency("CUSTOM")
+                         .startTime(START.plusDays(day)).endTime(START.plusDays(day).plusHours(1))
+                         .seriesEndTime(START.plusDays(10)).build());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeFeed(USER, out);
+
+        String ics = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ics.contains("RRULE:FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20300117T095959Z"));
+        assertTrue(ics.contains("DTSTART:20300110T100000Z"));
+        assertTrue(ics.contains("RECURRENCE-ID:20300109T100000Z"));
+        assertFalse(ics.contains("EXDATE:20300109T100000Z"));
+    }
+
+    @Test
+    void writeFeed_writesClampedMonthlyOccurrencesAsDates() throws Exception
+    {
+        // the children of a series on the 31st are clamped to the end of the month, which FREQ=MONTHLY skips
+        ZonedDateTime start = ZonedDateTime.of(2030, 1, 31, 10, 0, 0, 0, ZoneOffset.UTC);
+        MeetingEntity monthly = save(MeetingEntity.builder().name("Monthly").frequency("MONTHLY").startTime(start)
+                                             .endTime(start.plusHours(1)).seriesEndTime(start.plusMonths(3))
+                                             .build());
+        for (ZonedDateTime child = start; child.isBefore(start.plusMonths(3)); child = child.plusMonths(1))
+        {
+            save(MeetingEntity.builder().parentId(monthly.getId()).name("Monthly").frequency("MONTHLY")
+                         .startTime(child).endTime(child.plusHours(1)).seriesEndTime(start.plusMonths(3)).build());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeFeed(USER, out);
+
+        String ics = out.toString(StandardCharsets.UTF_8);
+        assertFalse(ics.contains("FREQ=MONTHLY"));
+        assertTrue(ics.contains("DTSTART:20300131T100000Z\r\nDTEND:20300131T110000Z"));
+        assertTrue(ics.contains("RDATE:20300228T100000Z\r\nRDATE:20300328T100000Z\r\n"));
+        assertFalse(ics.contains("RECURRENCE-ID:2030022"));
+    }
+
+    @Test
+    void getFeedETag_changesWithMeetings()
+    {
+        String eTag = service.getFeedETag(USER);
+        assertEquals(eTag, service.getFeedETag(USER));
+
+        single.setName("Renamed");
+        single.setUpdatedAt(single.getUpdatedAt().plusSeconds(1));
+        meetingRepository.save(single);
+
+        assertNotEquals(eTag, service.getFeedETag(USER));
+    }
+
+    private MeetingEntity save(MeetingEntity meeting)
+    {
+        MeetingEntity saved = meetingRepository.save(meeting);
+        meetingIds.add(saved.getId());
+        participantRepository.save(MeetingParticipantEntity.builder().meetingId(saved.getId()).email(USER)
+                                           .role("MODERATOR").build());
+        return saved;
+    }
+}
@@ -0,0 +1,134 @@
+package net.nordeck.ovc.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConferencePinServiceImplTest
+{
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ConferencePinServiceImpl service;
+
+    @BeforeEach
+    void setUp()
+    {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        service = new ConferencePinServiceImpl(jdbcTemplate);
+        service.poolSize = 20;
+        service.refillThreshold = 5;
+        service.maxAttempts = 3;
+    }
+
+    private void reserveAll()
+    {
+        when(jdbcTemplate.batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList())).thenAnswer(invocation -> {
+            List<?> args = invocation.getArgument(1, List.class);
+            int[] counts = new int[args.size()];
+            java.util.Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @Test
+    void nextPin_returnsUniquePinsWithoutQueryPerPin()
+    {
+        reserveAll();
+        service.refill();
+
+        Set<String> pins = new HashSet<>();
+        for (int i = 0; i < 20; i++)
+        {
+            String pin = service.nextPin();
+            assertEquals(10, pin.length());
+            pins.add(pin);
+        }
+
+        assertEquals(20, pins.size());
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList());
+    }
+
+    @Test
+    void nextPin_emptyPool_reservesSynchronously()
+    {
+        reserveAll();
+
+        assertNotNull(service.nextPin());
+        assertEquals(19, service.getPoolSize());
+    }
+
+    @Test
+    void nextPin_noPinCanBeReserved_throwsException()
+    {
+        when(jdbcTemplate.batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList()))
+                .thenAnswer(invocation -> new int[invocation.getArgument(1, List.class).size()]);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.nextPin());
+        assertEquals(ConferencePinServiceImpl.ERR_NO_CONFERENCE_PIN, ex.getMessage());
+
+        // it tried several times to reserve pins and eventually failed (didn't loop forever)
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList());
+    }
+
+    @Test
+    void nextPins_reservesInOneBatchWithoutPool()
+    {
+        reserveAll();
+
+        List<String> pins = service.nextPins(50);
+
+        assertEquals(50, new HashSet<>(pins).size());
+        assertEquals(0, service.getPoolSize());
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE),
+                                                   argThat((List<Object[]> args) -> args.size() == 50));
+    }
+
+    @Test
+    void nextPins_notEnoughPinsReserved_throwsException()
+    {
+        when(jdbcTemplate.batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList()))
+                .thenAnswer(invocation -> new int[invocation.getArgument(1, List.class).size()]);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.nextPins(5));
+        assertEquals(ConferencePinServiceImpl.ERR_NO_CONFERENCE_PIN, ex.getMessage());
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList());
+    }
+
+    @Test
+    void refill_concurrentReservation_retriesOneByOne()
+    {
+        when(jdbcTemplate.batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList()))
+                .thenThrow(new DuplicateKeyException("duplicate"));
+        when(jdbcTemplate.update(eq(ConferencePinServiceImpl.SQL_RESERVE), any(), any(), any(), any()))
+                .thenReturn(1)
+                .thenThrow(new DuplicateKeyException("duplicate"))
+                .thenReturn(1);
+
+        service.refill();
+
+        // the candidate taken by another node is replaced in the next attempt
+        assertEquals(20, service.getPoolSize());
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RESERVE), anyList());
+        verify(jdbcTemplate, times(21)).update(eq(ConferencePinServiceImpl.SQL_RESERVE), any(), any(), any(), any());
+    }
+
+    @Test
+    void reclaim_releasesDistinctPins()
+    {
+        service.reclaim(java.util.Arrays.asList("1234567890", null, "1234567890", "2345678901"));
+
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ConferencePinServiceImpl.SQL_RECLAIM),
+                                                   argThat((List<Object[]> args) -> args.size() == 2));
+    }
+}
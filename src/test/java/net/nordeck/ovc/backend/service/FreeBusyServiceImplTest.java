@@ -0,0 +1,106 @@
+package net.nordeck.ovc.backend.service;
+
+import net.nordeck.ovc.backend.dto.FreeBusyDTO;
+import net.nordeck.ovc.backend.dto.FreeBusyRequestDTO;
+import net.nordeck.ovc.backend.repository.BusyInterval;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FreeBusyServiceImplTest
+{
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2030, 1, 7, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final ZonedDateTime END = START.plusDays(7);
+
+    private MeetingRepository meetingRepository;
+
+    private FreeBusyServiceImpl service;
+
+    @BeforeEach
+    void setUp()
+    {
+        meetingRepository = Mockito.mock(MeetingRepository.class);
+        service = new FreeBusyServiceImpl(meetingRepository);
+        service.maxEmails = 3;
+        service.maxDays = 31;
+    }
+
+    @Test
+    void getFreeBusy_mergesAndClipsIntervals()
+    {
+        when(meetingRepository.findBusyIntervals(eq(Set.of("A@NORDECK.NET", "B@NORDECK.NET", "C@NORDECK.NET")),
+                                                 eq(START), eq(END))).thenReturn(List.of(
+                interval("A@NORDECK.NET", START.minusHours(1), START.plusHours(1)),
+                interval("A@NORDECK.NET", START.plusHours(10), START.plusHours(11)),
+                interval("A@NORDECK.NET", START.plusHours(10).plusMinutes(30), START.plusHours(12)),
+                interval("A@NORDECK.NET", START.plusHours(12), START.plusHours(13)),
+                interval("A@NORDECK.NET", START.plusHours(12).plusMinutes(15), START.plusHours(12).plusMinutes(45)),
+                interval("C@NORDECK.NET", END.minusHours(1), END.plusHours(1))));
+
+        FreeBusyDTO freeBusy = service.getFreeBusy(
+                new FreeBusyRequestDTO(List.of("a@nordeck.net", "B@nordeck.net", "c@nordeck.net", "A@NORDECK.net"),
+                                       START, END));
+
+        assertEquals(List.of("a@nordeck.net", "B@nordeck.net", "c@nordeck.net"),
+                     new ArrayList<>(freeBusy.getBusy().keySet()));
+        List<long[]> a = freeBusy.getBusy().get("a@nordeck.net");
+        assertEquals(2, a.size());
+        assertArrayEquals(new long[]{seconds(START), seconds(START.plusHours(1))}, a.get(0));
+        // overlapping and adjacent meetings are merged
+        assertArrayEquals(new long[]{seconds(START.plusHours(10)), seconds(START.plusHours(13))}, a.get(1));
+        assertTrue(freeBusy.getBusy().get("B@nordeck.net").isEmpty());
+        assertArrayEquals(new long[]{seconds(END.minusHours(1)), seconds(END)},
+                          freeBusy.getBusy().get("c@nordeck.net").get(0));
+    }
+
+    @Test
+    void getFreeBusy_invalidRequest_throwsException()
+    {
+        List<String> emails = List.of("a@nordeck.net");
+
+        assertThrows(InvalidRequestException.class,
+                     () -> service.getFreeBusy(new FreeBusyRequestDTO(emails, END, START)));
+        assertThrows(InvalidRequestException.class,
+                     () -> service.getFreeBusy(new FreeBusyRequestDTO(emails, START, START.plusDays(32))));
+        assertThrows(InvalidRequestException.class,
+                     () -> service.getFreeBusy(new FreeBusyRequestDTO(Collections.emptyList(), START, END)));
+        assertThrows(InvalidRequestException.class,
+                     () -> service.getFreeBusy(new FreeBusyRequestDTO(
+                             List.of("a@nordeck.net", "b@nordeck.net", "c@nordeck.net", "d@nordeck.net"), START, END)));
+        verify(meetingRepository, never()).findBusyIntervals(any(), any(), any());
+    }
+
+    private static long seconds(ZonedDateTime time)
+    {
+        return time.toEpochSecond();
+    }
+
+    private static BusyInterval interval(String email, ZonedDateTime start, ZonedDateTime end)
+    {
+        return new BusyInterval()
+        {
+            @Override
+            public String getEmail() { return email; }
+
+            @Override
+            public ZonedDateTime getStartTime() { return start; }
+
+            @Override
+            public ZonedDateTime getEndTime() { return end; }
+        };
+    }
+}
@@ -5,6 +5,8 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
 import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.JitsiLinkDTO;
+import net.nordeck.ovc.backend.dto.JitsiLinkUserDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 import net.nordeck.ovc.backend.dto.Role;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
@@ -23,16 +25,19 @@ import org.springframework.web.util.UriUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static net.nordeck.ovc.backend.Constants.ERR_INVALID_TIME_ZONE;
+import static net.nordeck.ovc.backend.Constants.ERR_JITSI_LINKS_SIZE;
 import static net.nordeck.ovc.backend.Constants.ERR_WRONG_MEETING_PASSWORD;
 import static net.nordeck.ovc.backend.service.JitsiServiceImpl.INSTANT_MEETING;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -58,6 +63,7 @@ public class JitsiServiceImplTest
         service.setDomain("https://jitsi.nordeck.net");
         service.setSecret(JWT_SECRET);
         service.setObjectMapper(new ObjectMapper());
+        service.setTimeZoneService(new TimeZoneServiceImpl());
 
         String zoneId = ZoneId.systemDefault().getId();
         if ("America/Sao_Paulo".equals(zoneId))
@@ -90,7 +96,7 @@ public class JitsiServiceImplTest
     void testGenerateTokenForModerator()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(meetingEntity.getId())).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(meetingEntity.getId())).thenReturn(Optional.of(meetingEntity));
         MeetingParticipantDTO participant = TestUtils.getMeetingParticipantDTO();
 
         String token = service.generateToken(participant, null, "moderator name", meetingEntity.getId(), null);
@@ -122,7 +128,7 @@ public class JitsiServiceImplTest
     void testGenerateTokenForGuest()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meetingEntity));
         MeetingParticipantDTO participant = TestUtils.getMeetingParticipantDTO();
         participant.setRole(Role.GUEST);
 
@@ -151,7 +157,7 @@ public class JitsiServiceImplTest
     void testGenerateTokenForAnonymous()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meetingEntity));
         String token = service.generateToken(null, null, "anonymous", meetingEntity.getId(), null);
 
         byte[] secretBytes = JWT_SECRET.getBytes(StandardCharsets.UTF_8);
@@ -189,7 +195,7 @@ public class JitsiServiceImplTest
     void testGenerateLink()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
         String link = service.generateLink(TestUtils.meetingId, meetingEntity.getPassword(),
                                            TestUtils.OWNER_EMAIL, "DISPLAY_NAME", null);
         String encodeRoomName = UriUtils.encode(QUOTATION + meetingEntity.getName() +
@@ -203,7 +209,7 @@ public class JitsiServiceImplTest
     void testGenerateLinkForGuest()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
         meetingEntity.setParticipants(List.of());
         String link = service.generateLink(TestUtils.meetingId, meetingEntity.getPassword(),
                                            TestUtils.OWNER_EMAIL, "DISPLAY_NAME", null);
@@ -218,7 +224,7 @@ public class JitsiServiceImplTest
     void testGenerateLinkWithoutParticipant()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
         String link = service.generateLink(TestUtils.meetingId, meetingEntity.getPassword(),
                                            TestUtils.OWNER_EMAIL, "DISPLAY_NAME", null);
 
@@ -234,7 +240,7 @@ public class JitsiServiceImplTest
     void testGenerateLinkForInstantMeeting()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
         meetingEntity.setInstantMeeting(true);
 
         String link = service.generateLink(TestUtils.meetingId, meetingEntity.getPassword(),
@@ -251,11 +257,134 @@ public class JitsiServiceImplTest
     void testGenerateLinkWithWrongPassword()
     {
         MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
 
         Exception ex = assertThrows(AccessDeniedException.class,
                                     () -> service.generateLink(TestUtils.meetingId, "WRONG_PASSWORD",
                                                   TestUtils.OWNER_EMAIL, "DISPLAY_NAME", null));
         assertTrue(ex.getMessage().contains(ERR_WRONG_MEETING_PASSWORD));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGenerateLinks()
+    {
+        MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+        List<JitsiLinkUserDTO> users = List.of(new JitsiLinkUserDTO(TestUtils.OWNER_EMAIL.toUpperCase(), "owner"),
+                                               new JitsiLinkUserDTO(TestUtils.GUEST_EMAIL2, "guest"),
+                                               new JitsiLinkUserDTO("unknown@gmail.com", "unknown"),
+                                               new JitsiLinkUserDTO(null, "anonymous"));
+
+        List<JitsiLinkDTO> links = service.generateLinks(TestUtils.meetingId, meetingEntity.getPassword(), users, null);
+
+        verify(meetingRepository, times(1)).findWithParticipantsById(TestUtils.meetingId);
+        assertEquals(4, links.size());
+        String encodeRoomName = UriUtils.encode(QUOTATION + meetingEntity.getName() +
+                                                        QUOTATION, StandardCharsets.UTF_8);
+        List<Map<String, Object>> tokenUsers = new ArrayList<>();
+        for (int i = 0; i < links.size(); i++)
+        {
+            String link = links.get(i).getLink();
+            assertEquals(users.get(i).getEmail(), links.get(i).getEmail());
+            assertTrue(link.startsWith(service.getDomain() + "/" + meetingEntity.getId() + "?jwt="));
+            assertTrue(link.endsWith("#config.localSubject=" + encodeRoomName));
+            String token = link.substring(link.indexOf("?jwt=") + 5, link.indexOf('#'));
+            Map<String, Map> context = (Map<String, Map>) parseToken(token).getPayload().get("context");
+            tokenUsers.add(context.get("user"));
+        }
+        assertAll(
+                () -> assertEquals("owner", tokenUsers.get(0).get("affiliation")),
+                () -> assertEquals(true, tokenUsers.get(0).get("lobby_bypass")),
+                () -> assertEquals("owner", tokenUsers.get(0).get("name")),
+                () -> assertEquals("member", tokenUsers.get(1).get("affiliation")),
+                () -> assertEquals(false, tokenUsers.get(1).get("lobby_bypass")),
+                () -> assertEquals("member", tokenUsers.get(2).get("affiliation")),
+                () -> assertEquals("unknown", tokenUsers.get(2).get("name")),
+                () -> assertEquals("anonymous", tokenUsers.get(3).get("name"))
+        );
+    }
+
+    @Test
+    void testGenerateLinksWithWrongPassword()
+    {
+        MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
+        when(meetingRepository.findWithParticipantsById(TestUtils.meetingId)).thenReturn(Optional.of(meetingEntity));
+
+        List<JitsiLinkUserDTO> users = List.of(new JitsiLinkUserDTO(TestUtils.OWNER_EMAIL, "owner"));
+        Exception ex = assertThrows(AccessDeniedException.class,
+                                    () -> service.generateLinks(TestUtils.meetingId, "WRONG_PASSWORD", users, null));
+        assertTrue(ex.getMessage().contains(ERR_WRONG_MEETING_PASSWORD));
+    }
+
+    @Test
+    void testGenerateLinksWithTooManyUsers()
+    {
+        service.setLinksMaxSize(2);
+        List<JitsiLinkUserDTO> users = List.of(new JitsiLinkUserDTO("a@gmail.com", "a"),
+                                               new JitsiLinkUserDTO("b@gmail.com", "b"),
+                                               new JitsiLinkUserDTO("c@gmail.com", "c"));
+
+        Exception ex = assertThrows(InvalidRequestException.class,
+                                    () -> service.generateLinks(TestUtils.meetingId, "password", users, null));
+        assertEquals(String.format(ERR_JITSI_LINKS_SIZE, 2), ex.getMessage());
+        assertThrows(InvalidRequestException.class,
+                     () -> service.generateLinks(TestUtils.meetingId, "password", List.of(), null));
+        verifyNoInteractions(meetingRepository);
+    }
+
+    @Test
+    void testSetSecretResetsSigningKey()
+    {
+        MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meetingEntity));
+        service.generateToken(null, null, "anonymous", meetingEntity.getId(), null);
+
+        service.setSecret(JWT_SECRET + "-rotated");
+        String token = service.generateToken(null, null, "anonymous", meetingEntity.getId(), null);
+
+        assertThrows(io.jsonwebtoken.security.SignatureException.class, () -> parseToken(token));
+    }
+
+    private Jws<Claims> parseToken(String token)
+    {
+        byte[] secretBytes = JWT_SECRET.getBytes(StandardCharsets.UTF_8);
+        String signingKey = Base64.getEncoder().encodeToString(secretBytes);
+        return Jwts.parser()
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(token);
+    }
+
+    @Test
+    void testGenerateLinkWithUnknownTimeZone()
+    {
+        Exception ex = assertThrows(InvalidRequestException.class,
+                                    () -> service.generateLink(TestUtils.meetingId, "password",
+                                                               TestUtils.OWNER_EMAIL, "DISPLAY_NAME", "Mars/Olympus"));
+        assertEquals(String.format(ERR_INVALID_TIME_ZONE, "Mars/Olympus"), ex.getMessage());
+        verifyNoInteractions(meetingRepository);
+    }
+
+    @Test
+    void testTokenWindowIsIndependentOfTimeZone()
+    {
+        MeetingEntity meetingEntity = TestUtils.getMeetingEntity();
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meetingEntity));
+        service.setNotBeforeInMinutes(180);
+        service.setExpirationInMinutes(60);
+
+        Claims utc = parseToken(service.generateToken(null, null, "utc", meetingEntity.getId(), null)).getPayload();
+        Claims berlin = parseToken(service.generateToken(null, null, "berlin", meetingEntity.getId(),
+                                                         "Europe/Berlin")).getPayload();
+
+        long start = meetingEntity.getStartTime().toEpochSecond();
+        long end = meetingEntity.getEndTime().toEpochSecond();
+        assertAll(
+                () -> assertEquals(start - 180 * 60, utc.getNotBefore().getTime() / 1000),
+                () -> assertEquals(end + 60 * 60, utc.getExpiration().getTime() / 1000),
+                () -> assertEquals(utc.getNotBefore(), berlin.getNotBefore()),
+                () -> assertEquals(utc.getExpiration(), berlin.getExpiration()),
+                () -> assertNotNull(berlin.getIssuedAt())
+        );
+    }
+}
@@ -0,0 +1,147 @@
+package net.nordeck.ovc.backend.service;
+
+import net.nordeck.ovc.backend.service.JobShardService.IdRange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class JobShardServiceImplTest
+{
+    private static final String JOB = "TestJob";
+
+    @Autowired
+    private JobShardServiceImpl service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @BeforeEach
+    void init()
+    {
+        service.shards = 4;
+        service.pollIntervalInMillis = 100;
+        service.maxWaitInSeconds = 0;
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        jdbcTemplate.update("DELETE FROM job_shard_lease");
+    }
+
+    @Test
+    void range_coversIdSpaceWithoutGaps()
+    {
+        List<IdRange> ranges = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++)
+        {
+            ranges.add(JobShardServiceImpl.range(shard, 3));
+        }
+
+        assertEquals(new UUID(0L, 0L), ranges.get(0).from());
+        assertEquals(new UUID(-1L, -1L), ranges.get(2).to());
+        for (int i = 1; i < ranges.size(); i++)
+        {
+            UUID previousTo = ranges.get(i - 1).to();
+            assertEquals(-1L, previousTo.getLeastSignificantBits());
+            assertEquals(previousTo.getMostSignificantBits() + 1, ranges.get(i).from().getMostSignificantBits());
+        }
+    }
+
+    @Test
+    void runShards_worksOffEveryShardOncePerRun()
+    {
+        List<IdRange> worked = new ArrayList<>();
+
+        assertEquals(4, service.runShards(JOB, worked::add));
+        assertEquals(4, worked.stream().distinct().count());
+
+        // completed in this run
+        assertEquals(0, service.runShards(JOB, worked::add));
+        assertEquals(4, worked.size());
+    }
+
+    @Test
+    void runShards_takesOverExpiredLease()
+    {
+        service.runShards(JOB, range -> {});
+        jdbcTemplate.update("UPDATE job_shard_lease SET completed_at = NULL, owner = 'dead-node', expires_at = ? " +
+                            "WHERE job_name = ? AND shard = 2", OffsetDateTime.now().minusMinutes(5), JOB);
+
+        List<IdRange> worked = new ArrayList<>();
+
+        assertEquals(1, service.runShards(JOB, worked::add));
+        assertEquals(List.of(JobShardServiceImpl.range(2, 4)), worked);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_shard_lease WHERE owner IS NOT NULL",
+                                                    Integer.class));
+    }
+
+    @Test
+    void runShards_returnsAfterMaxWaitWhileOtherNodeHoldsLease()
+    {
+        service.runShards(JOB, range -> {});
+        jdbcTemplate.update("UPDATE job_shard_lease SET completed_at = NULL, owner = 'other-node', expires_at = ? " +
+                            "WHERE job_name = ? AND shard = 1", OffsetDateTime.now().plusMinutes(5), JOB);
+        jdbcTemplate.update("UPDATE job_shard_lease SET completed_at = NULL WHERE job_name = ? AND shard = 3", JOB);
+
+        List<IdRange> worked = new ArrayList<>();
+
+        assertEquals(1, service.runShards(JOB, worked::add));
+        assertEquals(List.of(JobShardServiceImpl.range(3, 4)), worked);
+        assertEquals("other-node", jdbcTemplate.queryForObject(
+                "SELECT owner FROM job_shard_lease WHERE job_name = ? AND shard = 1", String.class, JOB));
+    }
+
+    @Test
+    void runShards_takesOverLeaseExpiringDuringRun()
+    {
+        service.maxWaitInSeconds = 30;
+        service.runShards(JOB, range -> {});
+        jdbcTemplate.update("UPDATE job_shard_lease SET completed_at = NULL, owner = 'dying-node', expires_at = ? " +
+                            "WHERE job_name = ? AND shard = 1", OffsetDateTime.now().plusSeconds(1), JOB);
+        jdbcTemplate.update("UPDATE job_shard_lease SET completed_at = NULL WHERE job_name = ? AND shard = 3", JOB);
+
+        List<IdRange> worked = new ArrayList<>();
+
+        assertEquals(2, service.runShards(JOB, worked::add));
+        assertEquals(List.of(JobShardServiceImpl.range(3, 4), JobShardServiceImpl.range(1, 4)), worked);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_shard_lease WHERE owner IS NOT NULL",
+                                                    Integer.class));
+    }
+
+    @Test
+    void scheduler_runsTasksInParallel()
+    {
+        // a purge job working off its shards does not hold back the other scheduled tasks
+        assertTrue(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize() > 1);
+    }
+
+    @Test
+    void runShards_releasesShardOnFailure()
+    {
+        assertThrows(IllegalStateException.class, () -> service.runShards(JOB, range -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM job_shard_lease WHERE owner IS NOT NULL OR completed_at IS NOT NULL",
+                Integer.class));
+    }
+}
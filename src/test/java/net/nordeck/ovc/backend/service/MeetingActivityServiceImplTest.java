@@ -0,0 +1,223 @@
+package net.nordeck.ovc.backend.service;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.dto.JitsiEventDTO;
+import net.nordeck.ovc.backend.dto.JitsiEventType;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingParticipantListItem;
+import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeetingActivityServiceImplTest
+{
+    private static final String SECRET = "test-event-secret";
+
+    private static final ZonedDateTime LAST_VISIT = ZonedDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MeetingActivityService service;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MeetingEntity meeting;
+
+    @BeforeEach
+    void initData()
+    {
+        service.flush();
+        meeting = meetingRepository.save(MeetingEntity.builder().name("Room").frequency("ONCE").build());
+        // set on creation
+        meeting.setLastVisitDate(LAST_VISIT);
+        meeting = meetingRepository.save(meeting);
+        participantRepository.save(MeetingParticipantEntity.builder().meetingId(meeting.getId())
+                                           .email(TestUtils.OWNER_EMAIL).role("MODERATOR").build());
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        SecurityContextHolder.clearContext();
+        sendEvent(JitsiEventType.ROOM_DESTROYED, meeting.getId().toString());
+        service.flush();
+        List<MeetingParticipantListItem> participants = participantRepository.findAllByMeetingIdIn(List.of(meeting.getId()));
+        participantRepository.deleteAllById(participants.stream().map(MeetingParticipantListItem::getId).toList());
+        meetingRepository.deleteById(meeting.getId());
+    }
+
+    @Test
+    void handleEvent_writesStartAndLastVisitOnFlush()
+    {
+        ZonedDateTime before = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        sendEvent(JitsiEventType.ROOM_CREATED, meeting.getId().toString());
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, meeting.getId().toString());
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, meeting.getId().toString());
+
+        MeetingEntity unchanged = meetingRepository.findById(meeting.getId()).orElseThrow();
+        assertNull(unchanged.getStartedAt());
+        assertEquals(LAST_VISIT.toInstant(), unchanged.getLastVisitDate().toInstant());
+
+        service.flush();
+
+        MeetingEntity updated = meetingRepository.findById(meeting.getId()).orElseThrow();
+        assertNotNull(updated.getStartedAt());
+        assertFalse(updated.getStartedAt().isBefore(before));
+        assertNotNull(updated.getLastVisitDate());
+        assertFalse(updated.getLastVisitDate().isBefore(before));
+    }
+
+    @Test
+    void recordVisit_writesLatestVisitsInBatches()
+    {
+        MeetingEntity other = meetingRepository.save(MeetingEntity.builder().name("Other").frequency("ONCE").build());
+        other.setLastVisitDate(LAST_VISIT);
+        other = meetingRepository.save(other);
+        MeetingEntity future = meetingRepository.save(MeetingEntity.builder().name("Future").frequency("ONCE").build());
+        future.setLastVisitDate(LAST_VISIT.plusYears(1));
+        future = meetingRepository.save(future);
+        ((MeetingActivityServiceImpl) service).flushBatchSize = 2;
+        try
+        {
+            service.recordVisit(meeting.getId());
+            service.recordVisit(other.getId());
+            service.recordVisit(future.getId());
+            service.recordVisit(meeting.getId());
+            service.flush();
+
+            assertTrue(meetingRepository.findById(meeting.getId()).orElseThrow().getLastVisitDate().isAfter(LAST_VISIT));
+            assertTrue(meetingRepository.findById(other.getId()).orElseThrow().getLastVisitDate().isAfter(LAST_VISIT));
+            // a later visit is never overwritten
+            assertEquals(LAST_VISIT.plusYears(1).toInstant(),
+                         meetingRepository.findById(future.getId()).orElseThrow().getLastVisitDate().toInstant());
+        }
+        finally
+        {
+            ((MeetingActivityServiceImpl) service).flushBatchSize = 1000;
+            meetingRepository.deleteAllById(List.of(other.getId(), future.getId()));
+        }
+    }
+
+    @Test
+    void handleEvent_keepsFirstStart()
+    {
+        ZonedDateTime startedAt = ZonedDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        meeting.setStartedAt(startedAt);
+        meeting = meetingRepository.save(meeting);
+
+        sendEvent(JitsiEventType.ROOM_CREATED, meeting.getId().toString());
+        service.flush();
+
+        MeetingEntity updated = meetingRepository.findById(meeting.getId()).orElseThrow();
+        assertEquals(startedAt.toInstant(), updated.getStartedAt().toInstant());
+        assertTrue(updated.getLastVisitDate().isAfter(LAST_VISIT));
+    }
+
+    @Test
+    void getOccupancy_countsJoinedParticipants()
+    {
+        TestUtils.initSecurityContext(null, null);
+        String room = meeting.getId().toString();
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, room);
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, room);
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, room);
+        sendEvent(JitsiEventType.PARTICIPANT_LEFT, room);
+        assertEquals(2, service.getOccupancy(meeting.getId()).getParticipants());
+
+        service.flush();
+        service.handleEvent(SECRET, new JitsiEventDTO(JitsiEventType.PARTICIPANT_JOINED, room, true));
+        sendEvent(JitsiEventType.PARTICIPANT_JOINED, "lobby-room");
+        assertEquals(2, service.getOccupancy(meeting.getId()).getParticipants());
+
+        sendEvent(JitsiEventType.ROOM_DESTROYED, room);
+        assertEquals(0, service.getOccupancy(meeting.getId()).getParticipants());
+    }
+
+    @Test
+    void getOccupancy_sumsCountsOfAllNodes()
+    {
+        TestUtils.initSecurityContext(null, null);
+        String room = meeting.getId().toString();
+        // joined through another node, one of them leaves through this one
+        jdbcTemplate.update("INSERT INTO meeting_occupancy (node_id, meeting_id, participants) VALUES (?, ?, ?)",
+                            "other-node", meeting.getId(), 3);
+        sendEvent(JitsiEventType.PARTICIPANT_LEFT, room);
+        service.flush();
+
+        assertEquals(2, service.getOccupancy(meeting.getId()).getParticipants());
+        assertEquals(-1, jdbcTemplate.queryForObject(
+                "SELECT participants FROM meeting_occupancy WHERE meeting_id = ? AND node_id <> 'other-node'",
+                Integer.class, meeting.getId()));
+
+        sendEvent(JitsiEventType.ROOM_DESTROYED, room);
+        service.flush();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meeting_occupancy WHERE meeting_id = ?",
+                                                    Integer.class, meeting.getId()));
+    }
+
+    @Test
+    void updateLastVisits_movesLastVisitForward()
+    {
+        // run directly, flush() keeps the visits for a retry when the statement fails
+        MeetingEntity future = meetingRepository.save(MeetingEntity.builder().name("Future").frequency("ONCE").build());
+        future.setLastVisitDate(LAST_VISIT.plusYears(1));
+        future = meetingRepository.save(future);
+        Instant visit = LAST_VISIT.plusDays(1).toInstant();
+        try
+        {
+            int updated = ((MeetingActivityServiceImpl) service).updateLastVisits(
+                    List.of(Map.entry(meeting.getId(), visit), Map.entry(future.getId(), visit),
+                            Map.entry(UUID.randomUUID(), visit)));
+
+            assertEquals(1, updated);
+            assertEquals(visit,
+                         meetingRepository.findById(meeting.getId()).orElseThrow().getLastVisitDate().toInstant());
+            assertEquals(LAST_VISIT.plusYears(1).toInstant(),
+                         meetingRepository.findById(future.getId()).orElseThrow().getLastVisitDate().toInstant());
+        }
+        finally
+        {
+            meetingRepository.deleteById(future.getId());
+        }
+    }
+
+    @Test
+    void handleEvent_rejectsInvalidSecret()
+    {
+        JitsiEventDTO event = new JitsiEventDTO(JitsiEventType.ROOM_CREATED, meeting.getId().toString(), false);
+        assertThrows(AccessDeniedException.class, () -> service.handleEvent("wrong", event));
+        assertThrows(AccessDeniedException.class, () -> service.handleEvent(null, event));
+    }
+
+    private void sendEvent(JitsiEventType type, String room)
+    {
+        service.handleEvent(SECRET, new JitsiEventDTO(type, room, false));
+    }
+}
@@ -3,10 +3,12 @@ package net.nordeck.ovc.backend.service;
 import net.nordeck.ovc.backend.TestUtils;
 import net.nordeck.ovc.backend.dto.MeetingParticipantDTO;
 import net.nordeck.ovc.backend.dto.MeetingParticipantRequestDTO;
+import net.nordeck.ovc.backend.dto.MeetingParticipantRoleRequestDTO;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -19,11 +21,17 @@ import org.springframework.security.core.Authentication;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import static net.nordeck.ovc.backend.TestUtils.OWNER_EMAIL;
+import static net.nordeck.ovc.backend.dto.Role.GUEST;
 import static net.nordeck.ovc.backend.dto.Role.ORGANIZER;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,13 +81,18 @@ public class MeetingParticipantServiceImplTest
     {
         MeetingParticipantRequestDTO requestDTO = new MeetingParticipantRequestDTO(ORGANIZER, "email");
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        MeetingParticipantEntity participant = TestUtils.getMeetingParticipantEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
-        when(participantRepository.save(any())).thenReturn(participant);
+        meeting.setStaticRoom(true);
+        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+        when(participantRepository.insertIfAbsent(any(), eq(meeting.getId()), isNull(), eq(ORGANIZER.getValue()),
+                                                  eq("email"), any())).thenReturn(1);
 
-        service.create(participant.getMeetingId(), requestDTO);
+        MeetingParticipantDTO created = service.create(meeting.getId(), requestDTO);
 
-        verify(participantRepository, times(1)).save(any(MeetingParticipantEntity.class));
+        assertNotNull(created.getId());
+        assertEquals("email", created.getEmail());
+        verify(meetingRepository, never()).findWithParticipantsById(any());
+        verify(participantRepository, never()).save(any());
+        verify(notificationService, times(1)).enqueueParticipantAddedNotifications(eq(meeting), anyList(), eq(false));
     }
 
     @Test
@@ -87,11 +100,12 @@ public class MeetingParticipantServiceImplTest
     {
         MeetingParticipantRequestDTO requestDTO = new MeetingParticipantRequestDTO(ORGANIZER, OWNER_EMAIL);
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        MeetingParticipantEntity participant = TestUtils.getMeetingParticipantEntity();
         when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(participantRepository.insertIfAbsent(any(), any(), any(), any(), any(), any())).thenReturn(0);
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.create(participant.getMeetingId(), requestDTO));
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.create(meeting.getId(), requestDTO));
         assertTrue(ex.getLocalizedMessage().contains("Participant already exists with email <"));
+        verify(notificationService, never()).enqueueParticipantAddedNotifications(any(), any(), anyBoolean());
     }
 
     @Test
@@ -107,6 +121,40 @@ public class MeetingParticipantServiceImplTest
         verify(participantRepository, times(1)).save(entity);
     }
 
+    @Test
+    void update_throwsForEmailOfOtherParticipant()
+    {
+        MeetingParticipantRequestDTO requestDTO = new MeetingParticipantRequestDTO(ORGANIZER, "Other@mail.com");
+        MeetingParticipantEntity entity = TestUtils.getMeetingParticipantEntity();
+        MeetingParticipantEntity other = TestUtils.getMeetingParticipantEntity();
+        other.setId(UUID.randomUUID());
+        other.setEmail("other@mail.com");
+        when(participantRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+        when(participantRepository.findAllByMeetingIdInAndEmail(List.of(entity.getMeetingId()), "Other@mail.com"))
+                .thenReturn(List.of(other));
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                                           () -> service.update(entity.getMeetingId(), entity.getId(), requestDTO));
+
+        assertEquals("Participant already exists with email <Other@mail.com>.", ex.getMessage());
+        verify(participantRepository, never()).save(any());
+    }
+
+    @Test
+    void update_allowsChangingTheCaseOfTheOwnEmail()
+    {
+        MeetingParticipantRequestDTO requestDTO = new MeetingParticipantRequestDTO(ORGANIZER, "EMAIL");
+        MeetingParticipantEntity entity = TestUtils.getMeetingParticipantEntity();
+        when(participantRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+        when(participantRepository.findAllByMeetingIdInAndEmail(List.of(entity.getMeetingId()), "EMAIL"))
+                .thenReturn(List.of(entity));
+        when(participantRepository.save(any())).thenReturn(entity);
+
+        service.update(entity.getMeetingId(), entity.getId(), requestDTO);
+
+        verify(participantRepository, times(1)).save(entity);
+    }
+
     @Test
     void delete_success()
     {
@@ -122,4 +170,93 @@ public class MeetingParticipantServiceImplTest
 
         verify(participantRepository, times(1)).deleteById(participant.getId());
     }
+
+    @Test
+    void createAll_skipsExistingAndRepeatedEmails()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        meeting.setStaticRoom(true);
+        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+        when(participantRepository.findExistingEmails(meeting.getId(), Set.of("A@MAIL.COM", "B@MAIL.COM")))
+                .thenReturn(Set.of("A@MAIL.COM"));
+        when(participantRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MeetingParticipantDTO> created = service.createAll(meeting.getId(), List.of(
+                new MeetingParticipantRequestDTO(GUEST, "a@mail.com"),
+                new MeetingParticipantRequestDTO(GUEST, " b@mail.com"),
+                new MeetingParticipantRequestDTO(ORGANIZER, "B@mail.com")));
+
+        assertEquals(1, created.size());
+        assertEquals("B@mail.com", created.get(0).getEmail());
+        assertEquals(ORGANIZER, created.get(0).getRole());
+        verify(participantRepository, never()).save(any());
+        verify(notificationService, times(1))
+                .enqueueParticipantAddedNotifications(eq(meeting), anyList(), eq(false));
+    }
+
+    @Test
+    void createAll_throwsForMissingEmail()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+
+        assertThrows(InvalidRequestException.class, () -> service.createAll(
+                meeting.getId(), List.of(new MeetingParticipantRequestDTO(GUEST, " "))));
+        verify(participantRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createAll_throwsForTooManyParticipants()
+    {
+        service.bulkMaxSize = 1;
+        List<MeetingParticipantRequestDTO> dtos = List.of(new MeetingParticipantRequestDTO(GUEST, "a@mail.com"),
+                                                          new MeetingParticipantRequestDTO(GUEST, "b@mail.com"));
+
+        assertThrows(InvalidRequestException.class, () -> service.createAll(TestUtils.meetingId, dtos));
+        verifyNoInteractions(meetingRepository, participantRepository);
+    }
+
+    @Test
+    void updateRoles_success()
+    {
+        MeetingParticipantEntity participant = TestUtils.getMeetingParticipantEntity();
+        when(participantRepository.findAllByMeetingIdAndIdIn(participant.getMeetingId(), Set.of(participant.getId())))
+                .thenReturn(List.of(participant));
+        when(participantRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MeetingParticipantDTO> updated = service.updateRoles(participant.getMeetingId(), List.of(
+                new MeetingParticipantRoleRequestDTO(participant.getId(), GUEST)));
+
+        assertEquals(GUEST, updated.get(0).getRole());
+        assertEquals(GUEST.getValue(), participant.getRole());
+    }
+
+    @Test
+    void updateRoles_throwsForParticipantOfOtherMeeting()
+    {
+        UUID unknown = UUID.randomUUID();
+        when(participantRepository.findAllByMeetingIdAndIdIn(any(), any())).thenReturn(List.of());
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> service.updateRoles(
+                TestUtils.meetingId, List.of(new MeetingParticipantRoleRequestDTO(unknown, GUEST))));
+        assertTrue(ex.getMessage().contains(unknown.toString()));
+        verify(participantRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void deleteAll_success()
+    {
+        MeetingParticipantEntity participant = TestUtils.getMeetingParticipantEntity();
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        meeting.setStaticRoom(true);
+        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(participantRepository.findAllByMeetingIdAndIdIn(participant.getMeetingId(), Set.of(participant.getId())))
+                .thenReturn(List.of(participant));
+
+        service.deleteAll(participant.getMeetingId(), List.of(participant.getId(), participant.getId()));
+
+        verify(notificationService, times(1)).enqueueParticipantDeletedNotifications(meeting, List.of(participant));
+        verify(participantRepository, times(1)).deleteAllInBatch(List.of(participant));
+        verify(participantRepository, never()).deleteById(any());
+    }
 }
\ No newline at end of file
@@ -2,21 +2,26 @@ package net.nordeck.ovc.backend.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.cache.MeetingBasicCache;
 import net.nordeck.ovc.backend.dto.*;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingListItem;
+import net.nordeck.ovc.backend.repository.MeetingParticipantListItem;
 import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
 import net.nordeck.ovc.backend.repository.MeetingRepository;
-import net.nordeck.ovc.backend.repository.NotificationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -31,6 +36,7 @@ import static net.nordeck.ovc.backend.Constants.NO_MEETING_FOUND_FOR_ID;
 import static net.nordeck.ovc.backend.dto.RecurrenceFrequency.DAILY;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles(value = "test")
@@ -44,9 +50,6 @@ public class MeetingServiceImplTest
     @Mock
     MeetingParticipantRepository participantRepository;
 
-    @Mock
-    NotificationRepository notificationRepository;
-
     @Mock
     KeycloakClientService keycloakClientService;
 
@@ -58,18 +61,29 @@ public class MeetingServiceImplTest
     @Mock
     private NotificationService notificationService;
 
+    private ConferencePinService conferencePinService;
+
+    private MeetingActivityService meetingActivityService;
+
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     void setUp()
     {
         meetingRepository = Mockito.mock(MeetingRepository.class);
-        notificationRepository = Mockito.mock(NotificationRepository.class);
         notificationService = Mockito.mock(NotificationServiceImpl.class);
+        conferencePinService = Mockito.mock(ConferencePinService.class);
+        meetingActivityService = Mockito.mock(MeetingActivityService.class);
+        when(conferencePinService.nextPin()).thenAnswer(invocation -> UUID.randomUUID().toString());
         meetingService = new MeetingServiceImpl(
                 meetingRepository,
                 participantRepository,
-                notificationRepository,
                 notificationService,
-                keycloakClientService);
+                keycloakClientService,
+                new MeetingBasicCache(true, 30, 100, Mockito.mock(ObjectProvider.class),
+                                      Mockito.mock(ObjectProvider.class)),
+                conferencePinService,
+                meetingActivityService);
         meetingService.sipPhoneNumber = "+49 40 3003 5005";
         meetingService.sipJibriLink = "112233@sip.nordeck.io";
     }
@@ -81,7 +95,7 @@ public class MeetingServiceImplTest
         ZonedDateTime endDateTime = startDateTime.plusWeeks(4);
         MeetingEntity entity1 = TestUtils.getMeetingEntity();
         MeetingEntity entity2 = TestUtils.getMeetingEntity();
-        Page<MeetingEntity> toReturn = new PageImpl<>(List.of(entity1, entity2));
+        Page<MeetingListItem> toReturn = new PageImpl<>(List.of(toListItem(entity1), toListItem(entity2)));
 
         when(meetingRepository.findAllNormalMeetings(any(), any(), any(), any())).thenReturn(toReturn);
 
@@ -90,6 +104,29 @@ public class MeetingServiceImplTest
         assertEquals(2, page.getPageItems());
     }
 
+    @Test
+    void getMeetings_participantsAreLoadedForTheWholePage()
+    {
+        MeetingEntity entity1 = TestUtils.getMeetingEntity();
+        entity1.setId(UUID.randomUUID());
+        MeetingEntity entity2 = TestUtils.getMeetingEntity();
+        entity2.setId(UUID.randomUUID());
+        MeetingParticipantEntity participant = TestUtils.getMeetingParticipantEntity();
+        participant.setMeetingId(entity2.getId());
+        Page<MeetingListItem> toReturn = new PageImpl<>(List.of(toListItem(entity1), toListItem(entity2)));
+
+        when(meetingRepository.findAllStaticRooms(any(), any())).thenReturn(toReturn);
+        when(participantRepository.findAllByMeetingIdIn(List.of(entity1.getId(), entity2.getId())))
+                .thenReturn(List.of(PROJECTION_FACTORY.createProjection(MeetingParticipantListItem.class, participant)));
+
+        MeetingsPageDTO page = meetingService.getMeetingsPage("static", 0, 10, "asc", null, null);
+
+        assertTrue(page.getContent().get(0).getParticipants().isEmpty());
+        assertEquals(participant.getId(), page.getContent().get(1).getParticipants().get(0).getId());
+        assertEquals(entity2.getConferencePin(), page.getContent().get(1).getConferencePin());
+        verify(participantRepository, times(1)).findAllByMeetingIdIn(any());
+    }
+
     @Test
     void getMeetings_static_success()
     {
@@ -97,7 +134,7 @@ public class MeetingServiceImplTest
         ZonedDateTime endDateTime = startDateTime.plusWeeks(4);
         MeetingEntity entity1 = TestUtils.getMeetingEntity();
         MeetingEntity entity2 = TestUtils.getMeetingEntity();
-        Page<MeetingEntity> toReturn = new PageImpl<>(List.of(entity1, entity2));
+        Page<MeetingListItem> toReturn = new PageImpl<>(List.of(toListItem(entity1), toListItem(entity2)));
 
         when(meetingRepository.findAllStaticRooms(any(), any())).thenReturn(toReturn);
 
@@ -114,7 +151,7 @@ public class MeetingServiceImplTest
         ZonedDateTime startDateTime = ZonedDateTime.now();
         ZonedDateTime endDateTime = startDateTime.plusWeeks(4);
         MeetingEntity entity1 = TestUtils.getMeetingEntity();
-        Page<MeetingEntity> toReturn = new PageImpl<>(List.of(entity1));
+        Page<MeetingListItem> toReturn = new PageImpl<>(List.of(toListItem(entity1)));
 
         when(meetingRepository.findAllInstantMeetings(any(), any())).thenReturn(toReturn);
 
@@ -477,7 +514,7 @@ public class MeetingServiceImplTest
     void findById_success()
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(meeting.getId())).thenReturn(Optional.of(meeting));
 
         MeetingDTO dto = meetingService.findById(meeting.getId());
         assertEquals(meeting.getId(), dto.getId());
@@ -495,6 +532,32 @@ public class MeetingServiceImplTest
         assertEquals(meeting.getName(), dto.getName());
     }
 
+    @Test
+    void findBasicById_isServedFromCache()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+
+        meetingService.findBasicById(meeting.getId());
+        MeetingBasicDTO dto = meetingService.findBasicById(meeting.getId());
+
+        assertEquals(meeting.getId(), dto.getId());
+        verify(meetingRepository, times(1)).findById(meeting.getId());
+    }
+
+    @Test
+    void findBasicById_isReloadedAfterDelete()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
+
+        meetingService.findBasicById(meeting.getId());
+        meetingService.delete(meeting.getId());
+        meetingService.findBasicById(meeting.getId());
+
+        verify(meetingRepository, times(3)).findById(meeting.getId());
+    }
+
     @Test
     void handleStaticRoom()
     {
@@ -513,10 +576,13 @@ public class MeetingServiceImplTest
         MeetingEntity meeting = TestUtils.getMeetingEntity();
         when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.of(meeting));
 
+        meetingService.updateStaticRoomsLastVisitDate(meeting.getId());
         meetingService.updateStaticRoomsLastVisitDate(meeting.getId());
 
+        // the second existence check is served by the cache
         verify(meetingRepository, times(1)).findById(meeting.getId());
-        verify(meetingRepository, times(1)).save(meeting);
+        verify(meetingRepository, never()).save(any());
+        verify(meetingActivityService, times(2)).recordVisit(meeting.getId());
     }
 
     @Test
@@ -527,6 +593,7 @@ public class MeetingServiceImplTest
 
         Exception ex = assertThrows(EntityNotFoundException.class,
                                     () -> meetingService.updateStaticRoomsLastVisitDate(meeting.getId()));
+        verifyNoInteractions(meetingActivityService);
 
         assertTrue(ex.getMessage().contains(String.format(NO_MEETING_FOUND_FOR_ID, meeting.getId())));
     }
@@ -535,7 +602,7 @@ public class MeetingServiceImplTest
     void findById_throwsEntityNotFoundException()
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(meeting.getId())).thenReturn(Optional.empty());
+        when(meetingRepository.findWithParticipantsById(meeting.getId())).thenReturn(Optional.empty());
 
         Exception ex = assertThrows(EntityNotFoundException.class,
                                     () -> meetingService.findById(meeting.getId()));
@@ -607,66 +674,58 @@ public class MeetingServiceImplTest
 
 
     @Test
-    void getUniqueConferencePin_success()
+    void create_usesPinFromPool()
     {
         MeetingCreateDTO dto = TestUtils.getMeetingCreateDTO(false, 0);
 
         MeetingParticipantEntity participantEntity = TestUtils.getMeetingParticipantEntity();
-        when(meetingRepository.save(any())).thenAnswer(invocation -> {
-            MeetingEntity e = invocation.getArgument(0, MeetingEntity.class);
-            e.setId(UUID.randomUUID());
-            return e;
-        });
+        when(meetingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0, MeetingEntity.class));
         when(participantRepository.saveAll(any())).thenReturn(List.of(participantEntity));
-
-        // this should help with testing the random generator
-        final ArrayList<String> mockDB = new ArrayList<>();
-        when(meetingRepository.existsByConferencePin(anyString())).thenAnswer(invocation -> {
-            String pin = invocation.getArgument(0, String.class);
-            return mockDB.stream()
-                    .filter(s -> s.equals(pin))
-                    .findAny()
-                    .map(o -> true)
-                    .orElseGet(() -> {
-                        mockDB.add(pin);
-                        return false;
-                    });
-        });
-
-        // meetingService.create will always generate a new Pin
+        when(conferencePinService.nextPin()).thenReturn("1234567890");
 
         String conferencePin = meetingService.create(dto).getConferencePin();
-        assertNotNull(conferencePin);
-
-        String conferencePin2 = meetingService.create(dto).getConferencePin();
-        assertNotNull(conferencePin2);
-
-        // 2 generated pins should be different
-        assertNotEquals(conferencePin, conferencePin2);
 
-        verify(meetingRepository, times(2)).existsByConferencePin(anyString());
+        assertEquals("1234567890", conferencePin);
+        verify(conferencePinService, times(1)).nextPin();
+        verify(meetingRepository, never()).existsByConferencePin(anyString());
     }
 
     @Test
-    void getUniqueConferencePin_rngAccident() {
+    void create_noPinAvailable_throwsException()
+    {
         MeetingCreateDTO dto = TestUtils.getMeetingCreateDTO(false, 0);
+        when(conferencePinService.nextPin()).thenThrow(new RuntimeException(ConferencePinServiceImpl.ERR_NO_CONFERENCE_PIN));
 
-        MeetingParticipantEntity participantEntity = TestUtils.getMeetingParticipantEntity();
-        when(meetingRepository.save(any())).thenAnswer(invocation -> {
-            MeetingEntity e = invocation.getArgument(0, MeetingEntity.class);
-            e.setId(UUID.randomUUID());
-            return e;
-        });
-        when(participantRepository.saveAll(any())).thenReturn(List.of(participantEntity));
+        assertThrows(RuntimeException.class, () -> meetingService.create(dto));
+        verify(meetingRepository, never()).save(any());
+    }
 
-        // triggers some DB problem or random generator failure
-        when(meetingRepository.existsByConferencePin(anyString())).thenReturn(true);
+    @Test
+    void createAll_reservesPinsAndSavesInBatches()
+    {
+        MeetingCreateDTO series = TestUtils.getMeetingCreateDTO(true, 3);
+        series.getRecurrence().setWeekDays(new WeekDays());
+        MeetingCreateDTO single = TestUtils.getMeetingCreateDTO(false, 0);
+        single.setParticipants(new ArrayList<>(List.of(new MeetingParticipantRequestDTO(Role.GUEST, "guest@nordeck.net"))));
+        when(conferencePinService.nextPins(2)).thenReturn(List.of("1111111111", "2222222222"));
+        when(meetingRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<MeetingEntity>(
+                invocation.getArgument(0, List.class)));
 
-        assertThrows(RuntimeException.class,
-                () -> meetingService.create(dto));
+        List<MeetingDTO> created = meetingService.createAll(List.of(series, single));
 
-        // it tried several times to generate a pin and eventually failed (didn't loop forever)
-        verify(meetingRepository, atLeast(5)).existsByConferencePin(anyString());
+        assertEquals(2, created.size());
+        assertEquals("1111111111", created.get(0).getConferencePin());
+        assertEquals("2222222222", created.get(1).getConferencePin());
+        assertEquals(1, created.get(0).getParticipants().size());
+        assertEquals(2, created.get(1).getParticipants().size());
+        // the given participants are not changed
+        assertEquals(1, single.getParticipants().size());
+        verify(conferencePinService, never()).nextPin();
+        verify(meetingRepository, never()).save(any());
+        verify(meetingRepository, times(1)).saveAll(argThat((List<MeetingEntity> children) -> children.size() == 3 &&
+                children.stream().allMatch(c -> "1111111111".equals(c.getConferencePin()))));
+        // owner of the parent and the 3 children, owner and guest of the single meeting
+        verify(participantRepository, times(1)).saveAll(argThat((List<MeetingParticipantEntity> p) -> p.size() == 6));
     }
 
     @Test
@@ -679,4 +738,9 @@ public class MeetingServiceImplTest
         }
         assertFalse(meetingService.startCustomWeekDayIsTodayAndNotSet(parent, 8, 8));
     }
-}
\ No newline at end of file
+
+    private static MeetingListItem toListItem(MeetingEntity entity)
+    {
+        return PROJECTION_FACTORY.createProjection(MeetingListItem.class, entity);
+    }
+}
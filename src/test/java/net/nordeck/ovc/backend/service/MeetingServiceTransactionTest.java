@@ -0,0 +1,93 @@
+package net.nordeck.ovc.backend.service;
+
+import net.nordeck.ovc.backend.TestUtils;
+import net.nordeck.ovc.backend.configuration.RequestQueryStats;
+import net.nordeck.ovc.backend.dto.MeetingsPageDTO;
+import net.nordeck.ovc.backend.entity.MeetingEntity;
+import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
+import net.nordeck.ovc.backend.repository.MeetingParticipantRepository;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Checks the transaction boundaries of the read paths: with open-session-in-view turned off, every statement of a
+ * request outside of a service transaction would take its own connection and session.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeetingServiceTransactionTest
+{
+    private static final String USER = "transaction.user@nordeck.net";
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    @SpyBean
+    private RequestQueryStats requestQueryStats;
+
+    private MeetingEntity room;
+
+    private final List<String> transactions = new ArrayList<>();
+
+    @BeforeEach
+    void initData()
+    {
+        TestUtils.initSecurityContext(USER, null);
+        room = meetingRepository.save(MeetingEntity.builder().name("Transaction Room").frequency("ONCE")
+                                              .staticRoom(true).build());
+        participantRepository.save(MeetingParticipantEntity.builder().meetingId(room.getId()).email(USER)
+                                           .role("MODERATOR").build());
+
+        // the transaction each statement is prepared in
+        doAnswer(invocation ->
+        {
+            boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            transactions.add(TransactionSynchronizationManager.getCurrentTransactionName() +
+                                     (readOnly ? " (read-only)" : ""));
+            return invocation.callRealMethod();
+        }).when(requestQueryStats).inspect(anyString());
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        SecurityContextHolder.clearContext();
+        participantRepository.deleteAll(
+                participantRepository.findAllByMeetingIdInAndEmail(List.of(room.getId()), USER));
+        meetingRepository.deleteById(room.getId());
+    }
+
+    @Test
+    void getMeetingsPage_isServedInOneReadOnlyTransaction()
+    {
+        MeetingsPageDTO page = meetingService.getMeetingsPage("static", 0, 10, "asc", null, null);
+
+        assertEquals(1, page.getPageItems());
+        assertEquals(USER, page.getContent().get(0).getParticipants().get(0).getEmail());
+        // the page query and the participants of the page
+        assertTrue(transactions.size() >= 2, transactions::toString);
+        assertEquals(List.of(MeetingServiceImpl.class.getName() + ".getMeetingsPage (read-only)"),
+                     transactions.stream().distinct().toList());
+    }
+}
@@ -9,11 +9,15 @@ import net.nordeck.ovc.backend.dto.Role;
 import net.nordeck.ovc.backend.entity.MeetingEntity;
 import net.nordeck.ovc.backend.entity.MeetingParticipantEntity;
 import net.nordeck.ovc.backend.entity.NotificationEntity;
+import net.nordeck.ovc.backend.entity.NotificationOutboxEntity;
+import net.nordeck.ovc.backend.repository.MeetingRepository;
+import net.nordeck.ovc.backend.repository.NotificationOutboxRepository;
 import net.nordeck.ovc.backend.repository.NotificationRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,11 +27,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static net.nordeck.ovc.backend.service.NotificationService.PARTICIPANT_ADDED;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -39,6 +47,12 @@ public class NotificationServiceImplTest
     @Mock
     private NotificationRepository repository;
 
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private MeetingRepository meetingRepository;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -129,6 +143,97 @@ public class NotificationServiceImplTest
         verify(repository, times(1)).saveAll(anyList());
     }
 
+    @Test
+    void enqueueParticipantAddedNotifications_savesOneOutboxEntry()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        MeetingParticipantEntity p1 = meeting.getParticipants().get(0);
+        MeetingParticipantEntity p2 = meeting.getParticipants().get(1);
+
+        service.enqueueParticipantAddedNotifications(meeting, List.of(p1, p2), false);
+
+        ArgumentCaptor<NotificationOutboxEntity> captor = ArgumentCaptor.forClass(NotificationOutboxEntity.class);
+        verify(outboxRepository, times(1)).save(captor.capture());
+        verify(repository, never()).saveAll(anyList());
+        NotificationOutboxEntity entry = captor.getValue();
+        assertEquals(meeting.getId(), entry.getMeetingId());
+        assertEquals(PARTICIPANT_ADDED, entry.getType());
+        assertFalse(entry.getRecipientList().contains(meeting.getOwnerId()));
+    }
+
+    @Test
+    void enqueueParticipantDeletedNotifications_skipsEmptyRecipients()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+
+        service.enqueueParticipantDeletedNotifications(meeting, List.of());
+
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void dispatchOutboxEntries_createsNotificationsAndDeletesEntries()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        NotificationOutboxEntity entry = getOutboxEntry(meeting, false);
+        when(outboxRepository.findAllByIdInOrderByCreatedAtAsc(List.of(entry.getId()))).thenReturn(List.of(entry));
+        when(repository.findMaterialisedOutboxIds(List.of(entry.getId()))).thenReturn(Set.of());
+        when(meetingRepository.findAllById(Set.of(meeting.getId()))).thenReturn(List.of(meeting));
+
+        service.dispatchOutboxEntries(List.of(entry.getId()));
+
+        ArgumentCaptor<List<NotificationEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(n -> entry.getId().equals(n.getOutboxId())));
+        verify(repository, never()).deleteAllByMeetingId(any());
+        verify(outboxRepository).deleteAllInBatch(List.of(entry));
+    }
+
+    @Test
+    void dispatchOutboxEntries_skipsMaterialisedEntries()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        NotificationOutboxEntity entry = getOutboxEntry(meeting, true);
+        when(outboxRepository.findAllByIdInOrderByCreatedAtAsc(List.of(entry.getId()))).thenReturn(List.of(entry));
+        when(repository.findMaterialisedOutboxIds(List.of(entry.getId()))).thenReturn(Set.of(entry.getId()));
+        when(meetingRepository.findAllById(Set.of(meeting.getId()))).thenReturn(List.of(meeting));
+
+        service.dispatchOutboxEntries(List.of(entry.getId()));
+
+        verify(repository).saveAll(List.of());
+        verify(repository, never()).deleteAllByMeetingId(any());
+        verify(outboxRepository).deleteAllInBatch(List.of(entry));
+    }
+
+    @Test
+    void dispatchOutboxEntries_replacesExistingNotifications()
+    {
+        MeetingEntity meeting = TestUtils.getMeetingEntity();
+        NotificationOutboxEntity entry = getOutboxEntry(meeting, true);
+        when(outboxRepository.findAllByIdInOrderByCreatedAtAsc(List.of(entry.getId()))).thenReturn(List.of(entry));
+        when(repository.findMaterialisedOutboxIds(List.of(entry.getId()))).thenReturn(Set.of());
+        when(meetingRepository.findAllById(Set.of(meeting.getId()))).thenReturn(List.of(meeting));
+
+        service.dispatchOutboxEntries(List.of(entry.getId()));
+
+        verify(repository).deleteAllByMeetingId(meeting.getId());
+        verify(repository).saveAll(anyList());
+    }
+
+    @Test
+    void postponeOutboxEntry()
+    {
+        NotificationOutboxEntity entry = getOutboxEntry(TestUtils.getMeetingEntity(), false);
+        when(outboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+        when(outboxRepository.save(entry)).thenReturn(entry);
+
+        int attempts = service.postponeOutboxEntry(entry.getId(), Duration.ofMinutes(1));
+
+        assertEquals(1, attempts);
+        assertTrue(entry.getNextAttemptAt().isAfter(ZonedDateTime.now()));
+    }
+
     @Test
     void createDeleteCandidateNotifications()
     {
@@ -188,4 +293,16 @@ public class NotificationServiceImplTest
 
         assertTrue(notification.isViewed());
     }
+
+    private static NotificationOutboxEntity getOutboxEntry(MeetingEntity meeting, boolean replaceExisting)
+    {
+        NotificationOutboxEntity entry = new NotificationOutboxEntity();
+        entry.setId(UUID.randomUUID());
+        entry.setMeetingId(meeting.getId());
+        entry.setType(PARTICIPANT_ADDED);
+        entry.setRecipientList(List.of("p1@mail.com", "p2@mail.com"));
+        entry.setReplaceExisting(replaceExisting);
+        entry.setCreatedAt(ZonedDateTime.now());
+        return entry;
+    }
 }
\ No newline at end of file
@@ -82,7 +82,7 @@ public class PermissionControlServiceTest
     void canEditUsualMeeting_ReturnsTrue()
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meeting));
         assertTrue(permissionService.canEditMeeting(meeting.getId()));
     }
 
@@ -91,7 +91,7 @@ public class PermissionControlServiceTest
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
         meeting.setOwnerId("nononono");
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meeting));
         assertFalse(permissionService.canEditMeeting(meeting.getId()));
     }
 
@@ -99,7 +99,7 @@ public class PermissionControlServiceTest
     void canEditStaticRoom_ReturnsTrue1()
     {
         MeetingEntity room = TestUtils.getStaticRoom();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(room));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(room));
         assertTrue(permissionService.canEditMeeting(room.getId()));
     }
 
@@ -111,7 +111,7 @@ public class PermissionControlServiceTest
         staticRoom.getParticipants().get(0).setEmail("nononono1");
         staticRoom.getParticipants().get(1).setEmail("nononono2");
 
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(staticRoom));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(staticRoom));
         assertFalse(permissionService.canEditMeeting(staticRoom.getId()));
     }
 
@@ -122,7 +122,7 @@ public class PermissionControlServiceTest
         staticRoom.setOwnerId("nononono0");
         staticRoom.getParticipants().get(0).setRole("nononono1");
         staticRoom.getParticipants().get(1).setRole("nononono2");
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(staticRoom));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(staticRoom));
         assertFalse(permissionService.canEditMeeting(staticRoom.getId()));
     }
 
@@ -132,7 +132,7 @@ public class PermissionControlServiceTest
         MeetingEntity room = TestUtils.getStaticRoom();
         room.setId(room.getId());
         room.setParticipants(null);
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(room));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(room));
         assertFalse(permissionService.canEditMeeting(room.getId()));
     }
 
@@ -190,7 +190,7 @@ public class PermissionControlServiceTest
     void canReadUsualMeeting_ReturnsTrue()
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meeting));
         assertTrue(permissionService.canReadMeeting(meeting.getId()));
     }
 
@@ -200,14 +200,14 @@ public class PermissionControlServiceTest
         MeetingEntity meeting = TestUtils.getMeetingEntity();
         meeting.getParticipants().get(0).setEmail("nononono");
         meeting.getParticipants().get(1).setEmail("nononono");
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meeting));
         assertFalse(permissionService.canReadMeeting(meeting.getId()));
     }
 
     @Test
     void canReadUsualMeeting_ThrowsEntityNotFoundException()
     {
-        when(meetingRepository.findById(any())).thenReturn(Optional.empty());
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.empty());
 
         Exception ex = assertThrows(EntityNotFoundException.class,
                                     () -> permissionService.canReadMeeting(UUID.randomUUID()));
@@ -217,7 +217,7 @@ public class PermissionControlServiceTest
     @Test
     void canEditMeeting_newRecord_ReturnsTrue()
     {
-        when(meetingRepository.findById(any())).thenReturn(Optional.empty());
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.empty());
         assertTrue(permissionService.canEditMeeting(null));
     }
 
@@ -238,7 +238,7 @@ public class PermissionControlServiceTest
     void getPermissions_success()
     {
         MeetingEntity meeting = TestUtils.getMeetingEntity();
-        when(meetingRepository.findById(any())).thenReturn(Optional.of(meeting));
+        when(meetingRepository.findWithParticipantsById(any())).thenReturn(Optional.of(meeting));
 
         MeetingPermissionsDTO permissions = permissionService.getPermissions(meeting.getId());
 
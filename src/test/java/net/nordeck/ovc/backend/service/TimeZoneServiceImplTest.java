@@ -0,0 +1,49 @@
+package net.nordeck.ovc.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static net.nordeck.ovc.backend.Constants.ERR_INVALID_TIME_ZONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeZoneServiceImplTest
+{
+
+    private final TimeZoneServiceImpl service = new TimeZoneServiceImpl();
+
+    @Test
+    void resolve_blankReturnsNull()
+    {
+        assertNull(service.resolve(null));
+        assertNull(service.resolve(" "));
+    }
+
+    @Test
+    void resolve_cachesValidZones()
+    {
+        ZoneId zone = service.resolve("America/Sao_Paulo");
+        assertEquals(ZoneId.of("America/Sao_Paulo"), zone);
+        assertSame(zone, service.resolve("America/Sao_Paulo"));
+        assertEquals(ZoneOffset.ofHours(2), service.resolve("+02:00"));
+    }
+
+    @Test
+    void resolve_unknownZone()
+    {
+        Exception ex = assertThrows(InvalidRequestException.class, () -> service.resolve("Mars/Olympus"));
+        assertEquals(String.format(ERR_INVALID_TIME_ZONE, "Mars/Olympus"), ex.getMessage());
+        assertThrows(InvalidRequestException.class, () -> service.resolve("+25:00"));
+    }
+
+    @Test
+    void resolve_stopsCachingAtLimit()
+    {
+        service.cacheSize = 1;
+        ZoneId first = service.resolve("Europe/Berlin");
+        ZoneId second = service.resolve("Europe/Paris");
+        assertSame(first, service.resolve("Europe/Berlin"));
+        assertEquals(ZoneId.of("Europe/Paris"), second);
+    }
+}